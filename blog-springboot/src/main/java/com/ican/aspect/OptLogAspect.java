@@ -2,12 +2,10 @@ package com.ican.aspect;
 
 import cn.dev33.satoken.stp.StpUtil;
 import cn.hutool.extra.servlet.ServletUtil;
-import com.alibaba.fastjson2.JSON;
 import com.ican.annotation.OptLogger;
 import com.ican.entity.OperationLog;
 import com.ican.manager.AsyncManager;
 import com.ican.manager.factory.AsyncFactory;
-import com.ican.utils.IpUtils;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import org.aspectj.lang.JoinPoint;
@@ -93,28 +91,24 @@ public class OptLogAspect {
         operationLog.setName(methodName);
         // 操作描述
         operationLog.setDescription(apiOperation.value());
-        // 请求参数
-        if (joinPoint.getArgs()[0] instanceof MultipartFile) {
-            operationLog.setParams(((MultipartFile) joinPoint.getArgs()[0]).getOriginalFilename());
-        } else {
-            operationLog.setParams(JSON.toJSONString(joinPoint.getArgs()));
+        // 请求参数，上传文件只记录文件名（请求结束后临时文件会被删除）
+        Object[] args = joinPoint.getArgs();
+        if (args.length > 0 && args[0] instanceof MultipartFile) {
+            operationLog.setParams(((MultipartFile) args[0]).getOriginalFilename());
+            args = null;
         }
         // 请求方式
         operationLog.setMethod(Objects.requireNonNull(request).getMethod());
-        // 返回数据
-        operationLog.setData(JSON.toJSONString(result));
         // 请求用户ID
         operationLog.setUserId(StpUtil.getLoginIdAsInt());
         // 请求用户昵称
         operationLog.setNickname("Aric");
-        // 操作ip和操作地址
-        String ip = ServletUtil.getClientIP(request);
-        operationLog.setIpAddress(ip);
-        operationLog.setIpSource(IpUtils.getIpSource(ip));
+        // 操作ip，操作地址在异步任务中解析
+        operationLog.setIpAddress(ServletUtil.getClientIP(request));
         // 执行耗时
         operationLog.setTimes(System.currentTimeMillis() - startTime.get());
         startTime.remove();
-        // 保存到数据库
-        AsyncManager.getInstance().execute(AsyncFactory.recordOperation(operationLog));
+        // 序列化请求参数、返回数据并保存到数据库
+        AsyncManager.getInstance().execute(AsyncFactory.recordOperation(operationLog, args, result));
     }
 }
\ No newline at end of file
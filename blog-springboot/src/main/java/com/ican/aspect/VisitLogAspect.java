@@ -1,24 +1,19 @@
 package com.ican.aspect;
 
-import cn.hutool.extra.servlet.ServletUtil;
 import com.ican.annotation.VisitLogger;
-import com.ican.entity.VisitLog;
-import com.ican.manager.AsyncManager;
-import com.ican.manager.factory.AsyncFactory;
-import com.ican.utils.IpUtils;
-import com.ican.utils.UserAgentUtils;
+import com.ican.service.VisitLogService;
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.annotation.AfterReturning;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
 import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
 import javax.servlet.http.HttpServletRequest;
 import java.lang.reflect.Method;
-import java.util.Map;
 import java.util.Objects;
 
 /**
@@ -30,6 +25,9 @@ import java.util.Objects;
 @Component
 public class VisitLogAspect {
 
+    @Autowired
+    private VisitLogService visitLogService;
+
     @Pointcut("@annotation(com.ican.annotation.VisitLogger)")
     public void visitLogPointCut() {
     }
@@ -51,18 +49,8 @@ public class VisitLogAspect {
         // 获取request
         ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
         HttpServletRequest request = Objects.requireNonNull(attributes).getRequest();
-        VisitLog visitLog = new VisitLog();
-        String ipAddress = ServletUtil.getClientIP(request);
-        String ipSource = IpUtils.getIpSource(ipAddress);
-        // 解析browser和os
-        Map<String, String> userAgentMap = UserAgentUtils.parseOsAndBrowser(request.getHeader("User-Agent"));
-        visitLog.setIpAddress(ipAddress);
-        visitLog.setIpSource(ipSource);
-        visitLog.setOs(userAgentMap.get("os"));
-        visitLog.setBrowser(userAgentMap.get("browser"));
-        visitLog.setPage(visitLogger.value());
         // 保存到数据库
-        AsyncManager.getInstance().execute(AsyncFactory.recordVisit(visitLog));
+        visitLogService.recordVisit(request, visitLogger.value());
     }
 
 }
\ No newline at end of file
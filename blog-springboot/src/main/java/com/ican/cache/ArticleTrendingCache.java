@@ -0,0 +1,188 @@
+package com.ican.cache;
+
+import com.ican.config.properties.ArticleTrendingProperties;
+import com.ican.constant.CacheConstant;
+import com.ican.constant.RedisConstant;
+import com.ican.mapper.ArticleCardMapper;
+import com.ican.model.vo.response.ArticleHomeResp;
+import com.ican.model.vo.response.ArticleRankResp;
+import com.ican.service.RedisService;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.*;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 热门文章缓存
+ *
+ * <p>原排行按累计浏览量排序，新文章很难进入前列。热度改为按小时分桶的浏览量随时间衰减后求和：</p>
+ * <pre>
+ * 热度 = Σ 第i小时前的浏览量 × 0.5 ^ (i / 半衰期)
+ * </pre>
+ * <ul>
+ *     <li>浏览时与累计浏览量在同一次管道往返中写入当前小时的 ZSet，桶在统计窗口结束后自动过期</li>
+ *     <li>定时用带权重的 ZUNIONSTORE 在 Redis 中合并窗口内的桶，得到热度 ZSet</li>
+ *     <li>热度最高的文章连同标题缓存在内存中，排行接口不访问数据库和 Redis；
+ *     排行中的文章修改或删除时立即刷新</li>
+ *     <li>窗口内没有浏览时按累计浏览量排序</li>
+ * </ul>
+ *
+ * @author Aric
+ */
+@Slf4j
+@Component
+public class ArticleTrendingCache {
+
+    /**
+     * 每小时的毫秒数
+     */
+    private static final long HOUR_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    /**
+     * 热门文章，按热度降序
+     */
+    private volatile List<ArticleRankResp> rankList = Collections.emptyList();
+
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    @Autowired
+    private ArticleCardMapper articleCardMapper;
+
+    @Autowired
+    private RedisService redisService;
+
+    @Autowired
+    private ArticleTrendingProperties articleTrendingProperties;
+
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @Autowired
+    private ScheduledExecutorService scheduledExecutorService;
+
+    @PostConstruct
+    public void init() {
+        cacheInvalidationBus.subscribe(CacheConstant.ARTICLE, new CacheInvalidationBus.Listener() {
+            @Override
+            public void invalidate(Collection<String> keyList) {
+                Set<String> idSet = rankList.stream()
+                        .map(article -> article.getId().toString())
+                        .collect(Collectors.toSet());
+                if (keyList.stream().anyMatch(key -> idSet.contains(key) || !StringUtils.isNumeric(key))) {
+                    scheduledExecutorService.execute(ArticleTrendingCache.this::refresh);
+                }
+            }
+
+            @Override
+            public void invalidateAll() {
+                scheduledExecutorService.execute(ArticleTrendingCache.this::refresh);
+            }
+        });
+        long refreshInterval = articleTrendingProperties.getRefreshInterval();
+        scheduledExecutorService.scheduleWithFixedDelay(this::refresh, 0, refreshInterval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 记录文章浏览，累计浏览量和当前小时的浏览量在一次往返中写入
+     *
+     * @param articleId 文章id
+     * @return 累计浏览量
+     */
+    public int recordView(Integer articleId) {
+        List<Double> scoreList = redisService.incrZetMulti(Arrays.asList(RedisConstant.ARTICLE_VIEW_COUNT,
+                RedisConstant.ARTICLE_VIEW_HOUR + currentHour()), articleId, 1D);
+        return Optional.ofNullable(scoreList.get(0)).orElse(0D).intValue();
+    }
+
+    /**
+     * 查询热门文章
+     *
+     * @return 热门文章，按热度降序
+     */
+    public List<ArticleRankResp> listTrending() {
+        return rankList;
+    }
+
+    /**
+     * 重新计算热度并刷新热门文章
+     */
+    private void refresh() {
+        if (!refreshLock.tryLock()) {
+            return;
+        }
+        try {
+            int size = articleTrendingProperties.getSize();
+            // 多取一些，过滤掉非公开的文章
+            Map<Object, Double> scoreMap = computeTrending(size * 2);
+            if (scoreMap.isEmpty()) {
+                scoreMap = redisService.zReverseRangeWithScore(RedisConstant.ARTICLE_VIEW_COUNT, 0, size * 2 - 1);
+            }
+            List<Integer> articleIdList = scoreMap.entrySet().stream()
+                    .sorted(Map.Entry.<Object, Double>comparingByValue().reversed())
+                    .map(entry -> (Integer) entry.getKey())
+                    .collect(Collectors.toList());
+            if (articleIdList.isEmpty()) {
+                rankList = Collections.emptyList();
+                return;
+            }
+            // 文章卡片只包含公开文章
+            Map<Integer, ArticleHomeResp> articleMap = articleCardMapper.selectArticleNameList(articleIdList).stream()
+                    .collect(Collectors.toMap(ArticleHomeResp::getId, Function.identity()));
+            List<Integer> rankIdList = articleIdList.stream()
+                    .filter(articleMap::containsKey)
+                    .limit(size)
+                    .collect(Collectors.toList());
+            List<Double> viewCountList = redisService.getZsetScoreMulti(RedisConstant.ARTICLE_VIEW_COUNT, rankIdList);
+            List<ArticleRankResp> newRankList = new ArrayList<>(rankIdList.size());
+            for (int i = 0; i < rankIdList.size(); i++) {
+                Integer articleId = rankIdList.get(i);
+                newRankList.add(ArticleRankResp.builder()
+                        .id(articleId)
+                        .articleTitle(articleMap.get(articleId).getArticleTitle())
+                        .viewCount(Optional.ofNullable(viewCountList.get(i)).orElse(0D).intValue())
+                        .build());
+            }
+            rankList = Collections.unmodifiableList(newRankList);
+        } catch (Exception e) {
+            log.error("热门文章刷新失败", e);
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /**
+     * 按衰减权重合并窗口内每小时的浏览量
+     *
+     * @param limit 条数
+     * @return 文章id -> 热度
+     */
+    private Map<Object, Double> computeTrending(int limit) {
+        long hour = currentHour();
+        int windowHours = articleTrendingProperties.getWindowHours();
+        List<String> keyList = new ArrayList<>(windowHours);
+        double[] weights = new double[windowHours];
+        for (int i = 0; i < windowHours; i++) {
+            keyList.add(RedisConstant.ARTICLE_VIEW_HOUR + (hour - i));
+            weights[i] = Math.pow(0.5, i / articleTrendingProperties.getHalfLifeHours());
+        }
+        // 桶由浏览创建，在这里统一设置过期时间，上一小时的桶可能在最后一次刷新后才创建
+        keyList.stream()
+                .limit(2)
+                .forEach(key -> redisService.setExpire(key, windowHours + 1, TimeUnit.HOURS));
+        redisService.zUnionStore(RedisConstant.ARTICLE_TRENDING, keyList, weights);
+        return redisService.zReverseRangeWithScore(RedisConstant.ARTICLE_TRENDING, 0, limit - 1);
+    }
+
+    private static long currentHour() {
+        return System.currentTimeMillis() / HOUR_MILLIS;
+    }
+
+}
@@ -0,0 +1,141 @@
+package com.ican.cache;
+
+import com.ican.constant.CacheConstant;
+import com.ican.model.vo.response.BlogInfoResp;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 博客前台信息快照
+ *
+ * <p>首页每次访问都会请求博客信息，这里保存一份不可变快照及其序列化后的 JSON 字节，命中时不访问数据库、Redis，也不做序列化：</p>
+ * <ul>
+ *     <li>快照超过 {@link #REFRESH_INTERVAL} 后由一个请求线程重新加载，其他请求继续返回旧快照</li>
+ *     <li>文章或网站配置变更时经 {@link CacheInvalidationBus} 丢弃快照，下次请求立即重新加载</li>
+ * </ul>
+ *
+ * @author Aric
+ */
+@Slf4j
+@Component
+public class BlogInfoCache {
+
+    /**
+     * 快照刷新间隔（毫秒）
+     */
+    private static final long REFRESH_INTERVAL = TimeUnit.SECONDS.toMillis(10);
+
+    /**
+     * 当前快照
+     */
+    private volatile Snapshot snapshot;
+
+    /**
+     * 加载锁，同一时间只有一个线程重新加载
+     */
+    private final ReentrantLock loadLock = new ReentrantLock();
+
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @PostConstruct
+    public void init() {
+        CacheInvalidationBus.Listener listener = new CacheInvalidationBus.Listener() {
+            @Override
+            public void invalidate(Collection<String> keyList) {
+                snapshot = null;
+            }
+
+            @Override
+            public void invalidateAll() {
+                snapshot = null;
+            }
+        };
+        cacheInvalidationBus.subscribe(CacheConstant.ARTICLE, listener);
+        cacheInvalidationBus.subscribe(CacheConstant.SITE_CONFIG, listener);
+    }
+
+    /**
+     * 获取快照
+     *
+     * @param loader     博客信息加载函数
+     * @param serializer 响应体序列化函数
+     * @return 快照
+     */
+    public Snapshot get(Supplier<BlogInfoResp> loader, Function<BlogInfoResp, byte[]> serializer) {
+        Snapshot current = snapshot;
+        if (Objects.nonNull(current) && System.currentTimeMillis() < current.expireTime) {
+            return current;
+        }
+        if (Objects.nonNull(current)) {
+            // 快照已过期：抢到锁的线程刷新，其他线程直接返回旧快照
+            if (!loadLock.tryLock()) {
+                return current;
+            }
+        } else {
+            loadLock.lock();
+        }
+        try {
+            Snapshot latest = snapshot;
+            if (Objects.nonNull(latest) && latest != current) {
+                return latest;
+            }
+            return load(loader, serializer, current);
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    private Snapshot load(Supplier<BlogInfoResp> loader, Function<BlogInfoResp, byte[]> serializer, Snapshot current) {
+        try {
+            BlogInfoResp blogInfo = loader.get();
+            Snapshot loaded = new Snapshot(blogInfo, serializer.apply(blogInfo),
+                    System.currentTimeMillis() + REFRESH_INTERVAL);
+            snapshot = loaded;
+            return loaded;
+        } catch (RuntimeException e) {
+            if (Objects.isNull(current)) {
+                throw e;
+            }
+            // 刷新失败时继续使用旧快照，等待下次刷新
+            log.warn("博客信息快照刷新失败: {}", e.getMessage());
+            return current;
+        }
+    }
+
+    /**
+     * 博客信息快照，对象在线程间共享，调用方只能读取，不能修改
+     */
+    public static final class Snapshot {
+
+        private final BlogInfoResp blogInfo;
+
+        private final byte[] json;
+
+        private final long expireTime;
+
+        private Snapshot(BlogInfoResp blogInfo, byte[] json, long expireTime) {
+            this.blogInfo = blogInfo;
+            this.json = json;
+            this.expireTime = expireTime;
+        }
+
+        public BlogInfoResp getBlogInfo() {
+            return blogInfo;
+        }
+
+        public byte[] getJson() {
+            return json;
+        }
+    }
+
+}
@@ -0,0 +1,299 @@
+package com.ican.cache;
+
+import cn.hutool.core.util.IdUtil;
+import com.ican.constant.CacheConstant;
+import com.ican.model.dto.CacheInvalidationDTO;
+import com.ican.service.RedisService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.ican.utils.TransactionUtils.afterCommit;
+
+/**
+ * 本地缓存失效总线
+ *
+ * <p>基于 Redis pub/sub 在多个节点之间同步本地缓存的失效事件，每个缓存区域对应一个频道。</p>
+ *
+ * <h3>处理流程：</h3>
+ * <ol>
+ *     <li>发布时先同步通知本节点的监听器，再把失效key合并进待发送批次；处于事务中时推迟到事务提交后执行</li>
+ *     <li>后台定时把每个区域的批次作为一条消息发出，消息携带节点id和区域内递增的序列号</li>
+ *     <li>其他节点收到消息后按key失效；若发现序列号不连续（消息丢失），直接清空整个区域</li>
+ * </ol>
+ *
+ * @author Aric
+ */
+@Slf4j
+@Component
+public class CacheInvalidationBus implements MessageListener {
+
+    /**
+     * 批次发送间隔（毫秒）
+     */
+    private static final long FLUSH_INTERVAL = 100;
+
+    /**
+     * 单个批次最多携带的key数量，超过后改为清空整个区域
+     */
+    private static final int MAX_BATCH_KEYS = 256;
+
+    /**
+     * 最多记录的 节点:区域 序列号数量，节点重启后id会变化，超过后淘汰最久未收到消息的记录
+     */
+    private static final int MAX_RECEIVED_ENTRIES = 1024;
+
+    /**
+     * 当前节点id
+     */
+    private final String nodeId = IdUtil.fastSimpleUUID();
+
+    /**
+     * 区域 -> 本地监听器
+     */
+    private final Map<String, List<Listener>> listenerMap = new ConcurrentHashMap<>(16);
+
+    /**
+     * 区域 -> 待发送批次
+     */
+    private final Map<String, Batch> pendingMap = new ConcurrentHashMap<>(16);
+
+    /**
+     * 区域 -> 本节点发送序列号
+     */
+    private final Map<String, AtomicLong> sequenceMap = new ConcurrentHashMap<>(16);
+
+    /**
+     * 节点id:区域 -> 已收到的最大序列号，按访问顺序淘汰
+     */
+    private final Map<String, Long> receivedMap = new LinkedHashMap<String, Long>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+            return size() > MAX_RECEIVED_ENTRIES;
+        }
+    };
+
+    /**
+     * 定时发送任务
+     */
+    private ScheduledFuture<?> flushFuture;
+
+    @Autowired
+    private RedisService redisService;
+
+    @Resource
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Autowired
+    private RedisMessageListenerContainer redisMessageListenerContainer;
+
+    @Autowired
+    private ScheduledExecutorService scheduledExecutorService;
+
+    @PostConstruct
+    public void init() {
+        flushFuture = scheduledExecutorService.scheduleWithFixedDelay(this::flush, FLUSH_INTERVAL, FLUSH_INTERVAL,
+                TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        // 先停止定时任务，正在执行的发送结束后再发送剩余批次
+        flushFuture.cancel(false);
+        flush();
+    }
+
+    /**
+     * 注册缓存区域监听器
+     *
+     * @param region   缓存区域
+     * @param listener 监听器
+     */
+    public void subscribe(String region, Listener listener) {
+        listenerMap.computeIfAbsent(region, key -> {
+            redisMessageListenerContainer.addMessageListener(this, new ChannelTopic(CacheConstant.INVALIDATION_TOPIC + key));
+            return new CopyOnWriteArrayList<>();
+        }).add(listener);
+    }
+
+    /**
+     * 失效指定key
+     *
+     * @param region  缓存区域
+     * @param keyList 缓存key列表
+     */
+    public void publish(String region, Collection<String> keyList) {
+        if (Objects.isNull(keyList) || keyList.isEmpty()) {
+            return;
+        }
+        List<String> copyList = new ArrayList<>(keyList);
+        afterCommit(() -> {
+            notifyLocal(region, copyList, false);
+            pendingMap.computeIfAbsent(region, key -> new Batch()).add(copyList);
+        });
+    }
+
+    /**
+     * 失效指定key
+     *
+     * @param region 缓存区域
+     * @param key    缓存key
+     */
+    public void publish(String region, String key) {
+        publish(region, Collections.singletonList(key));
+    }
+
+    /**
+     * 清空整个缓存区域
+     *
+     * @param region 缓存区域
+     */
+    public void publishAll(String region) {
+        afterCommit(() -> {
+            notifyLocal(region, Collections.emptyList(), true);
+            pendingMap.computeIfAbsent(region, key -> new Batch()).addAll();
+        });
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        Object body = redisTemplate.getValueSerializer().deserialize(message.getBody());
+        if (!(body instanceof CacheInvalidationDTO)) {
+            return;
+        }
+        CacheInvalidationDTO invalidation = (CacheInvalidationDTO) body;
+        if (nodeId.equals(invalidation.getNodeId())) {
+            return;
+        }
+        String region = invalidation.getRegion();
+        long sequence = invalidation.getSequence();
+        String receivedKey = invalidation.getNodeId() + ":" + region;
+        Long last;
+        // 监听容器可能并发分发消息，序列号比对需要串行
+        synchronized (receivedMap) {
+            last = receivedMap.get(receivedKey);
+            if (Objects.nonNull(last) && sequence <= last) {
+                // 重复或乱序到达的旧消息，缺口处理时已清空过区域
+                return;
+            }
+            receivedMap.put(receivedKey, sequence);
+        }
+        boolean gap = Objects.nonNull(last) && sequence != last + 1;
+        if (gap) {
+            log.warn("缓存区域[{}]失效消息序列号不连续: {} -> {}，清空整个区域", region, last, sequence);
+        }
+        boolean all = gap || Boolean.TRUE.equals(invalidation.getAll());
+        notifyLocal(region, Optional.ofNullable(invalidation.getKeyList()).orElse(Collections.emptyList()), all);
+    }
+
+    /**
+     * 发送所有待发送批次，串行执行保证同一区域的消息按序列号顺序发出
+     */
+    private synchronized void flush() {
+        pendingMap.forEach((region, batch) -> {
+            CacheInvalidationDTO invalidation = batch.drain();
+            if (Objects.isNull(invalidation)) {
+                return;
+            }
+            invalidation.setNodeId(nodeId);
+            invalidation.setRegion(region);
+            invalidation.setSequence(sequenceMap.computeIfAbsent(region, key -> new AtomicLong()).incrementAndGet());
+            try {
+                redisService.publish(CacheConstant.INVALIDATION_TOPIC + region, invalidation);
+            } catch (Exception e) {
+                // 序列号已递增，其他节点会在下一条消息时发现缺口并清空区域
+                log.warn("缓存区域[{}]失效消息发送失败: {}", region, e.getMessage());
+            }
+        });
+    }
+
+    private void notifyLocal(String region, Collection<String> keyList, boolean all) {
+        List<Listener> listenerList = listenerMap.get(region);
+        if (Objects.isNull(listenerList)) {
+            return;
+        }
+        for (Listener listener : listenerList) {
+            try {
+                if (all) {
+                    listener.invalidateAll();
+                } else {
+                    listener.invalidate(keyList);
+                }
+            } catch (Exception e) {
+                log.error("缓存区域[{}]失效处理异常", region, e);
+            }
+        }
+    }
+
+    /**
+     * 缓存失效监听器
+     */
+    public interface Listener {
+
+        /**
+         * 失效指定key
+         *
+         * @param keyList 缓存key列表
+         */
+        void invalidate(Collection<String> keyList);
+
+        /**
+         * 清空整个区域
+         */
+        void invalidateAll();
+    }
+
+    /**
+     * 待发送批次
+     */
+    private static final class Batch {
+
+        private Set<String> keySet = new LinkedHashSet<>();
+
+        private boolean all;
+
+        private synchronized void add(Collection<String> keyList) {
+            if (!all) {
+                keySet.addAll(keyList);
+                if (keySet.size() > MAX_BATCH_KEYS) {
+                    addAll();
+                }
+            }
+        }
+
+        private synchronized void addAll() {
+            all = true;
+            keySet.clear();
+        }
+
+        private synchronized CacheInvalidationDTO drain() {
+            if (!all && keySet.isEmpty()) {
+                return null;
+            }
+            CacheInvalidationDTO invalidation = CacheInvalidationDTO.builder()
+                    .all(all)
+                    .keyList(new ArrayList<>(keySet))
+                    .build();
+            keySet = new LinkedHashSet<>();
+            all = false;
+            return invalidation;
+        }
+    }
+
+}
@@ -0,0 +1,166 @@
+package com.ican.cache;
+
+import com.ican.constant.CacheConstant;
+import com.ican.mapper.CommentMapper;
+import com.ican.model.dto.CommentReferenceDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.*;
+
+/**
+ * 评论引用数据本地缓存
+ *
+ * <p>发表评论时需要确认文章或说说存在、被回复用户存在，发送通知时还需要标题、作者、昵称和邮箱。
+ * 这些数据短时间内缓存在本节点，未命中的部分通过一条 UNION 语句批量查询：</p>
+ * <ul>
+ *     <li>只缓存存在的数据，不存在的引用每次都会查询</li>
+ *     <li>文章、用户、说说变更时经 {@link CacheInvalidationBus} 立即失效，{@link #EXPIRE_TIME} 只作兜底</li>
+ *     <li>超过 {@link #MAX_SIZE} 时淘汰最久未访问的条目</li>
+ * </ul>
+ *
+ * @author Aric
+ */
+@Component
+public class CommentReferenceCache {
+
+    public static final String USER = "user";
+
+    public static final String ARTICLE = "article";
+
+    public static final String TALK = "talk";
+
+    /**
+     * 缓存有效期（毫秒）
+     */
+    private static final long EXPIRE_TIME = 60000;
+
+    /**
+     * 最大缓存条数，超过后淘汰最久未访问的条目
+     */
+    private static final int MAX_SIZE = 4096;
+
+    /**
+     * 类型:id -> 缓存条目，按访问顺序排列
+     */
+    private final Map<String, Entry> cache = Collections.synchronizedMap(new LinkedHashMap<String, Entry>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > MAX_SIZE;
+        }
+    });
+
+    @Autowired
+    private CommentMapper commentMapper;
+
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @PostConstruct
+    public void init() {
+        subscribe(CacheConstant.ARTICLE, ARTICLE);
+        subscribe(CacheConstant.USER, USER);
+        subscribe(CacheConstant.TALK, TALK);
+    }
+
+    /**
+     * 批量获取评论引用数据，未命中的部分一次查询
+     *
+     * @param articleId  文章id，可为空
+     * @param talkId     说说id，可为空
+     * @param userIdList 用户id列表
+     * @return 类型:id -> 引用数据，不存在的引用不在其中
+     */
+    public Map<String, CommentReferenceDTO> load(Integer articleId, Integer talkId, Collection<Integer> userIdList) {
+        Map<String, CommentReferenceDTO> referenceMap = new HashMap<>(8);
+        long now = System.currentTimeMillis();
+        Integer missArticleId = Objects.nonNull(articleId) && !hit(key(ARTICLE, articleId), now, referenceMap) ? articleId : null;
+        Integer missTalkId = Objects.nonNull(talkId) && !hit(key(TALK, talkId), now, referenceMap) ? talkId : null;
+        Set<Integer> missUserIdSet = new HashSet<>();
+        for (Integer userId : userIdList) {
+            if (Objects.nonNull(userId) && !hit(key(USER, userId), now, referenceMap)) {
+                missUserIdSet.add(userId);
+            }
+        }
+        if (Objects.isNull(missArticleId) && Objects.isNull(missTalkId) && missUserIdSet.isEmpty()) {
+            return referenceMap;
+        }
+        List<CommentReferenceDTO> referenceList = commentMapper.selectCommentReference(missArticleId, missTalkId, missUserIdSet);
+        long expireTime = now + EXPIRE_TIME;
+        for (CommentReferenceDTO reference : referenceList) {
+            String key = key(reference.getRefType(), reference.getId());
+            cache.put(key, new Entry(reference, expireTime));
+            referenceMap.put(key, reference);
+        }
+        return referenceMap;
+    }
+
+    /**
+     * 获取用户昵称和邮箱
+     *
+     * @param userId 用户id
+     * @return 用户引用数据，不存在时为null
+     */
+    public CommentReferenceDTO getUser(Integer userId) {
+        return load(null, null, Collections.singletonList(userId)).get(key(USER, userId));
+    }
+
+    /**
+     * 生成缓存key
+     *
+     * @param refType 引用类型
+     * @param id      引用id
+     * @return 类型:id
+     */
+    public static String key(String refType, Integer id) {
+        return refType + ":" + id;
+    }
+
+    /**
+     * 订阅缓存区域，按 类型:id 失效
+     *
+     * @param region  缓存区域
+     * @param refType 引用类型
+     */
+    private void subscribe(String region, String refType) {
+        cacheInvalidationBus.subscribe(region, new CacheInvalidationBus.Listener() {
+            @Override
+            public void invalidate(Collection<String> keyList) {
+                keyList.forEach(key -> cache.remove(refType + ":" + key));
+            }
+
+            @Override
+            public void invalidateAll() {
+                synchronized (cache) {
+                    cache.keySet().removeIf(key -> key.startsWith(refType + ":"));
+                }
+            }
+        });
+    }
+
+    private boolean hit(String key, long now, Map<String, CommentReferenceDTO> referenceMap) {
+        Entry entry = cache.get(key);
+        if (Objects.isNull(entry) || entry.expireTime < now) {
+            return false;
+        }
+        referenceMap.put(key, entry.reference);
+        return true;
+    }
+
+    /**
+     * 缓存条目
+     */
+    private static final class Entry {
+
+        private final CommentReferenceDTO reference;
+
+        private final long expireTime;
+
+        private Entry(CommentReferenceDTO reference, long expireTime) {
+            this.reference = reference;
+            this.expireTime = expireTime;
+        }
+    }
+
+}
@@ -0,0 +1,168 @@
+package com.ican.cache;
+
+import com.ican.constant.CacheConstant;
+import com.ican.model.vo.response.MenuOptionResp;
+import com.ican.model.vo.response.MenuTreeResp;
+import com.ican.model.vo.response.RouterResp;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * 菜单树本地缓存
+ *
+ * <p>缓存已构建完成的结构，避免每次后台页面加载都查询菜单表并递归生成：</p>
+ * <ul>
+ *     <li>用户路由：按角色集合（排序后的角色id）缓存 {@link RouterResp} 树，拥有相同角色的用户共享同一份路由</li>
+ *     <li>菜单下拉树 {@link MenuTreeResp} 和菜单选项树 {@link MenuOptionResp}：全局唯一</li>
+ * </ul>
+ *
+ * <p>菜单或角色发生变更时由 MenuService / RoleService 调用 {@link #clear()}，
+ * 经 {@link CacheInvalidationBus} 使所有节点整体失效。通过版本号防止加载期间发生失效时把旧数据写回缓存。</p>
+ *
+ * @author Aric
+ */
+@Component
+public class MenuTreeCache {
+
+    /**
+     * 角色集合 -> 路由树
+     */
+    private final Map<String, List<RouterResp>> routerCache = new ConcurrentHashMap<>(16);
+
+    /**
+     * 菜单下拉树
+     */
+    private volatile List<MenuTreeResp> menuTree;
+
+    /**
+     * 菜单选项树
+     */
+    private volatile List<MenuOptionResp> menuOption;
+
+    /**
+     * 缓存版本号，每次失效递增
+     */
+    private final AtomicLong version = new AtomicLong();
+
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @PostConstruct
+    public void init() {
+        cacheInvalidationBus.subscribe(CacheConstant.MENU, new CacheInvalidationBus.Listener() {
+            @Override
+            public void invalidate(Collection<String> keyList) {
+                clearLocal();
+            }
+
+            @Override
+            public void invalidateAll() {
+                clearLocal();
+            }
+        });
+    }
+
+    /**
+     * 获取角色集合对应的路由树
+     *
+     * @param roleIdList 角色id列表
+     * @param loader     缓存未命中时的加载函数
+     * @return 路由树
+     */
+    public List<RouterResp> getRouters(List<String> roleIdList, Supplier<List<RouterResp>> loader) {
+        String key = roleKey(roleIdList);
+        List<RouterResp> routers = routerCache.get(key);
+        if (Objects.nonNull(routers)) {
+            return routers;
+        }
+        long current = version.get();
+        routers = Collections.unmodifiableList(loader.get());
+        if (current == version.get()) {
+            routerCache.put(key, routers);
+        }
+        return routers;
+    }
+
+    /**
+     * 获取菜单下拉树
+     *
+     * @param loader 缓存未命中时的加载函数
+     * @return 菜单下拉树
+     */
+    public List<MenuTreeResp> getMenuTree(Supplier<List<MenuTreeResp>> loader) {
+        List<MenuTreeResp> tree = menuTree;
+        if (Objects.nonNull(tree)) {
+            return tree;
+        }
+        long current = version.get();
+        tree = Collections.unmodifiableList(loader.get());
+        if (current == version.get()) {
+            menuTree = tree;
+        }
+        return tree;
+    }
+
+    /**
+     * 获取菜单选项树
+     *
+     * @param loader 缓存未命中时的加载函数
+     * @return 菜单选项树
+     */
+    public List<MenuOptionResp> getMenuOption(Supplier<List<MenuOptionResp>> loader) {
+        List<MenuOptionResp> option = menuOption;
+        if (Objects.nonNull(option)) {
+            return option;
+        }
+        long current = version.get();
+        option = Collections.unmodifiableList(loader.get());
+        if (current == version.get()) {
+            menuOption = option;
+        }
+        return option;
+    }
+
+    /**
+     * 清空所有节点的菜单缓存
+     */
+    public void clear() {
+        cacheInvalidationBus.publishAll(CacheConstant.MENU);
+    }
+
+    /**
+     * 清空本节点的菜单缓存
+     */
+    private void clearLocal() {
+        version.incrementAndGet();
+        routerCache.clear();
+        menuTree = null;
+        menuOption = null;
+    }
+
+    /**
+     * 生成角色集合key，与角色顺序无关
+     *
+     * @param roleIdList 角色id列表
+     * @return 角色集合key
+     */
+    private String roleKey(List<String> roleIdList) {
+        if (Objects.isNull(roleIdList) || roleIdList.isEmpty()) {
+            return "";
+        }
+        return roleIdList.stream()
+                .distinct()
+                .sorted()
+                .collect(Collectors.joining(","));
+    }
+
+}
@@ -0,0 +1,170 @@
+package com.ican.cache;
+
+import com.ican.constant.CacheConstant;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 小型列表缓存
+ *
+ * <p>轮播图、友链、推荐文章、分类/标签选项、相册等列表数据量小、很少修改，却在每次渲染首页时查询数据库。
+ * 这里按key在内存中缓存整个列表，读取时按需加载：</p>
+ * <ul>
+ *     <li>每个条目记录加载前各依赖区域的版本号，后台修改后经 {@link CacheInvalidationBus} 失效区域，
+ *     版本号递增，下次读取时同步重新加载</li>
+ *     <li>条目超过 {@link #REFRESH_AFTER} 后仍直接返回旧列表，同时在异步线程池中重新加载，兜底未发失效通知的修改；
+ *     加载会查询数据库，不占用共享的定时任务线程池</li>
+ *     <li>同一个key同时只有一个线程加载，其他线程等待同一个结果；加载失败时如有旧列表则继续使用</li>
+ * </ul>
+ *
+ * <p>返回的列表不可修改，且被所有调用方共享。</p>
+ *
+ * @author Aric
+ */
+@Slf4j
+@Component
+public class ReferenceListCache {
+
+    /**
+     * 后台刷新间隔（毫秒）
+     */
+    private static final long REFRESH_AFTER = TimeUnit.MINUTES.toMillis(10);
+
+    /**
+     * 支持失效的缓存区域
+     */
+    private static final String[] REGIONS = {CacheConstant.ARTICLE, CacheConstant.CATEGORY, CacheConstant.TAG,
+            CacheConstant.CAROUSEL, CacheConstant.FRIEND, CacheConstant.ALBUM};
+
+    /**
+     * 缓存key -> 条目
+     */
+    private final Map<String, Entry> entryMap = new ConcurrentHashMap<>(16);
+
+    /**
+     * 缓存key -> 正在进行的加载
+     */
+    private final Map<String, CompletableFuture<Entry>> loadingMap = new ConcurrentHashMap<>(16);
+
+    /**
+     * 区域 -> 版本号
+     */
+    private final Map<String, AtomicLong> versionMap = new ConcurrentHashMap<>(8);
+
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @Autowired
+    private ThreadPoolTaskExecutor threadPoolTaskExecutor;
+
+    @PostConstruct
+    public void init() {
+        for (String region : REGIONS) {
+            AtomicLong version = versionMap.computeIfAbsent(region, key -> new AtomicLong());
+            cacheInvalidationBus.subscribe(region, new CacheInvalidationBus.Listener() {
+                @Override
+                public void invalidate(Collection<String> keyList) {
+                    version.incrementAndGet();
+                }
+
+                @Override
+                public void invalidateAll() {
+                    version.incrementAndGet();
+                }
+            });
+        }
+    }
+
+    /**
+     * 读取列表，不存在或已失效时加载
+     *
+     * @param key     缓存key
+     * @param loader  加载方法
+     * @param regions 依赖的区域
+     * @return 不可修改的列表
+     */
+    @SuppressWarnings("unchecked")
+    public <T> List<T> get(String key, Supplier<List<T>> loader, String... regions) {
+        Entry entry = entryMap.get(key);
+        if (Objects.nonNull(entry) && Arrays.equals(entry.versions, versions(regions))) {
+            if (System.currentTimeMillis() - entry.loadTime >= REFRESH_AFTER && !loadingMap.containsKey(key)) {
+                threadPoolTaskExecutor.execute(() -> load(key, loader, regions));
+            }
+            return (List<T>) entry.list;
+        }
+        try {
+            Entry loaded = load(key, loader, regions).join();
+            if (!Arrays.equals(loaded.versions, versions(regions))) {
+                // 拿到的是失效前开始的后台加载
+                loaded = load(key, loader, regions).join();
+            }
+            return (List<T>) loaded.list;
+        } catch (CompletionException e) {
+            if (Objects.nonNull(entry)) {
+                return (List<T>) entry.list;
+            }
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+    }
+
+    /**
+     * 加载列表，已有线程在加载时返回同一个结果
+     */
+    private <T> CompletableFuture<Entry> load(String key, Supplier<List<T>> loader, String[] regions) {
+        CompletableFuture<Entry> future = new CompletableFuture<>();
+        CompletableFuture<Entry> loading = loadingMap.putIfAbsent(key, future);
+        if (Objects.nonNull(loading)) {
+            return loading;
+        }
+        try {
+            // 先取版本号再加载，加载期间的修改会使条目在下次读取时失效
+            long[] versions = versions(regions);
+            Entry entry = new Entry(Collections.unmodifiableList(new ArrayList<>(loader.get())), versions);
+            entryMap.put(key, entry);
+            loadingMap.remove(key, future);
+            future.complete(entry);
+        } catch (Exception e) {
+            log.error("列表缓存加载失败: {}", key, e);
+            loadingMap.remove(key, future);
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    private long[] versions(String[] regions) {
+        long[] versions = new long[regions.length];
+        for (int i = 0; i < regions.length; i++) {
+            versions[i] = versionMap.computeIfAbsent(regions[i], key -> new AtomicLong()).get();
+        }
+        return versions;
+    }
+
+    /**
+     * 缓存条目
+     */
+    private static final class Entry {
+
+        private final List<?> list;
+
+        private final long[] versions;
+
+        private final long loadTime = System.currentTimeMillis();
+
+        private Entry(List<?> list, long[] versions) {
+            this.list = list;
+            this.versions = versions;
+        }
+    }
+
+}
@@ -0,0 +1,202 @@
+package com.ican.cache;
+
+import com.ican.constant.CacheConstant;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import javax.annotation.PostConstruct;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 接口响应缓存
+ *
+ * <p>按 URI + 查询参数保存序列化后的响应体，供 {@link com.ican.filter.ResponseCacheFilter} 直接返回：</p>
+ * <ul>
+ *     <li>ETag 取响应体的 MD5，内容不变时客户端得到 304</li>
+ *     <li>每个条目记录写入前各依赖区域的版本号，区域经 {@link CacheInvalidationBus} 失效后版本号递增，旧条目随之作废</li>
+ *     <li>条目另有过期时间，兜底浏览量等不发失效通知的数据</li>
+ *     <li>超过 {@link #GZIP_THRESHOLD} 的响应体预先压缩一份 gzip</li>
+ * </ul>
+ *
+ * @author Aric
+ */
+@Slf4j
+@Component
+public class ResponseCache {
+
+    /**
+     * 最大条目数，超过后不再缓存新的key
+     */
+    private static final int MAX_ENTRIES = 1024;
+
+    /**
+     * 预压缩阈值（字节）
+     */
+    private static final int GZIP_THRESHOLD = 1024;
+
+    /**
+     * 支持失效的缓存区域
+     */
+    private static final String[] REGIONS = {CacheConstant.ARTICLE, CacheConstant.SITE_CONFIG, CacheConstant.CATEGORY};
+
+    /**
+     * 缓存key -> 条目
+     */
+    private final Map<String, Entry> entryMap = new ConcurrentHashMap<>(64);
+
+    /**
+     * 区域 -> 版本号
+     */
+    private final Map<String, AtomicLong> versionMap = new ConcurrentHashMap<>(8);
+
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @PostConstruct
+    public void init() {
+        for (String region : REGIONS) {
+            AtomicLong version = versionMap.computeIfAbsent(region, key -> new AtomicLong());
+            cacheInvalidationBus.subscribe(region, new CacheInvalidationBus.Listener() {
+                @Override
+                public void invalidate(Collection<String> keyList) {
+                    invalidateRegion(region, version);
+                }
+
+                @Override
+                public void invalidateAll() {
+                    invalidateRegion(region, version);
+                }
+            });
+        }
+    }
+
+    /**
+     * 获取区域当前版本号，需在执行接口之前获取
+     *
+     * @param regions 依赖的区域
+     * @return 版本号
+     */
+    public long[] versions(String[] regions) {
+        long[] versions = new long[regions.length];
+        for (int i = 0; i < regions.length; i++) {
+            versions[i] = versionMap.computeIfAbsent(regions[i], key -> new AtomicLong()).get();
+        }
+        return versions;
+    }
+
+    /**
+     * 获取有效条目
+     *
+     * @param key 缓存key
+     * @return 条目，不存在或已失效时返回null
+     */
+    public Entry get(String key) {
+        Entry entry = entryMap.get(key);
+        if (Objects.isNull(entry)) {
+            return null;
+        }
+        if (System.currentTimeMillis() >= entry.expireTime || !Arrays.equals(entry.versions, versions(entry.regions))) {
+            entryMap.remove(key, entry);
+            return null;
+        }
+        return entry;
+    }
+
+    /**
+     * 保存条目
+     *
+     * @param key         缓存key
+     * @param regions     依赖的区域
+     * @param versions    执行接口前获取的版本号
+     * @param ttl         过期时间（毫秒）
+     * @param contentType 响应类型
+     * @param body        响应体
+     * @return 条目
+     */
+    public Entry put(String key, String[] regions, long[] versions, long ttl, String contentType, byte[] body) {
+        Entry entry = new Entry(regions, versions, System.currentTimeMillis() + ttl, contentType, body,
+                "\"" + DigestUtils.md5DigestAsHex(body) + "\"", body.length > GZIP_THRESHOLD ? gzip(body) : null);
+        // 执行期间区域已失效，本次结果不缓存
+        if (!Arrays.equals(versions, versions(regions))) {
+            return entry;
+        }
+        if (entryMap.size() < MAX_ENTRIES || entryMap.containsKey(key)) {
+            entryMap.put(key, entry);
+        }
+        return entry;
+    }
+
+    private void invalidateRegion(String region, AtomicLong version) {
+        version.incrementAndGet();
+        entryMap.values().removeIf(entry -> Arrays.asList(entry.regions).contains(region));
+    }
+
+    private byte[] gzip(byte[] body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            log.warn("响应体压缩失败: {}", e.getMessage());
+            return null;
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * 缓存条目，对象在线程间共享，调用方只能读取，不能修改
+     */
+    public static final class Entry {
+
+        private final String[] regions;
+
+        private final long[] versions;
+
+        private final long expireTime;
+
+        private final String contentType;
+
+        private final byte[] body;
+
+        private final String etag;
+
+        private final byte[] gzipBody;
+
+        private Entry(String[] regions, long[] versions, long expireTime, String contentType, byte[] body,
+                      String etag, byte[] gzipBody) {
+            this.regions = regions;
+            this.versions = versions;
+            this.expireTime = expireTime;
+            this.contentType = contentType;
+            this.body = body;
+            this.etag = etag;
+            this.gzipBody = gzipBody;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public byte[] getBody() {
+            return body;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        public byte[] getGzipBody() {
+            return gzipBody;
+        }
+    }
+
+}
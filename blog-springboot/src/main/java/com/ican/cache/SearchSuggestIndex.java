@@ -0,0 +1,370 @@
+package com.ican.cache;
+
+import com.ican.constant.CacheConstant;
+import com.ican.constant.RedisConstant;
+import com.ican.enums.SuggestTypeEnum;
+import com.ican.mapper.ArticleCardMapper;
+import com.ican.model.vo.response.ArticleHomeResp;
+import com.ican.model.vo.response.SuggestResp;
+import com.ican.model.vo.response.TagOptionResp;
+import com.ican.service.RedisService;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 搜索建议索引
+ *
+ * <p>在内存中为公开文章的标题、标签名、分类名建立前缀索引，输入时无需查询数据库：</p>
+ * <ul>
+ *     <li>每个名称按词首（开头、分隔符之后、每个汉字）生成多个key，支持从词中间开始匹配</li>
+ *     <li>key排序后存入数组，前缀对应数组中的一段连续区间，两次二分查找即可定位</li>
+ *     <li>在权重数组上建立稀疏表，区间内最大权重O(1)查询，前k个结果只需O(k log k)，与区间长度无关</li>
+ *     <li>文章权重为浏览量，标签和分类权重为其下文章浏览量之和</li>
+ * </ul>
+ *
+ * <p>索引不可变，更新时生成新快照后整体替换。收到文章缓存失效时只重新加载变更的文章，
+ * 分类变更或消息丢失时全量加载，浏览量由定时全量加载刷新。</p>
+ *
+ * @author Aric
+ */
+@Slf4j
+@Component
+public class SearchSuggestIndex {
+
+    /**
+     * 全量刷新间隔（秒）
+     */
+    private static final long REFRESH_INTERVAL = 300;
+
+    /**
+     * key最大长度
+     */
+    private static final int MAX_KEY_LENGTH = 32;
+
+    /**
+     * 名称分隔符
+     */
+    private static final String SEPARATORS = " -_/\\.,:;|()[]{}<>\"'!?，。：；、（）【】《》“”‘’！？·";
+
+    /**
+     * 当前快照
+     */
+    private volatile Snapshot snapshot;
+
+    /**
+     * 待重新加载的文章id
+     */
+    private final Set<Integer> pendingIdSet = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 是否需要全量加载
+     */
+    private final AtomicBoolean pendingAll = new AtomicBoolean(true);
+
+    @Autowired
+    private ArticleCardMapper articleCardMapper;
+
+    @Autowired
+    private RedisService redisService;
+
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @Autowired
+    private ScheduledExecutorService scheduledExecutorService;
+
+    @PostConstruct
+    public void init() {
+        cacheInvalidationBus.subscribe(CacheConstant.ARTICLE, new CacheInvalidationBus.Listener() {
+            @Override
+            public void invalidate(Collection<String> keyList) {
+                for (String key : keyList) {
+                    if (StringUtils.isNumeric(key)) {
+                        pendingIdSet.add(Integer.valueOf(key));
+                    } else {
+                        pendingAll.set(true);
+                    }
+                }
+                scheduledExecutorService.execute(SearchSuggestIndex.this::apply);
+            }
+
+            @Override
+            public void invalidateAll() {
+                pendingAll.set(true);
+                scheduledExecutorService.execute(SearchSuggestIndex.this::apply);
+            }
+        });
+        cacheInvalidationBus.subscribe(CacheConstant.CATEGORY, new CacheInvalidationBus.Listener() {
+            @Override
+            public void invalidate(Collection<String> keyList) {
+                invalidateAll();
+            }
+
+            @Override
+            public void invalidateAll() {
+                pendingAll.set(true);
+                scheduledExecutorService.execute(SearchSuggestIndex.this::apply);
+            }
+        });
+        scheduledExecutorService.scheduleWithFixedDelay(() -> {
+            pendingAll.set(true);
+            apply();
+        }, 0, REFRESH_INTERVAL, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 查询搜索建议
+     *
+     * @param keyword 关键词
+     * @param limit   条数
+     * @return 按权重降序排列的建议
+     */
+    public List<SuggestResp> suggest(String keyword, int limit) {
+        Snapshot current = snapshot;
+        String prefix = StringUtils.left(normalize(keyword), MAX_KEY_LENGTH);
+        if (Objects.isNull(current) || prefix.isEmpty() || limit <= 0) {
+            return new ArrayList<>();
+        }
+        int from = lowerBound(current.keys, prefix);
+        int to = lowerBound(current.keys, prefix + Character.MAX_VALUE) - 1;
+        List<SuggestResp> suggestList = new ArrayList<>(limit);
+        if (from > to) {
+            return suggestList;
+        }
+        // 区间按最大权重位置拆分，每次取出权重最大的区间
+        PriorityQueue<int[]> queue = new PriorityQueue<>((a, b) -> Double.compare(current.weights[b[0]], current.weights[a[0]]));
+        queue.add(new int[]{current.argMax(from, to), from, to});
+        Set<SuggestResp> seenSet = Collections.newSetFromMap(new IdentityHashMap<>());
+        while (suggestList.size() < limit && !queue.isEmpty()) {
+            int[] range = queue.poll();
+            int max = range[0];
+            if (seenSet.add(current.suggestions[max])) {
+                suggestList.add(current.suggestions[max]);
+            }
+            if (range[1] < max) {
+                queue.add(new int[]{current.argMax(range[1], max - 1), range[1], max - 1});
+            }
+            if (max < range[2]) {
+                queue.add(new int[]{current.argMax(max + 1, range[2]), max + 1, range[2]});
+            }
+        }
+        return suggestList;
+    }
+
+    /**
+     * 应用待处理的变更
+     */
+    private synchronized void apply() {
+        try {
+            if (pendingAll.getAndSet(false)) {
+                pendingIdSet.clear();
+                List<ArticleHomeResp> articleList = articleCardMapper.selectArticleNameList(null);
+                Map<Object, Double> viewCountMap = redisService.getZsetAllScore(RedisConstant.ARTICLE_VIEW_COUNT);
+                Map<Integer, Double> weightMap = new HashMap<>(articleList.size());
+                articleList.forEach(article -> weightMap.put(article.getId(),
+                        Optional.ofNullable(viewCountMap.get(article.getId())).orElse(0D)));
+                snapshot = build(articleList.stream()
+                        .collect(Collectors.toMap(ArticleHomeResp::getId, Function.identity())), weightMap);
+                return;
+            }
+            Snapshot current = snapshot;
+            if (pendingIdSet.isEmpty() || Objects.isNull(current)) {
+                return;
+            }
+            List<Integer> articleIdList = new ArrayList<>(pendingIdSet);
+            pendingIdSet.removeAll(articleIdList);
+            Map<Integer, ArticleHomeResp> articleMap = new HashMap<>(current.articleMap);
+            Map<Integer, Double> weightMap = new HashMap<>(current.weightMap);
+            articleIdList.forEach(articleMap::remove);
+            for (ArticleHomeResp article : articleCardMapper.selectArticleNameList(articleIdList)) {
+                articleMap.put(article.getId(), article);
+                weightMap.put(article.getId(), Optional.ofNullable(redisService
+                        .getZsetScore(RedisConstant.ARTICLE_VIEW_COUNT, article.getId())).orElse(0D));
+            }
+            weightMap.keySet().retainAll(articleMap.keySet());
+            snapshot = build(articleMap, weightMap);
+        } catch (Exception e) {
+            pendingAll.set(true);
+            log.warn("搜索建议索引更新失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 生成快照
+     *
+     * @param articleMap 文章id -> 文章
+     * @param weightMap  文章id -> 浏览量
+     * @return 快照
+     */
+    private Snapshot build(Map<Integer, ArticleHomeResp> articleMap, Map<Integer, Double> weightMap) {
+        List<Entry> entryList = new ArrayList<>();
+        Map<Integer, String> tagNameMap = new HashMap<>(16);
+        Map<Integer, Double> tagWeightMap = new HashMap<>(16);
+        Map<Integer, String> categoryNameMap = new HashMap<>(16);
+        Map<Integer, Double> categoryWeightMap = new HashMap<>(16);
+        articleMap.values().forEach(article -> {
+            // 浏览量为0的文章也参与排序
+            double weight = weightMap.getOrDefault(article.getId(), 0D) + 1;
+            addEntry(entryList, SuggestTypeEnum.ARTICLE, article.getId(), article.getArticleTitle(), weight);
+            if (Objects.nonNull(article.getCategory()) && Objects.nonNull(article.getCategory().getId())) {
+                categoryNameMap.put(article.getCategory().getId(), article.getCategory().getCategoryName());
+                categoryWeightMap.merge(article.getCategory().getId(), weight, Double::sum);
+            }
+            for (TagOptionResp tag : Optional.ofNullable(article.getTagVOList()).orElse(Collections.emptyList())) {
+                tagNameMap.put(tag.getId(), tag.getTagName());
+                tagWeightMap.merge(tag.getId(), weight, Double::sum);
+            }
+        });
+        tagWeightMap.forEach((id, weight) -> addEntry(entryList, SuggestTypeEnum.TAG, id, tagNameMap.get(id), weight));
+        categoryWeightMap.forEach((id, weight) -> addEntry(entryList, SuggestTypeEnum.CATEGORY, id, categoryNameMap.get(id), weight));
+        entryList.sort(Comparator.comparing((Entry entry) -> entry.key));
+        return new Snapshot(articleMap, weightMap, entryList);
+    }
+
+    private void addEntry(List<Entry> entryList, SuggestTypeEnum type, Integer id, String name, double weight) {
+        if (StringUtils.isBlank(name)) {
+            return;
+        }
+        SuggestResp suggest = SuggestResp.builder()
+                .id(id)
+                .type(type.getType())
+                .name(name)
+                .build();
+        String text = normalize(name);
+        Set<String> keySet = new HashSet<>();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (isSeparator(c)) {
+                continue;
+            }
+            char prev = i == 0 ? ' ' : text.charAt(i - 1);
+            // 词首：开头、分隔符之后、汉字
+            if (isSeparator(prev) || Character.isIdeographic(c) || Character.isIdeographic(prev)) {
+                keySet.add(text.substring(i, Math.min(text.length(), i + MAX_KEY_LENGTH)));
+            }
+        }
+        keySet.forEach(key -> entryList.add(new Entry(key, suggest, weight)));
+    }
+
+    private static String normalize(String text) {
+        if (Objects.isNull(text)) {
+            return "";
+        }
+        return StringUtils.normalizeSpace(text).toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean isSeparator(char c) {
+        return Character.isWhitespace(c) || SEPARATORS.indexOf(c) >= 0;
+    }
+
+    /**
+     * 第一个不小于key的位置
+     */
+    private static int lowerBound(String[] keys, String key) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid].compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * 索引项
+     */
+    private static final class Entry {
+
+        private final String key;
+
+        private final SuggestResp suggest;
+
+        private final double weight;
+
+        private Entry(String key, SuggestResp suggest, double weight) {
+            this.key = key;
+            this.suggest = suggest;
+            this.weight = weight;
+        }
+    }
+
+    /**
+     * 索引快照
+     */
+    private static final class Snapshot {
+
+        private final Map<Integer, ArticleHomeResp> articleMap;
+
+        private final Map<Integer, Double> weightMap;
+
+        /**
+         * 已排序的key
+         */
+        private final String[] keys;
+
+        private final SuggestResp[] suggestions;
+
+        private final double[] weights;
+
+        /**
+         * 稀疏表，sparse[j][i] 为区间 [i, i + 2^j) 内权重最大的位置
+         */
+        private final int[][] sparse;
+
+        private Snapshot(Map<Integer, ArticleHomeResp> articleMap, Map<Integer, Double> weightMap, List<Entry> entryList) {
+            this.articleMap = articleMap;
+            this.weightMap = weightMap;
+            int size = entryList.size();
+            keys = new String[size];
+            suggestions = new SuggestResp[size];
+            weights = new double[size];
+            for (int i = 0; i < size; i++) {
+                Entry entry = entryList.get(i);
+                keys[i] = entry.key;
+                suggestions[i] = entry.suggest;
+                weights[i] = entry.weight;
+            }
+            int level = size == 0 ? 1 : 32 - Integer.numberOfLeadingZeros(size);
+            sparse = new int[level][];
+            sparse[0] = new int[size];
+            for (int i = 0; i < size; i++) {
+                sparse[0][i] = i;
+            }
+            for (int j = 1; j < level; j++) {
+                int half = 1 << (j - 1);
+                sparse[j] = new int[size - (1 << j) + 1];
+                for (int i = 0; i < sparse[j].length; i++) {
+                    sparse[j][i] = max(sparse[j - 1][i], sparse[j - 1][i + half]);
+                }
+            }
+        }
+
+        /**
+         * 区间 [from, to] 内权重最大的位置
+         */
+        private int argMax(int from, int to) {
+            int j = 31 - Integer.numberOfLeadingZeros(to - from + 1);
+            return max(sparse[j][from], sparse[j][to - (1 << j) + 1]);
+        }
+
+        private int max(int a, int b) {
+            return weights[a] >= weights[b] ? a : b;
+        }
+    }
+
+}
@@ -0,0 +1,154 @@
+package com.ican.cache;
+
+import com.ican.constant.CacheConstant;
+import com.ican.constant.RedisConstant;
+import com.ican.entity.SiteConfig;
+import com.ican.service.RedisService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 网站配置本地缓存
+ *
+ * <p>进程内保存一份网站配置快照，热点路径只需一次 volatile 读取，无需访问 Redis 和反序列化。</p>
+ *
+ * <h3>一致性保证：</h3>
+ * <ol>
+ *     <li>修改配置时递增 Redis 中的版本号，并通过 {@link CacheInvalidationBus} 广播失效</li>
+ *     <li>各节点收到通知后丢弃快照，下次读取时重新加载</li>
+ *     <li>定时轮询版本号兜底，防止通知丢失或加载过程中发生修改</li>
+ * </ol>
+ *
+ * <p>快照对象在线程间共享，调用方只能读取，不能修改。</p>
+ *
+ * @author Aric
+ */
+@Slf4j
+@Component
+public class SiteConfigCache {
+
+    /**
+     * 版本号轮询间隔（秒）
+     */
+    private static final long POLL_INTERVAL = 30;
+
+    /**
+     * 当前快照
+     */
+    private volatile Snapshot snapshot;
+
+    @Autowired
+    private RedisService redisService;
+
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @Autowired
+    private ScheduledExecutorService scheduledExecutorService;
+
+    @PostConstruct
+    public void init() {
+        cacheInvalidationBus.subscribe(CacheConstant.SITE_CONFIG, new CacheInvalidationBus.Listener() {
+            @Override
+            public void invalidate(Collection<String> keyList) {
+                snapshot = null;
+            }
+
+            @Override
+            public void invalidateAll() {
+                snapshot = null;
+            }
+        });
+        scheduledExecutorService.scheduleWithFixedDelay(this::pollVersion, POLL_INTERVAL, POLL_INTERVAL, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 获取网站配置
+     *
+     * @param loader 快照不存在时的加载函数
+     * @return 网站配置
+     */
+    public SiteConfig get(Supplier<SiteConfig> loader) {
+        Snapshot current = snapshot;
+        if (Objects.nonNull(current)) {
+            return current.siteConfig;
+        }
+        return reload(loader);
+    }
+
+    /**
+     * 通知所有节点网站配置已变更
+     */
+    public void publishChange() {
+        redisService.incr(RedisConstant.SITE_SETTING_VERSION, 1);
+        cacheInvalidationBus.publishAll(CacheConstant.SITE_CONFIG);
+    }
+
+    /**
+     * 加载快照，先读取版本号再读取配置，保证快照版本不会新于配置本身
+     *
+     * @param loader 加载函数
+     * @return 网站配置
+     */
+    private synchronized SiteConfig reload(Supplier<SiteConfig> loader) {
+        Snapshot current = snapshot;
+        if (Objects.nonNull(current)) {
+            return current.siteConfig;
+        }
+        long version = currentVersion();
+        SiteConfig siteConfig = loader.get();
+        if (Objects.nonNull(siteConfig)) {
+            snapshot = new Snapshot(siteConfig, version);
+        }
+        return siteConfig;
+    }
+
+    /**
+     * 定时对比版本号
+     */
+    private void pollVersion() {
+        try {
+            if (Objects.nonNull(snapshot)) {
+                invalidateIfStale(currentVersion());
+            }
+        } catch (Exception e) {
+            log.warn("网站配置版本号检查失败: {}", e.getMessage());
+        }
+    }
+
+    private void invalidateIfStale(long version) {
+        Snapshot current = snapshot;
+        if (Objects.nonNull(current) && current.version != version) {
+            snapshot = null;
+        }
+    }
+
+    private long currentVersion() {
+        Number version = redisService.getObject(RedisConstant.SITE_SETTING_VERSION);
+        return Objects.isNull(version) ? 0L : version.longValue();
+    }
+
+    /**
+     * 网站配置快照
+     */
+    private static final class Snapshot {
+
+        private final SiteConfig siteConfig;
+
+        private final long version;
+
+        private Snapshot(SiteConfig siteConfig, long version) {
+            this.siteConfig = siteConfig;
+            this.version = version;
+        }
+    }
+
+}
@@ -4,6 +4,7 @@ import co.elastic.clients.elasticsearch.ElasticsearchClient;
 import co.elastic.clients.json.jackson.JacksonJsonpMapper;
 import co.elastic.clients.transport.ElasticsearchTransport;
 import co.elastic.clients.transport.rest_client.RestClientTransport;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.ican.config.properties.ElasticsearchProperties;
 import org.apache.http.HttpHost;
 import org.apache.http.auth.AuthScope;
@@ -27,7 +28,7 @@ public class ElasticsearchConfig {
 
     @Bean
     @ConditionalOnExpression("'${search.mode:}'.equals('elasticsearch') && '${elasticsearch.enabled:false}'.equals('true')")
-    public ElasticsearchClient elasticsearchClient(ElasticsearchProperties elasticsearchProperties) {
+    public ElasticsearchClient elasticsearchClient(ElasticsearchProperties elasticsearchProperties, ObjectMapper objectMapper) {
         CredentialsProvider credentialsProvider = new BasicCredentialsProvider();
         credentialsProvider.setCredentials(AuthScope.ANY, new UsernamePasswordCredentials(elasticsearchProperties.getUsername(), elasticsearchProperties.getPassword()));
         RestClient restClient = RestClient.builder(new HttpHost(elasticsearchProperties.getHostname(), elasticsearchProperties.getPort()))
@@ -36,7 +37,7 @@ public class ElasticsearchConfig {
                         .setSocketTimeout(elasticsearchProperties.getSocketTimeout())
                         .setConnectionRequestTimeout(elasticsearchProperties.getConnectionRequestTimeout())
                 ).setHttpClientConfigCallback(f -> f.setDefaultCredentialsProvider(credentialsProvider)).build();
-        ElasticsearchTransport transport = new RestClientTransport(restClient, new JacksonJsonpMapper());
+        ElasticsearchTransport transport = new RestClientTransport(restClient, new JacksonJsonpMapper(objectMapper));
         return new ElasticsearchClient(transport);
     }
 }
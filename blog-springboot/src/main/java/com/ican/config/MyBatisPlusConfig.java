@@ -2,6 +2,8 @@ package com.ican.config;
 
 import com.baomidou.mybatisplus.extension.plugins.MybatisPlusInterceptor;
 import com.baomidou.mybatisplus.extension.plugins.inner.PaginationInnerInterceptor;
+import com.ican.interceptor.SqlStatisticsInterceptor;
+import com.ican.service.SqlStatisticsService;
 import org.mybatis.spring.annotation.MapperScan;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -22,4 +24,12 @@ public class MyBatisPlusConfig {
         return interceptor;
     }
 
+    /**
+     * SQL执行统计，Interceptor 类型的 Bean 会被自动注册到 MyBatis
+     */
+    @Bean
+    public SqlStatisticsInterceptor sqlStatisticsInterceptor(SqlStatisticsService sqlStatisticsService) {
+        return new SqlStatisticsInterceptor(sqlStatisticsService);
+    }
+
 }
\ No newline at end of file
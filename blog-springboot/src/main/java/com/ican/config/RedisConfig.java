@@ -4,12 +4,19 @@ import com.fasterxml.jackson.annotation.JsonAutoDetect;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import com.fasterxml.jackson.annotation.PropertyAccessor;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.fasterxml.jackson.databind.jsontype.impl.LaissezFaireSubTypeValidator;
+import com.ican.config.properties.RedisCodecProperties;
+import com.ican.config.serializer.JsonbRedisSerializer;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 /**
@@ -21,31 +28,86 @@ import org.springframework.data.redis.serializer.StringRedisSerializer;
 @Configuration
 public class RedisConfig {
 
+    @Autowired
+    private RedisCodecProperties redisCodecProperties;
+
+    /**
+     * 通用模板，集合成员、Hash值、消息等按 JSON 编码
+     *
+     * <p>Set/ZSet 成员与 Hash 值的字节会参与 SISMEMBER、ZSCORE、HINCRBY 等比较和计算，编码固定为 JSON，
+     * 不随 redis.codec.mode 切换。migrate/jsonb 模式下仍可读取切换前按 JSONB 写入的Hash值。</p>
+     */
     @Bean
+    @Primary
     public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory redisConnectionFactory) {
+        Jackson2JsonRedisSerializer<Object> jackson2JsonRedisSerializer = jackson2JsonRedisSerializer();
+        RedisSerializer<Object> valueSerializer = jackson2JsonRedisSerializer;
+        if (!"json".equals(redisCodecProperties.getMode())) {
+            // 只写 JSON，兼容读取 JSONB
+            valueSerializer = new JsonbRedisSerializer(jackson2JsonRedisSerializer, false, 0);
+        }
+        return createTemplate(redisConnectionFactory, valueSerializer);
+    }
+
+    /**
+     * 对象模板，只用于 String 类型的值（opsForValue），按 redis.codec.mode 选择 JSON 或 JSONB
+     */
+    @Bean
+    public RedisTemplate<String, Object> objectRedisTemplate(RedisConnectionFactory redisConnectionFactory) {
+        Jackson2JsonRedisSerializer<Object> jackson2JsonRedisSerializer = jackson2JsonRedisSerializer();
+        // 值序列化器，migrate/jsonb模式下兼容读取两种格式
+        RedisSerializer<Object> valueSerializer = jackson2JsonRedisSerializer;
+        String mode = redisCodecProperties.getMode();
+        if ("migrate".equals(mode) || "jsonb".equals(mode)) {
+            int compressThreshold = redisCodecProperties.isCompress() ? redisCodecProperties.getCompressThreshold() : 0;
+            valueSerializer = new JsonbRedisSerializer(jackson2JsonRedisSerializer, "jsonb".equals(mode), compressThreshold);
+        }
+        return createTemplate(redisConnectionFactory, valueSerializer);
+    }
+
+    private RedisTemplate<String, Object> createTemplate(RedisConnectionFactory redisConnectionFactory,
+                                                         RedisSerializer<Object> valueSerializer) {
         RedisTemplate<String, Object> template = new RedisTemplate<>();
         template.setConnectionFactory(redisConnectionFactory);
-        // Json序列化配置
-        Jackson2JsonRedisSerializer<Object> jackson2JsonRedisSerializer = new Jackson2JsonRedisSerializer<>(Object.class);
-        ObjectMapper objectMapper = new ObjectMapper();
-        // 指定要序列化的域，field,get和set,以及修饰符范围，ANY是都有包括private和public
-        objectMapper.setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.ANY);
-        // 指定序列化输入的类型，类必须是非final修饰的，final修饰的类，比如String,Integer等会跑出异常
-        objectMapper.activateDefaultTyping(LaissezFaireSubTypeValidator.instance,
-                ObjectMapper.DefaultTyping.NON_FINAL, JsonTypeInfo.As.PROPERTY);
-        jackson2JsonRedisSerializer.setObjectMapper(objectMapper);
         // String序列化
         StringRedisSerializer stringRedisSerializer = new StringRedisSerializer();
         // 使用String来序列化和反序列化key
         template.setKeySerializer(stringRedisSerializer);
-        // 使用Jackson来序列化和反序列化value
-        template.setValueSerializer(jackson2JsonRedisSerializer);
+        // 序列化和反序列化value
+        template.setValueSerializer(valueSerializer);
         // Hash的key采用String的序列化方式
         template.setHashKeySerializer(stringRedisSerializer);
-        // Hash的value采用Jackson的序列化方式
-        template.setHashValueSerializer(jackson2JsonRedisSerializer);
+        // Hash的value采用与value相同的序列化方式
+        template.setHashValueSerializer(valueSerializer);
         template.afterPropertiesSet();
         return template;
     }
 
-}
\ No newline at end of file
+    /**
+     * Json序列化配置
+     */
+    static Jackson2JsonRedisSerializer<Object> jackson2JsonRedisSerializer() {
+        Jackson2JsonRedisSerializer<Object> jackson2JsonRedisSerializer = new Jackson2JsonRedisSerializer<>(Object.class);
+        ObjectMapper objectMapper = new ObjectMapper();
+        // 指定要序列化的域，field,get和set,以及修饰符范围，ANY是都有包括private和public
+        objectMapper.setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.ANY);
+        // 指定序列化输入的类型，类必须是非final修饰的，final修饰的类，比如String,Integer等会跑出异常
+        objectMapper.activateDefaultTyping(LaissezFaireSubTypeValidator.instance,
+                ObjectMapper.DefaultTyping.NON_FINAL, JsonTypeInfo.As.PROPERTY);
+        // 支持LocalDateTime等Java8时间类型
+        objectMapper.registerModule(new JavaTimeModule());
+        jackson2JsonRedisSerializer.setObjectMapper(objectMapper);
+        return jackson2JsonRedisSerializer;
+    }
+
+    /**
+     * Redis消息监听容器，用于订阅缓存变更通知
+     */
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory redisConnectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redisConnectionFactory);
+        return container;
+    }
+
+}
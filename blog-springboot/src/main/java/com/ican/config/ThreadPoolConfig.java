@@ -6,6 +6,7 @@ import org.apache.commons.lang3.concurrent.BasicThreadFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.util.concurrent.ScheduledExecutorService;
@@ -48,6 +49,7 @@ public class ThreadPoolConfig {
     /**
      * 执行周期性或定时任务
      */
+    @Primary
     @Bean(name = "scheduledExecutorService")
     protected ScheduledExecutorService scheduledExecutorService() {
         return new ScheduledThreadPoolExecutor(threadPoolProperties.getCorePoolSize(),
@@ -61,4 +63,39 @@ public class ThreadPoolConfig {
         };
     }
 
-}
\ No newline at end of file
+    /**
+     * 发件箱邮件发送，SMTP发送会阻塞，与共享的定时任务线程池隔离
+     */
+    @Bean(name = "mailExecutorService")
+    protected ScheduledExecutorService mailExecutorService() {
+        return singleThreadScheduledExecutor("mail-pool-%d");
+    }
+
+    /**
+     * es批量写入，写入方会阻塞等待批次发送，发送不能与写入方共用线程池
+     */
+    @Bean(name = "elasticsearchExecutorService")
+    protected ScheduledExecutorService elasticsearchExecutorService() {
+        return singleThreadScheduledExecutor("es-pool-%d");
+    }
+
+    /**
+     * 相关文章全量重建，需要读取全部文章正文，耗时较长
+     */
+    @Bean(name = "relatedExecutorService")
+    protected ScheduledExecutorService relatedExecutorService() {
+        return singleThreadScheduledExecutor("related-pool-%d");
+    }
+
+    private static ScheduledExecutorService singleThreadScheduledExecutor(String namingPattern) {
+        return new ScheduledThreadPoolExecutor(1,
+                new BasicThreadFactory.Builder().namingPattern(namingPattern).daemon(true).build()) {
+            @Override
+            protected void afterExecute(Runnable r, Throwable t) {
+                super.afterExecute(r, t);
+                ThreadUtils.printException(r, t);
+            }
+        };
+    }
+
+}
@@ -0,0 +1,46 @@
+package com.ican.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 文章变更事件参数
+ *
+ * @author Aric
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "article.event")
+public class ArticleEventProperties {
+
+    /**
+     * 每批投递的事件数量
+     */
+    private int batchSize = 200;
+
+    /**
+     * 轮询间隔（毫秒），事务提交后会立即唤醒投递，轮询只用于兜底
+     */
+    private long pollInterval = 2000;
+
+    /**
+     * 事件id出现缺口时的等待时间（毫秒），从首次发现缺口起计算，超过后越过缺口继续投递
+     */
+    private long gapTimeout = 5000;
+
+    /**
+     * 越过的缺口的跟踪时间（毫秒），期间对应事件提交时补投，超过后视为事务已回滚
+     */
+    private long gapExpire = 3600000;
+
+    /**
+     * 投递租约时长（毫秒），需大于订阅者处理一批事件的时间，节点宕机后由其他节点接管
+     */
+    private long leaseTimeout = 60000;
+
+    /**
+     * 最大处理次数，同一事件连续失败达到次数后写入死信表并跳过
+     */
+    private int maxRetry = 5;
+}
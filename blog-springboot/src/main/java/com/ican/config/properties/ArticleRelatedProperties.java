@@ -0,0 +1,51 @@
+package com.ican.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 相关文章参数
+ *
+ * @author Aric
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "article.related")
+public class ArticleRelatedProperties {
+
+    /**
+     * 每篇文章保存的相关文章数量
+     */
+    private int size = 6;
+
+    /**
+     * 标签 Jaccard 相似度的权重
+     */
+    private double tagWeight = 0.6;
+
+    /**
+     * 同一分类的权重
+     */
+    private double categoryWeight = 0.2;
+
+    /**
+     * 正文词向量余弦相似度的权重，为0时不读取正文
+     */
+    private double contentWeight = 0.2;
+
+    /**
+     * 每篇文章词向量保留的词数
+     */
+    private int termSize = 32;
+
+    /**
+     * 最低相似度，低于该值的文章不作为相关文章
+     */
+    private double minScore = 0.05;
+
+    /**
+     * 全量重建时每次读取正文的文章数量
+     */
+    private int pageSize = 200;
+}
@@ -0,0 +1,45 @@
+package com.ican.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.annotation.Validated;
+
+import javax.validation.constraints.Min;
+import javax.validation.constraints.Positive;
+
+/**
+ * 热门文章参数
+ *
+ * @author Aric
+ */
+@Data
+@Validated
+@Configuration
+@ConfigurationProperties(prefix = "article.trending")
+public class ArticleTrendingProperties {
+
+    /**
+     * 热门文章数量
+     */
+    @Min(1)
+    private int size = 5;
+
+    /**
+     * 统计窗口（小时），浏览量按小时分桶，超出窗口的桶不再参与计算
+     */
+    @Min(1)
+    private int windowHours = 72;
+
+    /**
+     * 半衰期（小时），浏览的权重每经过一个半衰期减半
+     */
+    @Positive
+    private double halfLifeHours = 24;
+
+    /**
+     * 刷新间隔（毫秒）
+     */
+    @Positive
+    private long refreshInterval = 60000;
+}
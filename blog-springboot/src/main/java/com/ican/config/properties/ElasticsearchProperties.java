@@ -52,4 +52,44 @@ public class ElasticsearchProperties {
      * 从连接池获取连接的超时时间（毫秒）
      */
     private int connectionRequestTimeout;
+
+    /**
+     * 每批最多操作数
+     */
+    private int bulkSize = 500;
+
+    /**
+     * 每批最大字节数
+     */
+    private long bulkBytes = 5 * 1024 * 1024;
+
+    /**
+     * 批次最长等待时间（毫秒），未攒满一批时到期也会发送
+     */
+    private long flushInterval = 200;
+
+    /**
+     * 待发送队列容量，队列满时写入方阻塞等待
+     */
+    private int queueCapacity = 10000;
+
+    /**
+     * 队列满时写入方最长等待时间（毫秒）
+     */
+    private long offerTimeout = 5000;
+
+    /**
+     * 单个操作最大重试次数
+     */
+    private int maxRetry = 3;
+
+    /**
+     * 首次重试间隔（毫秒），之后每次翻倍
+     */
+    private long retryDelay = 1000;
+
+    /**
+     * 重建索引时每页文章数
+     */
+    private int reindexPageSize = 200;
 }
@@ -0,0 +1,39 @@
+package com.ican.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 日志保留参数
+ *
+ * @author Aric
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "log.retention")
+public class LogRetentionProperties {
+
+    /**
+     * 每批删除的id范围
+     */
+    private int chunkSize = 1000;
+
+    /**
+     * 每批删除后的暂停时间（毫秒），给主从复制和其他写入让出时间
+     */
+    private long pauseMillis = 50;
+
+    /**
+     * 各日志表保留天数，key为 visit、operation、exception、task，未配置或不大于0时不清理
+     */
+    private Map<String, Integer> days = new HashMap<>();
+
+    {
+        // 访问日志默认保留一周
+        days.put("visit", 7);
+    }
+}
@@ -0,0 +1,41 @@
+package com.ican.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 邮件发件箱参数
+ *
+ * @author Aric
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "mail.outbox")
+public class MailOutboxProperties {
+
+    /**
+     * 每批发送条数，同一批邮件共用一个SMTP连接
+     */
+    private int batchSize = 20;
+
+    /**
+     * 轮询间隔（毫秒）
+     */
+    private long pollInterval = 5000;
+
+    /**
+     * 最大重试次数，超过后标记为发送失败
+     */
+    private int maxRetry = 5;
+
+    /**
+     * 首次重试间隔（毫秒），之后每次翻倍
+     */
+    private long retryDelay = 60000;
+
+    /**
+     * 发送租约时长（毫秒），节点在发送过程中宕机时，租约到期后由其他节点重新发送
+     */
+    private long leaseTime = 300000;
+}
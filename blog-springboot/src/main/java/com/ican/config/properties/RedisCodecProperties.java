@@ -0,0 +1,34 @@
+package com.ican.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Redis值序列化参数
+ *
+ * @author Aric
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "redis.codec")
+public class RedisCodecProperties {
+
+    /**
+     * String类型值的序列化模式，Set/ZSet成员和Hash值始终为 JSON
+     * json：Jackson JSON（默认）
+     * migrate：写入 JSON，同时可读取 JSON 和 JSONB，用于切换前的过渡部署
+     * jsonb：写入 fastjson2 JSONB，同时可读取旧的 JSON 数据
+     */
+    private String mode = "json";
+
+    /**
+     * 是否压缩大对象
+     */
+    private boolean compress = true;
+
+    /**
+     * 压缩阈值（字节），序列化结果超过该大小才压缩
+     */
+    private int compressThreshold = 1024;
+}
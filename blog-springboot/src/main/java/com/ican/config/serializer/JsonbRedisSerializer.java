@@ -0,0 +1,168 @@
+package com.ican.config.serializer;
+
+import com.alibaba.fastjson2.JSONB;
+import com.alibaba.fastjson2.JSONReader;
+import com.alibaba.fastjson2.JSONWriter;
+import com.alibaba.fastjson2.filter.Filter;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * fastjson2 JSONB Redis序列化器
+ *
+ * <p>二进制格式比带类型信息的 JSON 更紧凑，序列化和反序列化开销也更低。
+ * 只用于 String 类型的值，Set/ZSet 成员和 Hash 值的编码会影响成员比较和 HINCRBY，仍使用 JSON。</p>
+ *
+ * <h3>存储格式：</h3>
+ * <ul>
+ *     <li>第 1 字节为魔数 0xFE（合法 JSON 文本不会以该字节开头）</li>
+ *     <li>第 2 字节为标志位：0 未压缩，1 Deflate 压缩</li>
+ *     <li>其余为 JSONB 数据</li>
+ * </ul>
+ *
+ * <p>不带魔数的数据交给旧的 JSON 序列化器读取，既兼容切换前写入的数据，
+ * 也兼容 INCR/HINCRBY 写入的纯数字。</p>
+ *
+ * @author Aric
+ */
+public class JsonbRedisSerializer implements RedisSerializer<Object> {
+
+    private static final byte MAGIC = (byte) 0xFE;
+
+    private static final byte FLAG_PLAIN = 0;
+
+    private static final byte FLAG_DEFLATE = 1;
+
+    private static final byte[] EMPTY_ARRAY = new byte[0];
+
+    private static final JSONWriter.Feature[] WRITE_FEATURES = {
+            JSONWriter.Feature.WriteClassName,
+            JSONWriter.Feature.FieldBased,
+            JSONWriter.Feature.WriteNameAsSymbol
+    };
+
+    private static final JSONReader.Feature[] READ_FEATURES = {
+            JSONReader.Feature.FieldBased
+    };
+
+    /**
+     * 反序列化允许的类型，除 JDK 基础类型外只接受项目内的类
+     */
+    private static final Filter AUTO_TYPE_FILTER = JSONReader.autoTypeFilter("com.ican.");
+
+    /**
+     * 旧格式序列化器
+     */
+    private final RedisSerializer<Object> legacySerializer;
+
+    /**
+     * 是否写入JSONB，false时写入旧格式（迁移模式）
+     */
+    private final boolean writeJsonb;
+
+    /**
+     * 压缩阈值（字节），小于等于0表示不压缩
+     */
+    private final int compressThreshold;
+
+    public JsonbRedisSerializer(RedisSerializer<Object> legacySerializer, boolean writeJsonb, int compressThreshold) {
+        this.legacySerializer = legacySerializer;
+        this.writeJsonb = writeJsonb;
+        this.compressThreshold = compressThreshold;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) {
+            return EMPTY_ARRAY;
+        }
+        if (!writeJsonb) {
+            return legacySerializer.serialize(value);
+        }
+        byte[] data;
+        try {
+            data = JSONB.toBytes(value, WRITE_FEATURES);
+        } catch (Exception e) {
+            throw new SerializationException("JSONB序列化失败: " + e.getMessage(), e);
+        }
+        if (compressThreshold > 0 && data.length > compressThreshold) {
+            byte[] compressed = deflate(data);
+            if (compressed.length < data.length) {
+                return withHeader(FLAG_DEFLATE, compressed);
+            }
+        }
+        return withHeader(FLAG_PLAIN, data);
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes.length < 2 || bytes[0] != MAGIC) {
+            return legacySerializer.deserialize(bytes);
+        }
+        byte[] data = Arrays.copyOfRange(bytes, 2, bytes.length);
+        if (bytes[1] == FLAG_DEFLATE) {
+            data = inflate(data);
+        }
+        try {
+            return JSONB.parseObject(data, Object.class, AUTO_TYPE_FILTER, READ_FEATURES);
+        } catch (Exception e) {
+            throw new SerializationException("JSONB反序列化失败: " + e.getMessage(), e);
+        }
+    }
+
+    private static byte[] withHeader(byte flag, byte[] data) {
+        byte[] result = new byte[data.length + 2];
+        result[0] = MAGIC;
+        result[1] = flag;
+        System.arraycopy(data, 0, result, 2, data.length);
+        return result;
+    }
+
+    private static byte[] deflate(byte[] data) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(data);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 2);
+            byte[] buffer = new byte[4096];
+            while (!deflater.finished()) {
+                int count = deflater.deflate(buffer);
+                out.write(buffer, 0, count);
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] data) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length * 3);
+            byte[] buffer = new byte[4096];
+            while (!inflater.finished()) {
+                int count = inflater.inflate(buffer);
+                if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new SerializationException("压缩数据不完整");
+                }
+                out.write(buffer, 0, count);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new SerializationException("解压失败: " + e.getMessage(), e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+}
@@ -0,0 +1,65 @@
+package com.ican.constant;
+
+/**
+ * 本地缓存常量
+ *
+ * @author Aric
+ */
+public class CacheConstant {
+
+    /**
+     * 缓存失效通知频道前缀，每个缓存区域一个频道
+     */
+    public static final String INVALIDATION_TOPIC = "cache_invalidation:";
+
+    /**
+     * 文章
+     */
+    public static final String ARTICLE = "article";
+
+    /**
+     * 网站配置
+     */
+    public static final String SITE_CONFIG = "site_config";
+
+    /**
+     * 分类
+     */
+    public static final String CATEGORY = "category";
+
+    /**
+     * 标签
+     */
+    public static final String TAG = "tag";
+
+    /**
+     * 轮播图
+     */
+    public static final String CAROUSEL = "carousel";
+
+    /**
+     * 友链
+     */
+    public static final String FRIEND = "friend";
+
+    /**
+     * 相册
+     */
+    public static final String ALBUM = "album";
+
+    /**
+     * 菜单
+     */
+    public static final String MENU = "menu";
+
+    /**
+     * 用户
+     */
+    public static final String USER = "user";
+
+    /**
+     * 说说
+     */
+    public static final String TALK = "talk";
+
+}
@@ -12,6 +12,16 @@ public class ElasticConstant {
      */
     public static final String ARTICLE_INDEX = "article";
 
+    /**
+     * 全文检索字段，标题和内容通过 copy_to 写入
+     */
+    public static final String ALL = "all";
+
+    /**
+     * 文章索引的设置和映射，类路径下的唯一定义
+     */
+    public static final String ARTICLE_INDEX_DEFINITION = "elasticsearch/article-index.json";
+
     /**
      * 文章标题
      */
@@ -22,6 +22,16 @@ public class RedisConstant {
      */
     public static final String ARTICLE_VIEW_COUNT = "article_view_count";
 
+    /**
+     * 文章每小时浏览量（ZSet，key后缀为小时数）
+     */
+    public static final String ARTICLE_VIEW_HOUR = "article_view_hour:";
+
+    /**
+     * 文章热度（ZSet，score为按时间衰减的浏览量）
+     */
+    public static final String ARTICLE_TRENDING = "article_trending";
+
     /**
      * 文章点赞量
      */
@@ -57,6 +67,11 @@ public class RedisConstant {
      */
     public static final String SITE_SETTING = "site_setting";
 
+    /**
+     * 网站配置版本号
+     */
+    public static final String SITE_SETTING_VERSION = "site_setting_version";
+
     /**
      * 访客
      */
@@ -72,4 +87,89 @@ public class RedisConstant {
      */
     public static final String DAILY_ARTICLE = "daily_article:";
 
-}
\ No newline at end of file
+    /**
+     * 聊天室跨节点转发频道
+     */
+    public static final String CHAT_RELAY_TOPIC = "chat_relay";
+
+    /**
+     * 聊天室各节点在线人数
+     */
+    public static final String CHAT_ONLINE_COUNT = "chat_online_count";
+
+    /**
+     * 聊天室各节点心跳时间
+     */
+    public static final String CHAT_NODE_HEARTBEAT = "chat_node_heartbeat";
+
+    /**
+     * 在线用户登录时间（ZSet，score为登录时间戳）
+     */
+    public static final String ONLINE_USER_LOGIN_TIME = "online_user_login_time";
+
+    /**
+     * 在线用户信息（Hash，token -> 在线用户）
+     */
+    public static final String ONLINE_USER_INFO = "online_user_info";
+
+    /**
+     * 接口限流计数
+     */
+    public static final String ACCESS_LIMIT = "access_limit:";
+
+    /**
+     * 游标分页近似总数
+     */
+    public static final String PAGE_TOTAL = "page_total:";
+
+    /**
+     * 游标分页近似总数过期时间（秒）
+     */
+    public static final long PAGE_TOTAL_EXPIRE = 60;
+
+    /**
+     * 博客统计数量（Hash，公开文章/未删除文章/分类/标签）
+     */
+    public static final String BLOG_COUNT = "blog_count";
+
+    /**
+     * 分类公开文章数量（Hash，分类id -> 数量）
+     */
+    public static final String CATEGORY_ARTICLE_COUNT = "category_article_count";
+
+    /**
+     * 标签文章数量（Hash，标签id -> 数量）
+     */
+    public static final String TAG_ARTICLE_COUNT = "tag_article_count";
+
+    /**
+     * 后台文章统计
+     */
+    public static final String DASHBOARD_ARTICLE_STATISTICS = "dashboard_article_statistics";
+
+    /**
+     * 后台文章统计过期时间（秒）
+     */
+    public static final long DASHBOARD_ARTICLE_STATISTICS_EXPIRE = 300;
+
+    /**
+     * 后台近7日用户浏览
+     */
+    public static final String DASHBOARD_USER_VIEW = "dashboard_user_view";
+
+    /**
+     * 后台近7日用户浏览过期时间（秒）
+     */
+    public static final long DASHBOARD_USER_VIEW_EXPIRE = 60;
+
+    /**
+     * 文章正文词的文档频率（Hash，词 -> 包含该词的文章数），相关文章全量重建时生成
+     */
+    public static final String ARTICLE_TERM_DF = "article_term_df";
+
+    /**
+     * 文章正文词的文档频率对应的文章总数
+     */
+    public static final String ARTICLE_TERM_DOC_COUNT = "article_term_doc_count";
+
+}
@@ -202,6 +202,18 @@ public class ArticleController {
         return Result.success(articleService.listArticlesBySearch(keyword));
     }
 
+    /**
+     * 搜索建议
+     *
+     * @param keyword 关键词
+     * @return {@link Result<SuggestResp>} 搜索建议
+     */
+    @ApiOperation(value = "搜索建议")
+    @GetMapping("/article/suggest")
+    public Result<List<SuggestResp>> listSuggestion(String keyword) {
+        return Result.success(articleService.listSuggestion(keyword));
+    }
+
     /**
      * 查看首页文章列表
      *
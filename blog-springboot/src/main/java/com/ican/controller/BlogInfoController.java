@@ -8,6 +8,8 @@ import com.ican.service.BlogInfoService;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RestController;
@@ -39,12 +41,14 @@ public class BlogInfoController {
     /**
      * 查看博客信息
      *
-     * @return {@link Result< BlogInfoResp >} 博客信息
+     * @return 预先序列化的 {@link Result< BlogInfoResp >} 博客信息
      */
-    @ApiOperation(value = "查看博客信息")
+    @ApiOperation(value = "查看博客信息", response = BlogInfoResp.class)
     @GetMapping("/")
-    public Result<BlogInfoResp> getBlogInfo() {
-        return Result.success(blogInfoService.getBlogInfo());
+    public ResponseEntity<byte[]> getBlogInfo() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(blogInfoService.getBlogInfoJson());
     }
 
     /**
@@ -114,7 +114,7 @@ public class CarouselController {
     @SaCheckPermission("web:carousel:delete")
     @DeleteMapping("/admin/carousel/delete")
     public Result<?> deleteCarousel(@RequestBody List<Integer> carouselIdList) {
-        carouselService.removeByIds(carouselIdList);
+        carouselService.deleteCarousel(carouselIdList);
         return Result.success();
     }
 
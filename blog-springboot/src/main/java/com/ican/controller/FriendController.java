@@ -83,7 +83,7 @@ public class FriendController {
     @SaCheckPermission("web:friend:delete")
     @DeleteMapping("/admin/friend/delete")
     public Result<?> deleteFriend(@RequestBody List<Integer> friendIdList) {
-        friendService.removeByIds(friendIdList);
+        friendService.deleteFriend(friendIdList);
         return Result.success();
     }
 
@@ -8,9 +8,11 @@ import com.ican.model.vo.Result;
 import com.ican.model.vo.query.LogQuery;
 import com.ican.model.vo.query.TaskQuery;
 import com.ican.model.vo.response.OperationLogResp;
+import com.ican.model.vo.response.SqlStatisticsResp;
 import com.ican.model.vo.response.TaskLogResp;
 import com.ican.service.ExceptionLogService;
 import com.ican.service.OperationLogService;
+import com.ican.service.SqlStatisticsService;
 import com.ican.service.TaskLogService;
 import com.ican.service.VisitLogService;
 import io.swagger.annotations.Api;
@@ -44,6 +46,9 @@ public class LogController {
     @Autowired
     private TaskLogService taskLogService;
 
+    @Autowired
+    private SqlStatisticsService sqlStatisticsService;
+
     /**
      * 查看操作日志
      *
@@ -164,4 +169,29 @@ public class LogController {
         taskLogService.clearTaskLog();
         return Result.success();
     }
+
+    /**
+     * 查看SQL统计
+     *
+     * @return {@link SqlStatisticsResp} SQL统计
+     */
+    @ApiOperation("查看SQL统计")
+    @SaCheckPermission("monitor:sql:list")
+    @GetMapping("/admin/sql/statistics")
+    public Result<SqlStatisticsResp> getSqlStatistics() {
+        return Result.success(sqlStatisticsService.getSqlStatistics());
+    }
+
+    /**
+     * 清空SQL统计
+     *
+     * @return {@link Result<>}
+     */
+    @ApiOperation("清空SQL统计")
+    @SaCheckPermission("monitor:sql:clear")
+    @DeleteMapping("/admin/sql/statistics")
+    public Result<?> clearSqlStatistics() {
+        sqlStatisticsService.reset();
+        return Result.success();
+    }
 }
@@ -0,0 +1,46 @@
+package com.ican.entity;
+
+import com.baomidou.mybatisplus.annotation.FieldFill;
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableId;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 文章变更事件
+ *
+ * @author Aric
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArticleEvent {
+
+    /**
+     * 事件id，按提交顺序递增
+     */
+    @TableId(type = IdType.AUTO)
+    private Integer id;
+
+    /**
+     * 文章id
+     */
+    private Integer articleId;
+
+    /**
+     * 事件类型 (SAVE保存 DELETE删除)
+     */
+    private String eventType;
+
+    /**
+     * 创建时间
+     */
+    @TableField(fill = FieldFill.INSERT)
+    private LocalDateTime createTime;
+}
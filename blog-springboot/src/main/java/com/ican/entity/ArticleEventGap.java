@@ -0,0 +1,35 @@
+package com.ican.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 文章变更事件id缺口，记录订阅者尚未收到的事件id，事务晚提交的事件到达后补投
+ *
+ * @author Aric
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArticleEventGap {
+
+    /**
+     * 订阅者
+     */
+    private String subscriber;
+
+    /**
+     * 缺失的事件id
+     */
+    private Integer eventId;
+
+    /**
+     * 首次发现缺口的时间
+     */
+    private LocalDateTime createTime;
+}
@@ -0,0 +1,52 @@
+package com.ican.entity;
+
+import com.baomidou.mybatisplus.annotation.TableId;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 文章变更事件订阅偏移量
+ *
+ * @author Aric
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArticleEventOffset {
+
+    /**
+     * 订阅者
+     */
+    @TableId
+    private String subscriber;
+
+    /**
+     * 已处理的最大事件id
+     */
+    private Integer lastId;
+
+    /**
+     * 当前批次连续失败次数
+     */
+    private Integer retryCount;
+
+    /**
+     * 持有投递租约的节点id
+     */
+    private String leaseOwner;
+
+    /**
+     * 租约到期时间
+     */
+    private LocalDateTime leaseUntil;
+
+    /**
+     * 更新时间
+     */
+    private LocalDateTime updateTime;
+}
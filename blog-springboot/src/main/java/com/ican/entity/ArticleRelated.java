@@ -0,0 +1,48 @@
+package com.ican.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 相关文章
+ *
+ * @author Aric
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArticleRelated {
+
+    /**
+     * 文章id
+     */
+    @TableId(type = IdType.INPUT)
+    private Integer articleId;
+
+    /**
+     * 相关文章id JSON数组，按相似度降序
+     */
+    private String relatedList;
+
+    /**
+     * 相似度 JSON数组，与相关文章id一一对应
+     */
+    private String scoreList;
+
+    /**
+     * 正文词向量 JSON对象（词 -> 权重），未启用正文相似度时为空
+     */
+    private String termVector;
+
+    /**
+     * 更新时间
+     */
+    private LocalDateTime updateTime;
+}
@@ -0,0 +1,88 @@
+package com.ican.entity;
+
+import com.baomidou.mybatisplus.annotation.FieldFill;
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableId;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 邮件发件箱
+ *
+ * @author Aric
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MailOutbox {
+
+    /**
+     * 邮件id
+     */
+    @TableId(type = IdType.AUTO)
+    private Integer id;
+
+    /**
+     * 收件人邮箱
+     */
+    private String toEmail;
+
+    /**
+     * 主题
+     */
+    private String subject;
+
+    /**
+     * 普通邮件内容
+     */
+    private String content;
+
+    /**
+     * HTML邮件模板
+     */
+    private String template;
+
+    /**
+     * HTML邮件模板参数（JSON）
+     */
+    private String contentMap;
+
+    /**
+     * 发送状态 (0待发送 1已发送 2发送失败)
+     */
+    private Integer status;
+
+    /**
+     * 已重试次数
+     */
+    private Integer retryCount;
+
+    /**
+     * 下次发送时间
+     */
+    private LocalDateTime nextTime;
+
+    /**
+     * 最近一次错误信息
+     */
+    private String errorInfo;
+
+    /**
+     * 创建时间
+     */
+    @TableField(fill = FieldFill.INSERT)
+    private LocalDateTime createTime;
+
+    /**
+     * 更新时间
+     */
+    @TableField(fill = FieldFill.UPDATE)
+    private LocalDateTime updateTime;
+
+}
@@ -0,0 +1,34 @@
+package com.ican.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 文章变更事件类型枚举
+ *
+ * @author Aric
+ */
+@Getter
+@AllArgsConstructor
+public enum ArticleEventTypeEnum {
+
+    /**
+     * 新增或修改
+     */
+    SAVE("SAVE", "保存"),
+
+    /**
+     * 物理删除
+     */
+    DELETE("DELETE", "删除");
+
+    /**
+     * 类型
+     */
+    private final String type;
+
+    /**
+     * 描述
+     */
+    private final String description;
+}
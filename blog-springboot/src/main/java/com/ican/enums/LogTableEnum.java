@@ -0,0 +1,75 @@
+package com.ican.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 日志表枚举
+ *
+ * @author Aric
+ */
+@Getter
+@AllArgsConstructor
+public enum LogTableEnum {
+
+    /**
+     * 访问日志
+     */
+    VISIT("visit", "t_visit_log", null),
+
+    /**
+     * 操作日志
+     */
+    OPERATION("operation", "t_operation_log", null),
+
+    /**
+     * 异常日志
+     */
+    EXCEPTION("exception", "t_exception_log", null),
+
+    /**
+     * 定时任务日志
+     */
+    TASK("task", "t_task_log", null),
+
+    /**
+     * 邮件发件箱，只清理已发送和发送失败的邮件
+     */
+    MAIL("mail", "t_mail_outbox", "status IN (1, 2)"),
+
+    /**
+     * 文章变更事件，只清理所有订阅者都已处理且不在缺口跟踪中的事件
+     */
+    EVENT("event", "t_article_event", "id <= (SELECT MIN(last_id) FROM t_article_event_offset)"
+            + " AND id NOT IN (SELECT event_id FROM t_article_event_gap)");
+
+    /**
+     * 名称
+     */
+    private final String name;
+
+    /**
+     * 表名
+     */
+    private final String table;
+
+    /**
+     * 清理时附加的过滤条件（SQL片段），为空时只按创建时间清理
+     */
+    private final String purgeCondition;
+
+    /**
+     * 根据名称获取日志表
+     *
+     * @param name 名称
+     * @return {@link LogTableEnum} 日志表
+     */
+    public static LogTableEnum getLogTable(String name) {
+        for (LogTableEnum value : LogTableEnum.values()) {
+            if (value.getName().equals(name)) {
+                return value;
+            }
+        }
+        return null;
+    }
+}
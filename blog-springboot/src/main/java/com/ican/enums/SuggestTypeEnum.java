@@ -0,0 +1,39 @@
+package com.ican.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 搜索建议类型枚举
+ *
+ * @author Aric
+ */
+@Getter
+@AllArgsConstructor
+public enum SuggestTypeEnum {
+
+    /**
+     * 文章
+     */
+    ARTICLE("article", "文章"),
+
+    /**
+     * 标签
+     */
+    TAG("tag", "标签"),
+
+    /**
+     * 分类
+     */
+    CATEGORY("category", "分类");
+
+    /**
+     * 类型
+     */
+    private final String type;
+
+    /**
+     * 描述
+     */
+    private final String description;
+}
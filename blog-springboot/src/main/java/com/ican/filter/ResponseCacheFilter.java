@@ -0,0 +1,198 @@
+package com.ican.filter;
+
+import cn.hutool.extra.spring.SpringUtil;
+import com.ican.annotation.VisitLogger;
+import com.ican.cache.ResponseCache;
+import com.ican.constant.CacheConstant;
+import com.ican.service.VisitLogService;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerExecutionChain;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 公开接口响应缓存过滤器
+ *
+ * <p>对前台只读接口的 GET 请求：</p>
+ * <ol>
+ *     <li>命中 {@link ResponseCache} 时不进入控制器，If-None-Match 与 ETag 一致返回 304，否则直接写出缓存的响应体（客户端支持时写出 gzip）</li>
+ *     <li>未命中时执行接口，成功的 JSON 响应写入缓存并附带 ETag</li>
+ *     <li>命中时按控制器方法上的 {@link VisitLogger} 补记访问日志</li>
+ * </ol>
+ *
+ * <p>/article/{articleId} 每次访问都要累加浏览量，不做缓存。</p>
+ *
+ * @author Aric
+ */
+@Slf4j
+@Component
+public class ResponseCacheFilter extends OncePerRequestFilter {
+
+    /**
+     * 成功响应体前缀
+     */
+    private static final byte[] SUCCESS_PREFIX = "{\"flag\":true".getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * 可缓存的接口
+     */
+    private static final Map<String, Rule> RULE_MAP = new HashMap<>(8);
+
+    static {
+        RULE_MAP.put("/", new Rule(10000, CacheConstant.ARTICLE, CacheConstant.SITE_CONFIG, CacheConstant.CATEGORY));
+        RULE_MAP.put("/article/list", new Rule(60000, CacheConstant.ARTICLE, CacheConstant.CATEGORY));
+        RULE_MAP.put("/article/recommend", new Rule(60000, CacheConstant.ARTICLE));
+        RULE_MAP.put("/article/rank", new Rule(30000, CacheConstant.ARTICLE));
+        RULE_MAP.put("/archives/list", new Rule(60000, CacheConstant.ARTICLE));
+        RULE_MAP.put("/category/list", new Rule(60000, CacheConstant.ARTICLE, CacheConstant.CATEGORY));
+    }
+
+    /**
+     * 接口路径 -> 访问日志页面
+     */
+    private final Map<String, Optional<String>> visitPageMap = new ConcurrentHashMap<>(8);
+
+    @Autowired
+    private ResponseCache responseCache;
+
+    @Autowired
+    private VisitLogService visitLogService;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !HttpMethod.GET.matches(request.getMethod()) || !RULE_MAP.containsKey(getPath(request));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String path = getPath(request);
+        Rule rule = RULE_MAP.get(path);
+        String key = StringUtils.isEmpty(request.getQueryString()) ? path : path + "?" + request.getQueryString();
+        ResponseCache.Entry entry = responseCache.get(key);
+        if (Objects.nonNull(entry)) {
+            recordVisit(request, path);
+            write(request, response, entry);
+            return;
+        }
+        long[] versions = responseCache.versions(rule.regions);
+        ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
+        filterChain.doFilter(request, responseWrapper);
+        byte[] body = responseWrapper.getContentAsByteArray();
+        if (isCacheable(responseWrapper, body)) {
+            entry = responseCache.put(key, rule.regions, versions, rule.ttl, responseWrapper.getContentType(), body);
+            responseWrapper.setHeader(HttpHeaders.ETAG, entry.getEtag());
+            responseWrapper.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        }
+        responseWrapper.copyBodyToResponse();
+    }
+
+    private boolean isCacheable(HttpServletResponse response, byte[] body) {
+        if (response.getStatus() != HttpServletResponse.SC_OK || body.length < SUCCESS_PREFIX.length) {
+            return false;
+        }
+        String contentType = response.getContentType();
+        if (Objects.isNull(contentType) || !MediaType.APPLICATION_JSON.isCompatibleWith(MediaType.parseMediaType(contentType))) {
+            return false;
+        }
+        // 只缓存成功结果，业务失败同样是200
+        for (int i = 0; i < SUCCESS_PREFIX.length; i++) {
+            if (body[i] != SUCCESS_PREFIX[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void write(HttpServletRequest request, HttpServletResponse response, ResponseCache.Entry entry) throws IOException {
+        response.setHeader(HttpHeaders.ETAG, entry.getEtag());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (Objects.nonNull(ifNoneMatch) && ifNoneMatch.contains(entry.getEtag())) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        response.setContentType(entry.getContentType());
+        byte[] body = entry.getBody();
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (Objects.nonNull(entry.getGzipBody()) && Objects.nonNull(acceptEncoding) && acceptEncoding.contains("gzip")) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            body = entry.getGzipBody();
+        }
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    /**
+     * 命中缓存时补记访问日志
+     */
+    private void recordVisit(HttpServletRequest request, String path) {
+        try {
+            visitPageMap.computeIfAbsent(path, key -> resolveVisitPage(request))
+                    .ifPresent(page -> visitLogService.recordVisit(request, page));
+        } catch (Exception e) {
+            log.warn("记录访问日志失败: {}", e.getMessage());
+        }
+    }
+
+    private Optional<String> resolveVisitPage(HttpServletRequest request) {
+        try {
+            HandlerMapping handlerMapping = SpringUtil.getBean("requestMappingHandlerMapping", HandlerMapping.class);
+            HandlerExecutionChain chain = handlerMapping.getHandler(request);
+            if (Objects.nonNull(chain) && chain.getHandler() instanceof HandlerMethod) {
+                VisitLogger visitLogger = ((HandlerMethod) chain.getHandler()).getMethodAnnotation(VisitLogger.class);
+                return Optional.ofNullable(visitLogger).map(VisitLogger::value);
+            }
+        } catch (Exception e) {
+            log.warn("解析接口[{}]失败: {}", request.getRequestURI(), e.getMessage());
+        }
+        return Optional.empty();
+    }
+
+    private String getPath(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    /**
+     * 缓存规则
+     */
+    private static final class Rule {
+
+        /**
+         * 过期时间（毫秒）
+         */
+        private final long ttl;
+
+        /**
+         * 依赖的缓存区域
+         */
+        private final String[] regions;
+
+        private Rule(long ttl, String... regions) {
+            this.ttl = ttl;
+            this.regions = regions;
+        }
+    }
+
+}
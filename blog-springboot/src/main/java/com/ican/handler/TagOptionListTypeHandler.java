@@ -0,0 +1,55 @@
+package com.ican.handler;
+
+import com.alibaba.fastjson2.JSON;
+import com.ican.model.vo.response.TagOptionResp;
+import org.apache.ibatis.type.BaseTypeHandler;
+import org.apache.ibatis.type.JdbcType;
+import org.apache.ibatis.type.MappedJdbcTypes;
+import org.apache.ibatis.type.MappedTypes;
+
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 标签列表JSON字段处理器
+ *
+ * <p>把 [{"id":1,"tagName":"Java"}] 格式的JSON列转换为 {@link TagOptionResp} 列表。</p>
+ *
+ * @author Aric
+ */
+@MappedTypes(List.class)
+@MappedJdbcTypes(JdbcType.VARCHAR)
+public class TagOptionListTypeHandler extends BaseTypeHandler<List<TagOptionResp>> {
+
+    @Override
+    public void setNonNullParameter(PreparedStatement ps, int i, List<TagOptionResp> parameter, JdbcType jdbcType) throws SQLException {
+        ps.setString(i, JSON.toJSONString(parameter));
+    }
+
+    @Override
+    public List<TagOptionResp> getNullableResult(ResultSet rs, String columnName) throws SQLException {
+        return parse(rs.getString(columnName));
+    }
+
+    @Override
+    public List<TagOptionResp> getNullableResult(ResultSet rs, int columnIndex) throws SQLException {
+        return parse(rs.getString(columnIndex));
+    }
+
+    @Override
+    public List<TagOptionResp> getNullableResult(CallableStatement cs, int columnIndex) throws SQLException {
+        return parse(cs.getString(columnIndex));
+    }
+
+    private List<TagOptionResp> parse(String json) {
+        if (json == null || json.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return JSON.parseArray(json, TagOptionResp.class);
+    }
+
+}
@@ -3,6 +3,7 @@ package com.ican.interceptor;
 import cn.hutool.extra.servlet.ServletUtil;
 import com.alibaba.fastjson2.JSON;
 import com.ican.annotation.AccessLimit;
+import com.ican.constant.RedisConstant;
 import com.ican.model.vo.Result;
 import com.ican.service.RedisService;
 import com.ican.utils.IpUtils;
@@ -46,7 +47,7 @@ public class AccessLimitInterceptor implements HandlerInterceptor {
                 String ip = ServletUtil.getClientIP(request);
                 String method = request.getMethod();
                 String requestUri = request.getRequestURI();
-                String redisKey = ip + ":" + method + ":" + requestUri;
+                String redisKey = RedisConstant.ACCESS_LIMIT + ip + ":" + method + ":" + requestUri;
                 try {
                     Long count = redisService.incr(redisKey, 1L);
                     // 第一次访问
@@ -8,7 +8,10 @@ import com.ican.entity.VisitLog;
 import com.ican.service.ExceptionLogService;
 import com.ican.service.OperationLogService;
 import com.ican.service.VisitLogService;
+import com.ican.utils.IpUtils;
+import com.ican.utils.LogPayloadUtils;
 
+import java.util.Objects;
 import java.util.TimerTask;
 
 /**
@@ -19,15 +22,22 @@ import java.util.TimerTask;
 public class AsyncFactory {
 
     /**
-     * 记录操作日志
+     * 记录操作日志，请求参数、返回数据的序列化和操作地址解析在任务线程中执行
      *
      * @param operationLog 操作日志信息
+     * @param args         请求参数，为空时使用已设置的参数
+     * @param result       返回数据
      * @return 任务task
      */
-    public static TimerTask recordOperation(OperationLog operationLog) {
+    public static TimerTask recordOperation(OperationLog operationLog, Object[] args, Object result) {
         return new TimerTask() {
             @Override
             public void run() {
+                if (Objects.nonNull(args)) {
+                    operationLog.setParams(LogPayloadUtils.toJSONString(args));
+                }
+                operationLog.setData(LogPayloadUtils.toJSONString(result));
+                operationLog.setIpSource(IpUtils.getIpSource(operationLog.getIpAddress()));
                 SpringUtil.getBean(OperationLogService.class).saveOperationLog(operationLog);
             }
         };
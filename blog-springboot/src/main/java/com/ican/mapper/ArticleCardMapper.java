@@ -0,0 +1,73 @@
+package com.ican.mapper;
+
+import com.ican.model.dto.PageCursorDTO;
+import com.ican.model.vo.query.ArticleConditionQuery;
+import com.ican.model.vo.query.PageQuery;
+import com.ican.model.vo.response.ArticleConditionResp;
+import com.ican.model.vo.response.ArticleHomeResp;
+import org.apache.ibatis.annotations.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 文章卡片 Mapper
+ *
+ * <p>t_article_card 只保存公开文章，分类名和标签列表已预先关联，由 {@link com.ican.service.ArticleCardService} 维护。</p>
+ *
+ * @author Aric
+ */
+@Repository
+public interface ArticleCardMapper {
+
+    /**
+     * 查询首页文章
+     *
+     * @param pageQuery 分页条件
+     * @param cursor    游标，为空时按页码分页
+     * @return 首页文章
+     */
+    List<ArticleHomeResp> selectArticleHomeList(@Param("param") PageQuery pageQuery, @Param("cursor") PageCursorDTO cursor);
+
+    /**
+     * 根据分类或标签查询文章
+     *
+     * @param articleConditionQuery 查询条件
+     * @return 文章列表
+     */
+    List<ArticleConditionResp> selectArticleListByCondition(@Param("param") ArticleConditionQuery articleConditionQuery);
+
+    /**
+     * 查询文章的标题、分类和标签
+     *
+     * @param articleIdList 文章id列表，为空时查询全部
+     * @return 文章列表
+     */
+    List<ArticleHomeResp> selectArticleNameList(@Param("articleIdList") Collection<Integer> articleIdList);
+
+    /**
+     * 按文章表生成文章卡片
+     *
+     * @param articleIdList 文章id列表，为空时生成全部
+     * @return 生成条数
+     */
+    int insertArticleCard(@Param("articleIdList") Collection<Integer> articleIdList);
+
+    /**
+     * 删除文章卡片
+     *
+     * @param articleIdList 文章id列表，为空时删除全部
+     * @return 删除条数
+     */
+    int deleteArticleCard(@Param("articleIdList") Collection<Integer> articleIdList);
+
+    /**
+     * 修改分类名
+     *
+     * @param categoryId   分类id
+     * @param categoryName 分类名
+     * @return 修改条数
+     */
+    int updateCategoryName(@Param("categoryId") Integer categoryId, @Param("categoryName") String categoryName);
+}
@@ -0,0 +1,173 @@
+package com.ican.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.ican.entity.ArticleEvent;
+import com.ican.entity.ArticleEventGap;
+import com.ican.entity.ArticleEventOffset;
+import org.apache.ibatis.annotations.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 文章变更事件 Mapper
+ *
+ * @author Aric
+ */
+@Repository
+public interface ArticleEventMapper extends BaseMapper<ArticleEvent> {
+
+    /**
+     * 批量添加事件
+     *
+     * @param articleIdList 文章id列表
+     * @param eventType     事件类型
+     * @param createTime    创建时间
+     */
+    void insertArticleEvent(@Param("articleIdList") List<Integer> articleIdList, @Param("eventType") String eventType,
+                            @Param("createTime") LocalDateTime createTime);
+
+    /**
+     * 查询标签下的所有文章id
+     *
+     * @param tagId 标签id
+     * @return 文章id列表
+     */
+    List<Integer> selectArticleIdByTag(@Param("tagId") Integer tagId);
+
+    /**
+     * 查询分类下的所有文章id
+     *
+     * @param categoryId 分类id
+     * @return 文章id列表
+     */
+    List<Integer> selectArticleIdByCategory(@Param("categoryId") Integer categoryId);
+
+    /**
+     * 查询偏移量之后的事件
+     *
+     * @param offset 偏移量（已处理的最大事件id）
+     * @param limit  条数
+     * @return 事件列表
+     */
+    List<ArticleEvent> selectArticleEventList(@Param("offset") Integer offset, @Param("limit") Integer limit);
+
+    /**
+     * 查询订阅者的重放起点，即偏移量与最早缺口前一个id中的较小值，id大于重放起点的事件之后都会投递
+     *
+     * @param subscriber 订阅者
+     * @return 重放起点
+     */
+    Integer selectReplayOffset(@Param("subscriber") String subscriber);
+
+    /**
+     * 初始化订阅者偏移量，新订阅者从当前最新事件开始
+     *
+     * @param subscriber 订阅者
+     * @param updateTime 更新时间
+     */
+    void insertOffset(@Param("subscriber") String subscriber, @Param("updateTime") LocalDateTime updateTime);
+
+    /**
+     * 锁定订阅者偏移量，已被其他节点锁定时返回空
+     *
+     * @param subscriber 订阅者
+     * @return 偏移量
+     */
+    ArticleEventOffset selectOffsetForUpdate(@Param("subscriber") String subscriber);
+
+    /**
+     * 获取或续期投递租约，租约由其他节点持有且未到期时失败，到期时间取数据库时间
+     *
+     * @param subscriber  订阅者
+     * @param owner       节点id
+     * @param leaseMicros 租约时长（微秒）
+     * @return 是否成功
+     */
+    int claimLease(@Param("subscriber") String subscriber, @Param("owner") String owner,
+                   @Param("leaseMicros") long leaseMicros);
+
+    /**
+     * 释放投递租约
+     *
+     * @param subscriber 订阅者
+     * @param owner      节点id
+     */
+    void releaseLease(@Param("subscriber") String subscriber, @Param("owner") String owner);
+
+    /**
+     * 更新订阅者偏移量并清零失败次数，租约已被其他节点获取时不更新
+     *
+     * @param subscriber 订阅者
+     * @param owner      节点id
+     * @param offset     偏移量
+     * @param updateTime 更新时间
+     * @return 是否更新
+     */
+    int updateOffset(@Param("subscriber") String subscriber, @Param("owner") String owner,
+                     @Param("offset") Integer offset, @Param("updateTime") LocalDateTime updateTime);
+
+    /**
+     * 增加当前批次的失败次数
+     *
+     * @param subscriber 订阅者
+     * @param owner      节点id
+     */
+    void increaseRetryCount(@Param("subscriber") String subscriber, @Param("owner") String owner);
+
+    /**
+     * 查询偏移量之后已发现的缺口
+     *
+     * @param subscriber 订阅者
+     * @param offset     偏移量
+     * @return 缺口列表
+     */
+    List<ArticleEventGap> selectGapList(@Param("subscriber") String subscriber, @Param("offset") Integer offset);
+
+    /**
+     * 记录缺口，已记录的保留首次发现时间
+     *
+     * @param subscriber  订阅者
+     * @param eventIdList 缺失的事件id列表
+     * @param createTime  发现时间
+     */
+    void insertGap(@Param("subscriber") String subscriber, @Param("eventIdList") List<Integer> eventIdList,
+                   @Param("createTime") LocalDateTime createTime);
+
+    /**
+     * 查询偏移量之前的缺口中已经提交的事件
+     *
+     * @param subscriber 订阅者
+     * @param limit      条数
+     * @return 事件列表
+     */
+    List<ArticleEvent> selectGapEventList(@Param("subscriber") String subscriber, @Param("limit") Integer limit);
+
+    /**
+     * 删除已投递事件的缺口
+     *
+     * @param subscriber  订阅者
+     * @param eventIdList 事件id列表
+     */
+    void deleteGap(@Param("subscriber") String subscriber, @Param("eventIdList") List<Integer> eventIdList);
+
+    /**
+     * 删除偏移量之前超过跟踪时间的缺口，视为事务已回滚
+     *
+     * @param subscriber 订阅者
+     * @param endTime    截止时间
+     */
+    void deleteExpiredGap(@Param("subscriber") String subscriber, @Param("endTime") LocalDateTime endTime);
+
+    /**
+     * 记录多次处理失败的事件
+     *
+     * @param subscriber 订阅者
+     * @param eventList  事件列表
+     * @param errorInfo  错误信息
+     * @param createTime 创建时间
+     */
+    void insertDeadLetter(@Param("subscriber") String subscriber, @Param("eventList") List<ArticleEvent> eventList,
+                          @Param("errorInfo") String errorInfo, @Param("createTime") LocalDateTime createTime);
+}
@@ -2,7 +2,7 @@ package com.ican.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.ican.entity.Article;
-import com.ican.model.vo.query.ArticleConditionQuery;
+import com.ican.model.dto.PageCursorDTO;
 import com.ican.model.vo.query.ArticleQuery;
 import com.ican.model.vo.query.PageQuery;
 import com.ican.model.vo.response.*;
@@ -53,12 +53,21 @@ public interface ArticleMapper extends BaseMapper<Article> {
     List<ArticleSearchResp> searchArticle(@Param("keyword") String keyword);
 
     /**
-     * 查询首页文章
+     * 查询文章搜索文档
      *
-     * @param pageQuery 分页条件
-     * @return 首页文章
+     * @param articleIdList 文章id列表
+     * @return 文章列表
+     */
+    List<ArticleSearchResp> selectSearchArticleByIds(@Param("articleIdList") List<Integer> articleIdList);
+
+    /**
+     * 按id分页查询文章id
+     *
+     * @param lastId 上一页最后一个文章id
+     * @param limit  条数
+     * @return 文章id列表
      */
-    List<ArticleHomeResp> selectArticleHomeList(@Param("param") PageQuery pageQuery);
+    List<Integer> selectArticleIdPage(@Param("lastId") Integer lastId, @Param("limit") Integer limit);
 
     /**
      * 根据id查询首页文章
@@ -88,9 +97,10 @@ public interface ArticleMapper extends BaseMapper<Article> {
      * 查询文章归档
      *
      * @param pageQuery 分页
+     * @param cursor    游标，为空时按页码分页
      * @return 文章归档
      */
-    List<ArchiveResp> selectArchiveList(@Param("param") PageQuery pageQuery);
+    List<ArchiveResp> selectArchiveList(@Param("param") PageQuery pageQuery, @Param("cursor") PageCursorDTO cursor);
 
     /**
      * 查询文章统计
@@ -105,12 +115,4 @@ public interface ArticleMapper extends BaseMapper<Article> {
      * @return 推荐文章
      */
     List<ArticleRecommendResp> selectArticleRecommend();
-
-    /**
-     * 根据条件查询文章
-     *
-     * @param articleConditionQuery 查询条件
-     * @return 文章列表
-     */
-    List<ArticleConditionResp> selectArticleListByCondition(@Param("param") ArticleConditionQuery articleConditionQuery);
 }
\ No newline at end of file
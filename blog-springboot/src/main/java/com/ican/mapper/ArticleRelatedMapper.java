@@ -0,0 +1,62 @@
+package com.ican.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.ican.entity.ArticleRelated;
+import com.ican.model.vo.response.ArticlePaginationResp;
+import org.apache.ibatis.annotations.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 相关文章 Mapper
+ *
+ * <p>t_article_related 为每篇公开文章保存相似度最高的若干篇文章，由 {@link com.ican.service.ArticleRelatedService} 维护。</p>
+ *
+ * @author Aric
+ */
+@Repository
+public interface ArticleRelatedMapper extends BaseMapper<ArticleRelated> {
+
+    /**
+     * 查询文章的相关文章，按相似度降序，非公开的文章不返回
+     *
+     * @param articleId 文章id
+     * @return 相关文章
+     */
+    List<ArticlePaginationResp> selectRelatedArticleList(@Param("articleId") Integer articleId);
+
+    /**
+     * 查询相关文章中包含指定文章的文章id
+     *
+     * @param articleIdList 文章id列表
+     * @return 文章id列表
+     */
+    List<Integer> selectArticleIdByRelated(@Param("articleIdList") Collection<Integer> articleIdList);
+
+    /**
+     * 查询属于指定分类或包含指定标签的公开文章id
+     *
+     * @param categoryIdList 分类id列表
+     * @param tagIdList      标签id列表
+     * @return 文章id列表
+     */
+    List<Integer> selectCandidateId(@Param("categoryIdList") Collection<Integer> categoryIdList,
+                                    @Param("tagIdList") Collection<Integer> tagIdList);
+
+    /**
+     * 批量保存相关文章，已存在时覆盖
+     *
+     * @param relatedList 相关文章列表
+     * @return 影响行数
+     */
+    int insertOrUpdateBatch(@Param("relatedList") List<ArticleRelated> relatedList);
+
+    /**
+     * 删除非公开或已删除文章的相关文章
+     *
+     * @return 删除条数
+     */
+    int deleteInvalidArticleRelated();
+}
@@ -2,9 +2,9 @@ package com.ican.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.ican.entity.Category;
+import com.ican.model.dto.ArticleCountDTO;
 import com.ican.model.vo.query.CategoryQuery;
 import com.ican.model.vo.response.CategoryBackResp;
-import com.ican.model.vo.response.CategoryResp;
 import org.apache.ibatis.annotations.Param;
 import org.springframework.stereotype.Repository;
 
@@ -28,9 +28,9 @@ public interface CategoryMapper extends BaseMapper<Category> {
     List<CategoryBackResp> selectBackCategoryList(@Param("param") CategoryQuery categoryQuery);
 
     /**
-     * 查询分类列表
+     * 统计每个分类下的公开文章数量
      *
-     * @return 分类列表
+     * @return 分类文章数量
      */
-    List<CategoryResp> selectCategoryVO();
+    List<ArticleCountDTO> selectCategoryArticleCount();
 }
\ No newline at end of file
@@ -2,11 +2,14 @@ package com.ican.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.ican.entity.Comment;
+import com.ican.model.dto.CommentReferenceDTO;
+import com.ican.model.dto.PageCursorDTO;
 import com.ican.model.vo.query.CommentQuery;
 import com.ican.model.vo.response.*;
 import org.apache.ibatis.annotations.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -26,12 +29,15 @@ public interface CommentMapper extends BaseMapper<Comment> {
     List<CommentBackResp> selectBackCommentList(@Param("param") CommentQuery commentQuery);
 
     /**
-     * 根据父评论id查询子评论id
+     * 批量查询评论引用的文章、说说和用户
      *
-     * @param parentId 父评论id
-     * @return 子评论id列表
+     * @param articleId  文章id，为空时不查询
+     * @param talkId     说说id，为空时不查询
+     * @param userIdList 用户id列表，为空时不查询
+     * @return 存在的引用数据
      */
-    List<Integer> selectCommentIdByParentId(@Param("parentId") Integer parentId);
+    List<CommentReferenceDTO> selectCommentReference(@Param("articleId") Integer articleId, @Param("talkId") Integer talkId,
+                                                     @Param("userIdList") Collection<Integer> userIdList);
 
     /**
      * 查询评论数量
@@ -58,28 +64,13 @@ public interface CommentMapper extends BaseMapper<Comment> {
     List<RecentCommentResp> selectRecentComment();
 
     /**
-     * 分页查询父评论
+     * 分页查询父评论，同时查出每条父评论的前三条回复和回复总数
      *
      * @param commentQuery 条件
+     * @param cursor       游标，为空时按页码分页
      * @return 评论集合
      */
-    List<CommentResp> selectParentComment(@Param("param") CommentQuery commentQuery);
-
-    /**
-     * 查询每条父评论下的前三条子评论
-     *
-     * @param parentCommentIdList 父评论id集合
-     * @return 回复集合
-     */
-    List<ReplyResp> selectReplyByParentIdList(@Param("parentCommentIdList") List<Integer> parentCommentIdList);
-
-    /**
-     * 根据父评论id查询回复数量
-     *
-     * @param parentCommentIdList 父评论id列表
-     * @return 回复数量
-     */
-    List<ReplyCountResp> selectReplyCountByParentId(@Param("parentCommentIdList") List<Integer> parentCommentIdList);
+    List<CommentResp> selectCommentThread(@Param("param") CommentQuery commentQuery, @Param("cursor") PageCursorDTO cursor);
 
     /**
      * 查询父评论下的子评论
@@ -0,0 +1,50 @@
+package com.ican.mapper;
+
+import org.apache.ibatis.annotations.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * 日志清理 Mapper
+ *
+ * <p>表名和附加条件只能来自 {@link com.ican.enums.LogTableEnum}，不能由外部传入。</p>
+ *
+ * @author Aric
+ */
+@Repository
+public interface LogRetentionMapper {
+
+    /**
+     * 查询最小id
+     *
+     * @param table 表名
+     * @return 最小id
+     */
+    Integer selectMinId(@Param("table") String table);
+
+    /**
+     * 查询截止时间之前的最大id
+     *
+     * @param table     表名
+     * @param endTime   截止时间，为空时不限制
+     * @param condition 附加过滤条件，为空时不限制
+     * @return 最大id
+     */
+    Integer selectMaxIdBefore(@Param("table") String table, @Param("endTime") LocalDateTime endTime,
+                              @Param("condition") String condition);
+
+    /**
+     * 删除id范围内截止时间之前的日志
+     *
+     * @param table   表名
+     * @param startId 起始id（包含）
+     * @param endId   结束id（包含）
+     * @param endTime   截止时间，为空时不限制
+     * @param condition 附加过滤条件，为空时不限制
+     * @return 删除条数
+     */
+    int deleteByIdRange(@Param("table") String table, @Param("startId") Integer startId,
+                        @Param("endId") Integer endId, @Param("endTime") LocalDateTime endTime,
+                        @Param("condition") String condition);
+}
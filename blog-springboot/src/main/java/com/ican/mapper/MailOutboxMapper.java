@@ -0,0 +1,35 @@
+package com.ican.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.ican.entity.MailOutbox;
+import org.apache.ibatis.annotations.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 邮件发件箱 Mapper
+ *
+ * @author Aric
+ */
+@Repository
+public interface MailOutboxMapper extends BaseMapper<MailOutbox> {
+
+    /**
+     * 锁定到期的待发送邮件，已被其他节点锁定的记录直接跳过
+     *
+     * @param now   当前时间
+     * @param limit 条数
+     * @return 待发送邮件
+     */
+    List<MailOutbox> selectDueForUpdate(@Param("now") LocalDateTime now, @Param("limit") Integer limit);
+
+    /**
+     * 延后邮件的下次发送时间，作为发送租约
+     *
+     * @param idList   邮件id列表
+     * @param nextTime 下次发送时间
+     */
+    void updateNextTime(@Param("idList") List<Integer> idList, @Param("nextTime") LocalDateTime nextTime);
+}
@@ -46,6 +46,14 @@ public interface MenuMapper extends BaseMapper<Menu> {
      */
     List<UserMenuResp> selectMenuByUserId(@Param("userId") Integer userId);
 
+    /**
+     * 根据角色id列表查询菜单列表
+     *
+     * @param roleIdList 角色id列表
+     * @return 菜单列表
+     */
+    List<UserMenuResp> selectMenuByRoleIds(@Param("roleIdList") List<String> roleIdList);
+
     /**
      * 查询菜单下拉树
      *
@@ -2,10 +2,10 @@ package com.ican.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.ican.entity.Tag;
+import com.ican.model.dto.ArticleCountDTO;
 import com.ican.model.vo.query.TagQuery;
 import com.ican.model.vo.response.TagBackResp;
 import com.ican.model.vo.response.TagOptionResp;
-import com.ican.model.vo.response.TagResp;
 import org.apache.ibatis.annotations.Param;
 import org.springframework.stereotype.Repository;
 
@@ -44,11 +44,11 @@ public interface TagMapper extends BaseMapper<Tag> {
     List<String> selectTagNameByArticleId(@Param("articleId") Integer articleId);
 
     /**
-     * 查询文章标签列表
+     * 统计每个标签关联的文章数量
      *
-     * @return 文章标签列表
+     * @return 标签文章数量
      */
-    List<TagResp> selectTagVOList();
+    List<ArticleCountDTO> selectTagArticleCount();
 
     /**
      * 查询标签列表
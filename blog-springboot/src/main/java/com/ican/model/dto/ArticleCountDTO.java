@@ -0,0 +1,29 @@
+package com.ican.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 分类/标签文章数量DTO
+ *
+ * @author Aric
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArticleCountDTO {
+
+    /**
+     * 分类id或标签id
+     */
+    private Integer id;
+
+    /**
+     * 文章数量
+     */
+    private Long articleCount;
+
+}
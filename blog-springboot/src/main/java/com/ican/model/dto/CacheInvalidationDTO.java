@@ -0,0 +1,46 @@
+package com.ican.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 缓存失效消息DTO
+ *
+ * @author Aric
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheInvalidationDTO {
+
+    /**
+     * 发送节点id
+     */
+    private String nodeId;
+
+    /**
+     * 缓存区域
+     */
+    private String region;
+
+    /**
+     * 序列号，同一节点同一区域内连续递增
+     */
+    private Long sequence;
+
+    /**
+     * 是否清空整个区域
+     */
+    private Boolean all;
+
+    /**
+     * 失效的缓存key列表
+     */
+    private List<String> keyList;
+
+}
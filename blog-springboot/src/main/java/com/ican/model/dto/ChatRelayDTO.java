@@ -0,0 +1,31 @@
+package com.ican.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 聊天室跨节点转发DTO
+ *
+ * @author Aric
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChatRelayDTO {
+
+    /**
+     * 发送节点id
+     */
+    private String nodeId;
+
+    /**
+     * 消息列表（已序列化的websocket消息）
+     */
+    private List<String> messageList;
+
+}
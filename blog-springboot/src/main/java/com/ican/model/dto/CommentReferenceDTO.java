@@ -0,0 +1,44 @@
+package com.ican.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 评论引用数据DTO（用户、文章、说说）
+ *
+ * @author Aric
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CommentReferenceDTO {
+
+    /**
+     * 引用类型 (user用户 article文章 talk说说)
+     */
+    private String refType;
+
+    /**
+     * 引用id
+     */
+    private Integer id;
+
+    /**
+     * 用户昵称或文章标题
+     */
+    private String name;
+
+    /**
+     * 用户邮箱
+     */
+    private String email;
+
+    /**
+     * 用户id，文章、说说为作者id
+     */
+    private Integer userId;
+
+}
@@ -0,0 +1,31 @@
+package com.ican.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 分页游标DTO
+ *
+ * @author Aric
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PageCursorDTO {
+
+    /**
+     * 上一页最后一条记录的创建时间，按id分页时为空
+     */
+    private LocalDateTime createTime;
+
+    /**
+     * 上一页最后一条记录的id
+     */
+    private Integer id;
+
+}
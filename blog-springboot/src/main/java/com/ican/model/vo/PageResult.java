@@ -32,4 +32,15 @@ public class PageResult<T> {
     @ApiModelProperty(value = "总数", dataType = "long")
     private Long count;
 
+    /**
+     * 下一页游标，按游标分页且还有下一页时返回
+     */
+    @ApiModelProperty(value = "下一页游标")
+    private String nextCursor;
+
+    public PageResult(List<T> recordList, Long count) {
+        this.recordList = recordList;
+        this.count = count;
+    }
+
 }
\ No newline at end of file
@@ -27,6 +27,12 @@ public class PageQuery {
     @ApiModelProperty(value = "条数", required = true)
     private Integer size;
 
+    /**
+     * 游标，传入时按游标分页，忽略当前页
+     */
+    @ApiModelProperty(value = "游标，传入时按游标分页，忽略当前页")
+    private String cursor;
+
     public Integer getCurrent() {
         return current == null ? (PageConstant.DEFAULT_CURRENT - 1) * getSize() : (current - 1) * getSize();
     }
@@ -82,6 +82,12 @@ public class ArticleResp {
     @ApiModelProperty(value = "下一篇文章")
     private ArticlePaginationResp nextArticle;
 
+    /**
+     * 相关文章
+     */
+    @ApiModelProperty(value = "相关文章")
+    private List<ArticlePaginationResp> relatedArticleList;
+
     /**
      * 发表时间
      */
@@ -0,0 +1,54 @@
+package com.ican.model.vo.response;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 单次请求重复执行SQL（N+1查询）Response
+ *
+ * @author Aric
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@ApiModel(description = "重复执行SQL Response")
+public class SqlRepeatResp {
+
+    /**
+     * 请求接口
+     */
+    @ApiModelProperty(value = "请求接口")
+    private String uri;
+
+    /**
+     * 语句id
+     */
+    @ApiModelProperty(value = "语句id")
+    private String statementId;
+
+    /**
+     * 出现该问题的请求次数
+     */
+    @ApiModelProperty(value = "请求次数")
+    private Long requestCount;
+
+    /**
+     * 单次请求内最大执行次数
+     */
+    @ApiModelProperty(value = "单次请求最大执行次数")
+    private Integer maxCount;
+
+    /**
+     * 最近出现时间
+     */
+    @ApiModelProperty(value = "最近出现时间")
+    private LocalDateTime lastTime;
+
+}
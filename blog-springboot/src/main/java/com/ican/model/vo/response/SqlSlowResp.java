@@ -0,0 +1,60 @@
+package com.ican.model.vo.response;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 慢SQL Response
+ *
+ * @author Aric
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@ApiModel(description = "慢SQL Response")
+public class SqlSlowResp {
+
+    /**
+     * 语句id
+     */
+    @ApiModelProperty(value = "语句id")
+    private String statementId;
+
+    /**
+     * SQL
+     */
+    @ApiModelProperty(value = "SQL")
+    private String sql;
+
+    /**
+     * 参数（属性名 -> 值，敏感字段已脱敏）
+     */
+    @ApiModelProperty(value = "参数")
+    private String params;
+
+    /**
+     * 耗时（毫秒）
+     */
+    @ApiModelProperty(value = "耗时（毫秒）")
+    private Long time;
+
+    /**
+     * 请求接口
+     */
+    @ApiModelProperty(value = "请求接口")
+    private String uri;
+
+    /**
+     * 执行时间
+     */
+    @ApiModelProperty(value = "执行时间")
+    private LocalDateTime createTime;
+
+}
@@ -0,0 +1,72 @@
+package com.ican.model.vo.response;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * SQL语句统计Response
+ *
+ * @author Aric
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@ApiModel(description = "SQL语句统计Response")
+public class SqlStatementResp {
+
+    /**
+     * 语句id
+     */
+    @ApiModelProperty(value = "语句id")
+    private String statementId;
+
+    /**
+     * 执行次数
+     */
+    @ApiModelProperty(value = "执行次数")
+    private Long count;
+
+    /**
+     * 失败次数
+     */
+    @ApiModelProperty(value = "失败次数")
+    private Long errorCount;
+
+    /**
+     * 返回或影响行数
+     */
+    @ApiModelProperty(value = "返回或影响行数")
+    private Long rows;
+
+    /**
+     * 总耗时（毫秒）
+     */
+    @ApiModelProperty(value = "总耗时（毫秒）")
+    private Long totalTime;
+
+    /**
+     * 平均耗时（毫秒）
+     */
+    @ApiModelProperty(value = "平均耗时（毫秒）")
+    private Double avgTime;
+
+    /**
+     * 最大耗时（毫秒）
+     */
+    @ApiModelProperty(value = "最大耗时（毫秒）")
+    private Long maxTime;
+
+    /**
+     * 耗时分布，耗时上限 -> 次数
+     */
+    @ApiModelProperty(value = "耗时分布")
+    private Map<String, Long> histogram;
+
+}
@@ -0,0 +1,49 @@
+package com.ican.model.vo.response;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * SQL统计Response
+ *
+ * @author Aric
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@ApiModel(description = "SQL统计Response")
+public class SqlStatisticsResp {
+
+    /**
+     * 统计开始时间
+     */
+    @ApiModelProperty(value = "统计开始时间")
+    private LocalDateTime startTime;
+
+    /**
+     * 语句统计，按总耗时倒序
+     */
+    @ApiModelProperty(value = "语句统计")
+    private List<SqlStatementResp> statementList;
+
+    /**
+     * 慢SQL，按耗时倒序
+     */
+    @ApiModelProperty(value = "慢SQL")
+    private List<SqlSlowResp> slowList;
+
+    /**
+     * 重复执行SQL
+     */
+    @ApiModelProperty(value = "重复执行SQL")
+    private List<SqlRepeatResp> repeatList;
+
+}
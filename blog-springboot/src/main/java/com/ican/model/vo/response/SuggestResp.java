@@ -0,0 +1,39 @@
+package com.ican.model.vo.response;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 搜索建议Response
+ *
+ * @author Aric
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@ApiModel(description = "搜索建议Response")
+public class SuggestResp {
+
+    /**
+     * 文章、标签或分类id
+     */
+    @ApiModelProperty(value = "文章、标签或分类id")
+    private Integer id;
+
+    /**
+     * 类型 (article文章 tag标签 category分类)
+     */
+    @ApiModelProperty(value = "类型 (article文章 tag标签 category分类)")
+    private String type;
+
+    /**
+     * 名称
+     */
+    @ApiModelProperty(value = "名称")
+    private String name;
+}
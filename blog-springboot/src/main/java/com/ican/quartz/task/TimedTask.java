@@ -1,13 +1,19 @@
 package com.ican.quartz.task;
 
-import cn.hutool.core.date.DateTime;
-import cn.hutool.core.date.DateUtil;
-import com.ican.mapper.VisitLogMapper;
+import com.ican.constant.RedisConstant;
+import com.ican.enums.LogTableEnum;
+import com.ican.service.ArticleCardService;
+import com.ican.service.ArticleCountService;
+import com.ican.service.ArticleRelatedService;
+import com.ican.service.ElasticsearchService;
+import com.ican.service.LogRetentionService;
 import com.ican.service.RedisService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
-import java.util.Date;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
 import static com.ican.constant.RedisConstant.UNIQUE_VISITOR;
 
@@ -23,7 +29,19 @@ public class TimedTask {
     private RedisService redisService;
 
     @Autowired
-    private VisitLogMapper visitLogMapper;
+    private LogRetentionService logRetentionService;
+
+    @Autowired
+    private ArticleCountService articleCountService;
+
+    @Autowired
+    private ArticleCardService articleCardService;
+
+    @Autowired
+    private ArticleRelatedService articleRelatedService;
+
+    @Autowired(required = false)
+    private ElasticsearchService elasticsearchService;
 
     /**
      * 清除博客访问记录
@@ -40,10 +58,57 @@ public class TimedTask {
     }
 
     /**
-     * 清除一周前的访问日志
+     * 清除过期的访问日志（默认保留一周）
      */
     public void clearVistiLog() {
-        DateTime endTime = DateUtil.beginOfDay(DateUtil.offsetDay(new Date(), -7));
-        visitLogMapper.deleteVisitLog(endTime);
+        logRetentionService.purgeExpired(LogTableEnum.VISIT);
+    }
+
+    /**
+     * 按保留天数分批清除访问、操作、异常、定时任务日志
+     */
+    public void clearLog() {
+        logRetentionService.purgeExpired();
+    }
+
+    /**
+     * 清除没有过期时间的限流计数
+     * 计数自增与设置过期时间不是原子操作，设置失败的key会永久限流
+     */
+    public void clearAccessLimit() {
+        try (Stream<String> keys = redisService.scanKeys(RedisConstant.ACCESS_LIMIT + "*")) {
+            redisService.deleteKeys(keys.filter(key -> Objects.equals(redisService.getExpire(key, TimeUnit.SECONDS), -1L)));
+        }
+    }
+
+    /**
+     * 按数据库重新统计文章、分类、标签数量
+     */
+    public void reconcileArticleCount() {
+        articleCountService.reconcile();
+    }
+
+    /**
+     * 按文章表全量重建文章卡片
+     */
+    public void rebuildArticleCard() {
+        articleCardService.rebuild();
+    }
+
+    /**
+     * 全量重建文章搜索索引，未启用es搜索时跳过
+     */
+    public void reindexArticle() {
+        if (Objects.nonNull(elasticsearchService)) {
+            elasticsearchService.reindex();
+        }
+    }
+
+    /**
+     * 全量重建相关文章
+     */
+    public void rebuildArticleRelated() {
+        articleRelatedService.rebuild();
     }
-}
\ No newline at end of file
+
+}
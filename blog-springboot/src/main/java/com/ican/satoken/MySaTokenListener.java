@@ -36,6 +36,9 @@ public class MySaTokenListener implements SaTokenListener {
     @Autowired
     private HttpServletRequest request;
 
+    @Autowired
+    private OnlineUserRegistry onlineUserRegistry;
+
     /**
      * 每次登录时触发
      */
@@ -75,6 +78,8 @@ public class MySaTokenListener implements SaTokenListener {
         // 用户在线信息存入tokenSession
         SaSession tokenSession = StpUtil.getTokenSessionByToken(tokenValue);
         tokenSession.set(ONLINE_USER, onlineUserResp);
+        // 登记在线用户
+        onlineUserRegistry.register(onlineUserResp);
     }
 
     /**
@@ -84,6 +89,8 @@ public class MySaTokenListener implements SaTokenListener {
     public void doLogout(String loginType, Object loginId, String tokenValue) {
         // 删除缓存中的用户信息
         StpUtil.logoutByTokenValue(tokenValue);
+        // 移除在线用户
+        onlineUserRegistry.remove(tokenValue);
     }
 
     /**
@@ -91,6 +98,8 @@ public class MySaTokenListener implements SaTokenListener {
      */
     @Override
     public void doKickout(String loginType, Object loginId, String tokenValue) {
+        // 移除在线用户
+        onlineUserRegistry.remove(tokenValue);
     }
 
     /**
@@ -98,7 +107,8 @@ public class MySaTokenListener implements SaTokenListener {
      */
     @Override
     public void doReplaced(String loginType, Object loginId, String tokenValue) {
-
+        // 移除在线用户
+        onlineUserRegistry.remove(tokenValue);
     }
 
     /**
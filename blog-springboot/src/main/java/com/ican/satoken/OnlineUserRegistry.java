@@ -0,0 +1,161 @@
+package com.ican.satoken;
+
+import cn.dev33.satoken.SaManager;
+import cn.dev33.satoken.stp.StpUtil;
+import com.ican.constant.RedisConstant;
+import com.ican.model.vo.PageResult;
+import com.ican.model.vo.response.OnlineUserResp;
+import com.ican.service.RedisService;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static com.ican.enums.ZoneEnum.SHANGHAI;
+
+/**
+ * 在线用户注册表
+ *
+ * <p>由 {@link MySaTokenListener} 在登录、注销、踢下线、顶下线时维护，避免查询在线用户时扫描全部 token 会话：</p>
+ * <ul>
+ *     <li>ZSet：token -> 登录时间戳，用于按登录时间倒序分页</li>
+ *     <li>Hash：token -> {@link OnlineUserResp}，用于批量读取用户信息</li>
+ * </ul>
+ *
+ * <p>token 过期不会触发监听器，因此定时按 token 有效期清理过期条目，分页时再惰性剔除已失效的 token。</p>
+ *
+ * @author Aric
+ */
+@Slf4j
+@Component
+public class OnlineUserRegistry {
+
+    /**
+     * 过期清理间隔（秒）
+     */
+    private static final long PRUNE_INTERVAL = 60;
+
+    @Autowired
+    private RedisService redisService;
+
+    @Autowired
+    private ScheduledExecutorService scheduledExecutorService;
+
+    @PostConstruct
+    public void init() {
+        scheduledExecutorService.scheduleWithFixedDelay(this::pruneExpired, PRUNE_INTERVAL, PRUNE_INTERVAL, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 登记在线用户
+     *
+     * @param onlineUserResp 在线用户
+     */
+    public void register(OnlineUserResp onlineUserResp) {
+        long loginTime = onlineUserResp.getLoginTime().atZone(ZoneId.of(SHANGHAI.getZone())).toInstant().toEpochMilli();
+        redisService.setHash(RedisConstant.ONLINE_USER_INFO, onlineUserResp.getToken(), onlineUserResp);
+        redisService.setZset(RedisConstant.ONLINE_USER_LOGIN_TIME, onlineUserResp.getToken(), loginTime);
+    }
+
+    /**
+     * 移除在线用户
+     *
+     * @param tokenList token列表
+     */
+    public void remove(Collection<String> tokenList) {
+        if (tokenList.isEmpty()) {
+            return;
+        }
+        Object[] tokens = tokenList.toArray();
+        redisService.deleteZetScore(RedisConstant.ONLINE_USER_LOGIN_TIME, tokens);
+        redisService.deleteHash(RedisConstant.ONLINE_USER_INFO, tokens);
+    }
+
+    /**
+     * 移除在线用户
+     *
+     * @param token token
+     */
+    public void remove(String token) {
+        remove(Collections.singletonList(token));
+    }
+
+    /**
+     * 分页查询在线用户，按登录时间倒序
+     *
+     * @param keyword 昵称关键词
+     * @param offset  偏移量
+     * @param size    条数
+     * @return 在线用户分页结果
+     */
+    public PageResult<OnlineUserResp> listOnlineUser(String keyword, int offset, int size) {
+        if (StringUtils.isNotEmpty(keyword)) {
+            return searchOnlineUser(keyword, offset, size);
+        }
+        Long count = redisService.getZsetSize(RedisConstant.ONLINE_USER_LOGIN_TIME);
+        if (Objects.isNull(count) || count == 0) {
+            return new PageResult<>(new ArrayList<>(), 0L);
+        }
+        Set<String> tokenSet = redisService.zReverseRange(RedisConstant.ONLINE_USER_LOGIN_TIME, offset, offset + size - 1);
+        if (Objects.isNull(tokenSet) || tokenSet.isEmpty()) {
+            return new PageResult<>(new ArrayList<>(), count);
+        }
+        List<String> tokenList = new ArrayList<>(tokenSet);
+        List<OnlineUserResp> infoList = redisService.getHashMulti(RedisConstant.ONLINE_USER_INFO, tokenList);
+        List<OnlineUserResp> onlineUserList = new ArrayList<>(tokenList.size());
+        List<String> invalidTokenList = new ArrayList<>();
+        for (int i = 0; i < tokenList.size(); i++) {
+            OnlineUserResp onlineUserResp = infoList.get(i);
+            // 信息缺失或token已失效（如活跃超时）
+            if (Objects.isNull(onlineUserResp) || Objects.isNull(StpUtil.getLoginIdByToken(tokenList.get(i)))) {
+                invalidTokenList.add(tokenList.get(i));
+            } else {
+                onlineUserList.add(onlineUserResp);
+            }
+        }
+        remove(invalidTokenList);
+        return new PageResult<>(onlineUserList, count - invalidTokenList.size());
+    }
+
+    /**
+     * 按昵称关键词查询在线用户
+     */
+    @SuppressWarnings("unchecked")
+    private PageResult<OnlineUserResp> searchOnlineUser(String keyword, int offset, int size) {
+        Map<String, OnlineUserResp> infoMap = redisService.getHashAll(RedisConstant.ONLINE_USER_INFO);
+        List<OnlineUserResp> matchList = infoMap.values().stream()
+                .filter(onlineUserResp -> StringUtils.contains(onlineUserResp.getNickname(), keyword))
+                .sorted(Comparator.comparing(OnlineUserResp::getLoginTime).reversed())
+                .collect(Collectors.toList());
+        int fromIndex = Math.min(offset, matchList.size());
+        int toIndex = Math.min(fromIndex + size, matchList.size());
+        return new PageResult<>(new ArrayList<>(matchList.subList(fromIndex, toIndex)), (long) matchList.size());
+    }
+
+    /**
+     * 清理超过token有效期的在线用户
+     */
+    private void pruneExpired() {
+        try {
+            long timeout = SaManager.getConfig().getTimeout();
+            if (timeout <= 0) {
+                return;
+            }
+            long expireTime = System.currentTimeMillis() - TimeUnit.SECONDS.toMillis(timeout);
+            Set<String> expireTokenSet = redisService.zRangeByScore(RedisConstant.ONLINE_USER_LOGIN_TIME, 0, expireTime);
+            if (Objects.nonNull(expireTokenSet) && !expireTokenSet.isEmpty()) {
+                remove(expireTokenSet);
+            }
+        } catch (Exception e) {
+            log.warn("在线用户过期清理失败: {}", e.getMessage());
+        }
+    }
+
+}
@@ -3,6 +3,9 @@ package com.ican.service;
 import cn.hutool.core.lang.Assert;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.ican.cache.CacheInvalidationBus;
+import com.ican.cache.ReferenceListCache;
+import com.ican.constant.CacheConstant;
 import com.ican.entity.Album;
 import com.ican.entity.Photo;
 import com.ican.enums.FilePathEnum;
@@ -31,6 +34,11 @@ import java.util.Objects;
 @Service
 public class AlbumService extends ServiceImpl<AlbumMapper, Album> {
 
+    /**
+     * 前台相册列表缓存key
+     */
+    private static final String ALBUM_LIST = "album_list";
+
     @Autowired
     private AlbumMapper albumMapper;
 
@@ -43,6 +51,12 @@ public class AlbumService extends ServiceImpl<AlbumMapper, Album> {
     @Autowired
     private BlogFileService blogFileService;
 
+    @Autowired
+    private ReferenceListCache referenceListCache;
+
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+
     public PageResult<AlbumBackResp> listAlbumBackVO(AlbumQuery albumQuery) {
         // 查询相册数量
         Long count = albumMapper.selectCount(new LambdaQueryWrapper<Album>()
@@ -64,6 +78,7 @@ public class AlbumService extends ServiceImpl<AlbumMapper, Album> {
         // 添加新相册
         Album newAlbum = BeanCopyUtils.copyBean(album, Album.class);
         baseMapper.insert(newAlbum);
+        cacheInvalidationBus.publishAll(CacheConstant.ALBUM);
     }
 
     public void deleteAlbum(Integer albumId) {
@@ -73,6 +88,7 @@ public class AlbumService extends ServiceImpl<AlbumMapper, Album> {
         Assert.isFalse(count > 0, "相册下存在照片");
         // 不存在照片则删除
         albumMapper.deleteById(albumId);
+        cacheInvalidationBus.publishAll(CacheConstant.ALBUM);
     }
 
     public void updateAlbum(AlbumReq album) {
@@ -85,6 +101,7 @@ public class AlbumService extends ServiceImpl<AlbumMapper, Album> {
         // 修改相册
         Album newAlbum = BeanCopyUtils.copyBean(album, Album.class);
         baseMapper.updateById(newAlbum);
+        cacheInvalidationBus.publishAll(CacheConstant.ALBUM);
     }
 
     public AlbumReq editAlbum(Integer albumId) {
@@ -92,7 +109,7 @@ public class AlbumService extends ServiceImpl<AlbumMapper, Album> {
     }
 
     public List<AlbumResp> listAlbumVO() {
-        return albumMapper.selectAlbumVOList();
+        return referenceListCache.get(ALBUM_LIST, albumMapper::selectAlbumVOList, CacheConstant.ALBUM);
     }
 
     public String uploadAlbumCover(MultipartFile file) {
@@ -0,0 +1,90 @@
+package com.ican.service;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.ican.entity.ArticleTag;
+import com.ican.mapper.ArticleCardMapper;
+import com.ican.mapper.ArticleTagMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * 文章卡片服务
+ *
+ * <p>前台文章列表只需要卡片信息，原查询需要关联分类、文章标签、标签三张表，每个标签产生一行再由 MyBatis 合并。
+ * t_article_card 为每篇公开文章保存一行预先关联好的卡片（分类名、标签JSON），列表查询只需按索引范围扫描一张表。</p>
+ *
+ * <h3>同步方式：</h3>
+ * <ul>
+ *     <li>文章、文章标签、标签名、分类名修改时，在同一事务中按文章id删除后重新生成</li>
+ *     <li>非公开或已删除的文章不会生成卡片，因此修改状态也只需重新生成</li>
+ *     <li>定时任务全量重建，修复遗漏的同步</li>
+ * </ul>
+ *
+ * @author Aric
+ */
+@Slf4j
+@Service
+public class ArticleCardService {
+
+    @Autowired
+    private ArticleCardMapper articleCardMapper;
+
+    @Autowired
+    private ArticleTagMapper articleTagMapper;
+
+    /**
+     * 重新生成文章卡片，需在修改文章的事务中调用
+     *
+     * @param articleIdList 文章id列表
+     */
+    public void refresh(Collection<Integer> articleIdList) {
+        if (Objects.isNull(articleIdList) || articleIdList.isEmpty()) {
+            return;
+        }
+        articleCardMapper.deleteArticleCard(articleIdList);
+        articleCardMapper.insertArticleCard(articleIdList);
+    }
+
+    /**
+     * 标签名修改后重新生成该标签下的文章卡片
+     *
+     * @param tagId 标签id
+     */
+    public void refreshByTag(Integer tagId) {
+        List<Integer> articleIdList = articleTagMapper.selectList(new LambdaQueryWrapper<ArticleTag>()
+                        .select(ArticleTag::getArticleId)
+                        .eq(ArticleTag::getTagId, tagId))
+                .stream()
+                .map(ArticleTag::getArticleId)
+                .collect(Collectors.toList());
+        refresh(articleIdList);
+    }
+
+    /**
+     * 分类名修改后同步文章卡片
+     *
+     * @param categoryId   分类id
+     * @param categoryName 分类名
+     */
+    public void updateCategoryName(Integer categoryId, String categoryName) {
+        articleCardMapper.updateCategoryName(categoryId, categoryName);
+    }
+
+    /**
+     * 全量重建文章卡片
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public void rebuild() {
+        articleCardMapper.deleteArticleCard(null);
+        int count = articleCardMapper.insertArticleCard(null);
+        log.info("文章卡片重建完成，共{}篇", count);
+    }
+
+}
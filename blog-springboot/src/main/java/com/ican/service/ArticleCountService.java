@@ -0,0 +1,302 @@
+package com.ican.service;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.ican.constant.CommonConstant;
+import com.ican.constant.RedisConstant;
+import com.ican.entity.Article;
+import com.ican.entity.ArticleTag;
+import com.ican.enums.ArticleStatusEnum;
+import com.ican.mapper.ArticleMapper;
+import com.ican.mapper.ArticleTagMapper;
+import com.ican.mapper.CategoryMapper;
+import com.ican.mapper.TagMapper;
+import com.ican.model.dto.ArticleCountDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+import static com.ican.utils.TransactionUtils.afterCommit;
+
+/**
+ * 文章数量服务
+ *
+ * <p>在 Redis 中维护文章、分类、标签的数量，前台信息和分类/标签列表无需每次统计或 GROUP BY：</p>
+ * <ul>
+ *     <li>{@link RedisConstant#BLOG_COUNT}：公开文章数、未删除文章数、分类数、标签数</li>
+ *     <li>{@link RedisConstant#CATEGORY_ARTICLE_COUNT}：每个分类下的公开文章数</li>
+ *     <li>{@link RedisConstant#TAG_ARTICLE_COUNT}：每个标签关联的文章数</li>
+ * </ul>
+ *
+ * <p>文章变更前后各统计一次受影响文章的贡献值，差值在事务提交后增量写入；
+ * 写入失败或其他原因导致的偏差由定时任务 {@link #reconcile()} 按数据库重新统计修复。</p>
+ *
+ * @author Aric
+ */
+@Slf4j
+@Service
+public class ArticleCountService {
+
+    /**
+     * 公开文章数
+     */
+    private static final String PUBLIC_ARTICLE = "public_article";
+
+    /**
+     * 未删除文章数
+     */
+    private static final String ARTICLE = "article";
+
+    /**
+     * 分类数
+     */
+    private static final String CATEGORY = "category";
+
+    /**
+     * 标签数
+     */
+    private static final String TAG = "tag";
+
+    @Autowired
+    private ArticleMapper articleMapper;
+
+    @Autowired
+    private ArticleTagMapper articleTagMapper;
+
+    @Autowired
+    private CategoryMapper categoryMapper;
+
+    @Autowired
+    private TagMapper tagMapper;
+
+    @Autowired
+    private RedisService redisService;
+
+    /**
+     * 公开文章数量
+     */
+    public Long getPublicArticleCount() {
+        return getBlogCount(PUBLIC_ARTICLE);
+    }
+
+    /**
+     * 未删除文章数量
+     */
+    public Long getArticleCount() {
+        return getBlogCount(ARTICLE);
+    }
+
+    /**
+     * 分类数量
+     */
+    public Long getCategoryCount() {
+        return getBlogCount(CATEGORY);
+    }
+
+    /**
+     * 标签数量
+     */
+    public Long getTagCount() {
+        return getBlogCount(TAG);
+    }
+
+    /**
+     * 每个分类下的公开文章数量
+     *
+     * @return 分类id -> 文章数量
+     */
+    public Map<Integer, Integer> getCategoryArticleCountMap() {
+        return getArticleCountMap(RedisConstant.CATEGORY_ARTICLE_COUNT);
+    }
+
+    /**
+     * 每个标签关联的文章数量
+     *
+     * @return 标签id -> 文章数量
+     */
+    public Map<Integer, Integer> getTagArticleCountMap() {
+        return getArticleCountMap(RedisConstant.TAG_ARTICLE_COUNT);
+    }
+
+    /**
+     * 记录文章变更前的贡献值，需在修改文章之前调用
+     *
+     * @param articleIdList 受影响的文章id
+     * @return 数量变化
+     */
+    public Delta before(Collection<Integer> articleIdList) {
+        Delta delta = new Delta();
+        collect(delta, articleIdList, -1);
+        return delta;
+    }
+
+    /**
+     * 记录文章变更后的贡献值，并在事务提交后写入差值，需在修改文章之后、同一事务内调用
+     *
+     * @param delta         变更前记录的数量变化
+     * @param articleIdList 受影响的文章id
+     */
+    public void after(Delta delta, Collection<Integer> articleIdList) {
+        collect(delta, articleIdList, 1);
+        afterCommit(() -> apply(delta));
+    }
+
+    /**
+     * 分类数量增减
+     *
+     * @param count 变化量
+     */
+    public void incrCategoryCount(long count) {
+        Delta delta = new Delta();
+        delta.add(delta.blogMap, CATEGORY, count);
+        afterCommit(() -> apply(delta));
+    }
+
+    /**
+     * 标签数量增减
+     *
+     * @param count 变化量
+     */
+    public void incrTagCount(long count) {
+        Delta delta = new Delta();
+        delta.add(delta.blogMap, TAG, count);
+        afterCommit(() -> apply(delta));
+    }
+
+    /**
+     * 按数据库重新统计所有数量，修复增量写入产生的偏差
+     */
+    public synchronized void reconcile() {
+        Map<String, Long> blogMap = new HashMap<>(8);
+        blogMap.put(PUBLIC_ARTICLE, articleMapper.selectCount(new LambdaQueryWrapper<Article>()
+                .eq(Article::getIsDelete, CommonConstant.FALSE)
+                .eq(Article::getStatus, ArticleStatusEnum.PUBLIC.getStatus())));
+        blogMap.put(ARTICLE, articleMapper.selectCount(new LambdaQueryWrapper<Article>()
+                .eq(Article::getIsDelete, CommonConstant.FALSE)));
+        blogMap.put(CATEGORY, categoryMapper.selectCount(null));
+        blogMap.put(TAG, tagMapper.selectCount(null));
+        replaceHash(RedisConstant.CATEGORY_ARTICLE_COUNT, toCountMap(categoryMapper.selectCategoryArticleCount()));
+        replaceHash(RedisConstant.TAG_ARTICLE_COUNT, toCountMap(tagMapper.selectTagArticleCount()));
+        // 最后写入统计数量，作为已初始化的标志
+        replaceHash(RedisConstant.BLOG_COUNT, blogMap);
+    }
+
+    private Long getBlogCount(String field) {
+        ensureInitialized();
+        Number count = redisService.getHash(RedisConstant.BLOG_COUNT, field);
+        return Objects.isNull(count) ? 0L : Math.max(count.longValue(), 0L);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Integer, Integer> getArticleCountMap(String key) {
+        ensureInitialized();
+        Map<String, Object> hash = redisService.getHashAll(key);
+        Map<Integer, Integer> countMap = new HashMap<>(hash.size());
+        hash.forEach((id, count) -> {
+            if (count instanceof Number) {
+                countMap.put(Integer.valueOf(id), Math.max(((Number) count).intValue(), 0));
+            }
+        });
+        return countMap;
+    }
+
+    /**
+     * Redis 数据丢失（首次启动、被清空）时同步重建
+     */
+    private void ensureInitialized() {
+        if (Boolean.TRUE.equals(redisService.hasKey(RedisConstant.BLOG_COUNT))) {
+            return;
+        }
+        synchronized (this) {
+            if (!Boolean.TRUE.equals(redisService.hasKey(RedisConstant.BLOG_COUNT))) {
+                reconcile();
+            }
+        }
+    }
+
+    /**
+     * 统计文章的贡献值：未删除计入文章数，公开且未删除计入分类，文章标签关联计入标签
+     */
+    private void collect(Delta delta, Collection<Integer> articleIdList, long sign) {
+        if (articleIdList.isEmpty()) {
+            return;
+        }
+        List<Article> articleList = articleMapper.selectList(new LambdaQueryWrapper<Article>()
+                .select(Article::getId, Article::getCategoryId, Article::getStatus, Article::getIsDelete)
+                .in(Article::getId, articleIdList));
+        for (Article article : articleList) {
+            if (!CommonConstant.FALSE.equals(article.getIsDelete())) {
+                continue;
+            }
+            delta.add(delta.blogMap, ARTICLE, sign);
+            if (ArticleStatusEnum.PUBLIC.getStatus().equals(article.getStatus())) {
+                delta.add(delta.blogMap, PUBLIC_ARTICLE, sign);
+                delta.add(delta.categoryMap, String.valueOf(article.getCategoryId()), sign);
+            }
+        }
+        List<ArticleTag> articleTagList = articleTagMapper.selectList(new LambdaQueryWrapper<ArticleTag>()
+                .select(ArticleTag::getTagId)
+                .in(ArticleTag::getArticleId, articleIdList));
+        articleTagList.forEach(articleTag -> delta.add(delta.tagMap, String.valueOf(articleTag.getTagId()), sign));
+    }
+
+    private void apply(Delta delta) {
+        try {
+            if (!Boolean.TRUE.equals(redisService.hasKey(RedisConstant.BLOG_COUNT))) {
+                // 尚未初始化，下次读取时整体重建
+                return;
+            }
+            applyHash(RedisConstant.CATEGORY_ARTICLE_COUNT, delta.categoryMap);
+            applyHash(RedisConstant.TAG_ARTICLE_COUNT, delta.tagMap);
+            applyHash(RedisConstant.BLOG_COUNT, delta.blogMap);
+        } catch (Exception e) {
+            log.warn("文章数量增量更新失败，等待定时任务修复: {}", e.getMessage());
+        }
+    }
+
+    private void applyHash(String key, Map<String, Long> deltaMap) {
+        deltaMap.forEach((field, count) -> {
+            if (count != 0) {
+                redisService.incrHash(key, field, count);
+            }
+        });
+    }
+
+    /**
+     * 先写入临时key再重命名，读取方不会看到写了一半的数据
+     */
+    private void replaceHash(String key, Map<String, Long> map) {
+        if (map.isEmpty()) {
+            redisService.deleteObject(key);
+            return;
+        }
+        String tempKey = key + ":rebuild";
+        redisService.deleteObject(tempKey);
+        redisService.setHashAll(tempKey, map);
+        redisService.rename(tempKey, key);
+    }
+
+    private Map<String, Long> toCountMap(List<ArticleCountDTO> countList) {
+        Map<String, Long> countMap = new HashMap<>(countList.size());
+        countList.forEach(item -> countMap.put(String.valueOf(item.getId()), item.getArticleCount()));
+        return countMap;
+    }
+
+    /**
+     * 数量变化
+     */
+    public static final class Delta {
+
+        private final Map<String, Long> blogMap = new HashMap<>(8);
+
+        private final Map<String, Long> categoryMap = new HashMap<>(8);
+
+        private final Map<String, Long> tagMap = new HashMap<>(16);
+
+        private void add(Map<String, Long> map, String field, long count) {
+            map.merge(field, count, Long::sum);
+        }
+    }
+
+}
@@ -0,0 +1,419 @@
+package com.ican.service;
+
+import cn.hutool.core.util.IdUtil;
+import com.ican.config.properties.ArticleEventProperties;
+import com.ican.entity.ArticleEvent;
+import com.ican.entity.ArticleEventGap;
+import com.ican.entity.ArticleEventOffset;
+import com.ican.enums.ArticleEventTypeEnum;
+import com.ican.exception.ServiceException;
+import com.ican.mapper.ArticleEventMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+import static com.ican.enums.ZoneEnum.SHANGHAI;
+import static com.ican.utils.TransactionUtils.afterCommit;
+
+/**
+ * 文章变更事件服务
+ *
+ * <p>文章、标签、分类的修改与变更事件写入同一个事务（t_article_event），
+ * 再由后台按事件id顺序投递给各订阅者（搜索索引、缓存、计数等），替代 Canal + RabbitMQ：</p>
+ * <ol>
+ *     <li>每个订阅者在 t_article_event_offset 中保存已处理的最大事件id</li>
+ *     <li>投递前获取订阅者的租约，多节点部署时同一订阅者同时只有一个节点处理；订阅者在事务之外执行，
+ *     处理成功后只在持有租约时前进偏移量，租约超时被其他节点接管时由接管节点重新投递，订阅者需保证幂等</li>
+ *     <li>订阅者抛出异常时偏移量不前进，之后逐条重新投递，连续失败 {@link ArticleEventProperties#getMaxRetry()} 次后
+ *     写入 t_article_event_dead_letter 并跳过</li>
+ *     <li>自增id按分配顺序而非提交顺序递增，遇到id缺口时从首次发现起等待 {@link ArticleEventProperties#getGapTimeout()}，
+ *     超时后越过缺口，但缺失的id记入 t_article_event_gap，对应事务之后提交时补投</li>
+ * </ol>
+ *
+ * @author Aric
+ */
+@Slf4j
+@Service
+public class ArticleEventService {
+
+    /**
+     * 错误信息最大长度
+     */
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    /**
+     * 订阅者名称 -> 订阅者
+     */
+    private final Map<String, Subscriber> subscriberMap = new ConcurrentHashMap<>(8);
+
+    /**
+     * 当前节点id，作为投递租约的持有者
+     */
+    private final String nodeId = IdUtil.fastSimpleUUID();
+
+    private final ReentrantLock dispatchLock = new ReentrantLock();
+
+    /**
+     * 是否有待投递的事件
+     */
+    private final AtomicBoolean pending = new AtomicBoolean();
+
+    /**
+     * 暂停投递的订阅者
+     */
+    private final Set<String> pausedSet = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    private ArticleEventMapper articleEventMapper;
+
+    @Autowired
+    private ArticleEventProperties articleEventProperties;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ScheduledExecutorService scheduledExecutorService;
+
+    @PostConstruct
+    public void init() {
+        long pollInterval = articleEventProperties.getPollInterval();
+        scheduledExecutorService.scheduleWithFixedDelay(this::dispatch, pollInterval, pollInterval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 注册订阅者
+     *
+     * @param name       订阅者名称，作为偏移量的key，不能修改
+     * @param subscriber 订阅者
+     */
+    public void subscribe(String name, Subscriber subscriber) {
+        articleEventMapper.insertOffset(name, now());
+        subscriberMap.put(name, subscriber);
+    }
+
+    /**
+     * 记录文章变更
+     *
+     * @param articleIdList 文章id列表
+     * @param eventType     事件类型
+     */
+    public void record(List<Integer> articleIdList, ArticleEventTypeEnum eventType) {
+        if (Objects.isNull(articleIdList) || articleIdList.isEmpty()) {
+            return;
+        }
+        articleEventMapper.insertArticleEvent(articleIdList, eventType.getType(), now());
+        afterCommit(() -> scheduledExecutorService.execute(this::dispatch));
+    }
+
+    /**
+     * 记录文章变更
+     *
+     * @param articleId 文章id
+     * @param eventType 事件类型
+     */
+    public void record(Integer articleId, ArticleEventTypeEnum eventType) {
+        record(Collections.singletonList(articleId), eventType);
+    }
+
+    /**
+     * 记录标签下所有文章的变更，先查询文章id再按条数确定的 VALUES 插入，
+     * INSERT ... SELECT 在 innodb_autoinc_lock_mode=2 时会预留多余的id，造成缺口
+     *
+     * @param tagId 标签id
+     */
+    public void recordByTag(Integer tagId) {
+        record(articleEventMapper.selectArticleIdByTag(tagId), ArticleEventTypeEnum.SAVE);
+    }
+
+    /**
+     * 记录分类下所有文章的变更
+     *
+     * @param categoryId 分类id
+     */
+    public void recordByCategory(Integer categoryId) {
+        record(articleEventMapper.selectArticleIdByCategory(categoryId), ArticleEventTypeEnum.SAVE);
+    }
+
+    /**
+     * 向所有订阅者投递事件，同一节点同时只有一个线程投递
+     */
+    public void dispatch() {
+        pending.set(true);
+        if (!dispatchLock.tryLock()) {
+            return;
+        }
+        try {
+            while (pending.getAndSet(false)) {
+                subscriberMap.forEach(this::dispatch);
+            }
+        } finally {
+            dispatchLock.unlock();
+        }
+    }
+
+    /**
+     * 暂停订阅者的投递，用于全量重建等期间不能同时增量更新的操作；本节点正在进行的投递结束后才返回，
+     * 并获取订阅者的租约使其他节点也不再投递，其他节点正在投递时最多等待一个租约时长
+     *
+     * @param name 订阅者名称
+     * @return 是否暂停成功
+     */
+    public boolean pause(String name) {
+        dispatchLock.lock();
+        try {
+            pausedSet.add(name);
+        } finally {
+            dispatchLock.unlock();
+        }
+        long deadline = System.currentTimeMillis() + articleEventProperties.getLeaseTimeout();
+        try {
+            while (!renew(name)) {
+                if (System.currentTimeMillis() >= deadline) {
+                    pausedSet.remove(name);
+                    return false;
+                }
+                TimeUnit.MILLISECONDS.sleep(articleEventProperties.getPollInterval());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            pausedSet.remove(name);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * 续期暂停期间持有的租约，操作时间超过租约时长时需定期调用
+     *
+     * @param name 订阅者名称
+     * @return 是否仍持有租约，失败说明租约已到期并被其他节点获取
+     */
+    public boolean renew(String name) {
+        return Objects.nonNull(claim(name));
+    }
+
+    /**
+     * 恢复订阅者的投递，并立即投递暂停期间的事件
+     *
+     * @param name 订阅者名称
+     */
+    public void resume(String name) {
+        releaseLease(name);
+        pausedSet.remove(name);
+        scheduledExecutorService.execute(this::dispatch);
+    }
+
+    /**
+     * 获取订阅者的重放起点，恢复投递后id大于重放起点的事件都会投递（包括缺口中晚提交的事件），
+     * 需在暂停期间调用，全量重建以此作为快照的版本号
+     *
+     * @param name 订阅者名称
+     * @return 重放起点
+     */
+    public int getReplayOffset(String name) {
+        Integer replayOffset = articleEventMapper.selectReplayOffset(name);
+        if (Objects.isNull(replayOffset)) {
+            throw new ServiceException("文章变更事件订阅者不存在: " + name);
+        }
+        return replayOffset;
+    }
+
+    /**
+     * 获取事件涉及的文章id，按首次出现的顺序去重
+     *
+     * @param eventList 事件列表
+     * @return 文章id列表
+     */
+    public static List<Integer> listArticleId(List<ArticleEvent> eventList) {
+        return eventList.stream()
+                .map(ArticleEvent::getArticleId)
+                .distinct()
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 向订阅者投递事件，直到没有可投递的事件
+     */
+    private void dispatch(String name, Subscriber subscriber) {
+        if (pausedSet.contains(name)) {
+            return;
+        }
+        boolean claimed = false;
+        try {
+            ArticleEventOffset offset;
+            // 其他节点正在处理时获取不到租约
+            while (Objects.nonNull(offset = claim(name))) {
+                claimed = true;
+                if (!dispatchBatch(name, subscriber, offset)) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            log.error("文章变更事件订阅者[{}]处理失败，稍后重新投递", name, e);
+        } finally {
+            if (claimed) {
+                releaseLease(name);
+            }
+        }
+    }
+
+    /**
+     * 向订阅者投递一批事件，先补投缺口中晚提交的事件，再投递偏移量之后的事件
+     *
+     * @param offset 已获取租约的偏移量
+     * @return 是否可能还有可投递的事件
+     */
+    private boolean dispatchBatch(String name, Subscriber subscriber, ArticleEventOffset offset) {
+        // 上一批失败后逐条投递，找出无法处理的事件
+        int batchSize = offset.getRetryCount() > 0 ? 1 : articleEventProperties.getBatchSize();
+        List<ArticleEvent> eventList = new ArrayList<>(articleEventMapper.selectGapEventList(name, batchSize));
+        int lastId = offset.getLastId();
+        if (eventList.size() < batchSize) {
+            List<ArticleEvent> readyList = takeContiguous(name, lastId,
+                    articleEventMapper.selectArticleEventList(lastId, batchSize - eventList.size()));
+            if (!readyList.isEmpty()) {
+                lastId = readyList.get(readyList.size() - 1).getId();
+            }
+            eventList.addAll(readyList);
+        }
+        if (eventList.isEmpty()) {
+            return false;
+        }
+        try {
+            subscriber.onEvent(eventList);
+        } catch (Exception e) {
+            if (offset.getRetryCount() + 1 < articleEventProperties.getMaxRetry()) {
+                articleEventMapper.increaseRetryCount(name, nodeId);
+                throw e;
+            }
+            log.error("文章变更事件订阅者[{}]连续{}次处理失败，跳过事件{}", name, articleEventProperties.getMaxRetry(),
+                    eventList.stream().map(ArticleEvent::getId).collect(Collectors.toList()), e);
+            return commit(name, eventList, lastId, e);
+        }
+        return commit(name, eventList, lastId, null) && eventList.size() == batchSize;
+    }
+
+    /**
+     * 锁定偏移量并获取租约，锁只在这个短事务中持有
+     *
+     * @return 偏移量，已被其他节点锁定或持有租约时返回空
+     */
+    private ArticleEventOffset claim(String name) {
+        long leaseMicros = TimeUnit.MILLISECONDS.toMicros(articleEventProperties.getLeaseTimeout());
+        return transactionTemplate.execute(status -> {
+            ArticleEventOffset offset = articleEventMapper.selectOffsetForUpdate(name);
+            if (Objects.isNull(offset) || articleEventMapper.claimLease(name, nodeId, leaseMicros) == 0) {
+                return null;
+            }
+            return offset;
+        });
+    }
+
+    /**
+     * 提交投递结果：前进偏移量，删除已投递事件的缺口，记录处理失败的事件
+     *
+     * @param eventList 已投递的事件
+     * @param lastId    新的偏移量
+     * @param exception 处理异常，成功时为空
+     * @return 是否提交，租约已被其他节点接管时不提交
+     */
+    private boolean commit(String name, List<ArticleEvent> eventList, int lastId, Exception exception) {
+        LocalDateTime now = now();
+        Boolean committed = transactionTemplate.execute(status -> {
+            if (articleEventMapper.updateOffset(name, nodeId, lastId, now) == 0) {
+                log.warn("文章变更事件订阅者[{}]的租约已被其他节点接管", name);
+                return false;
+            }
+            articleEventMapper.deleteGap(name, eventList.stream().map(ArticleEvent::getId).collect(Collectors.toList()));
+            if (Objects.nonNull(exception)) {
+                String errorInfo = Optional.ofNullable(exception.getMessage()).orElse(exception.getClass().getName());
+                articleEventMapper.insertDeadLetter(name, eventList,
+                        errorInfo.length() > MAX_ERROR_LENGTH ? errorInfo.substring(0, MAX_ERROR_LENGTH) : errorInfo, now);
+            }
+            articleEventMapper.deleteExpiredGap(name,
+                    now.minusNanos(TimeUnit.MILLISECONDS.toNanos(articleEventProperties.getGapExpire())));
+            return true;
+        });
+        return Boolean.TRUE.equals(committed);
+    }
+
+    private void releaseLease(String name) {
+        try {
+            articleEventMapper.releaseLease(name, nodeId);
+        } catch (Exception e) {
+            // 租约到期后其他节点可以接管
+            log.warn("文章变更事件订阅者[{}]释放租约失败: {}", name, e.getMessage());
+        }
+    }
+
+    /**
+     * 截取可投递的事件，缺口从首次发现起超过等待时间前，其后的事件暂不投递；
+     * 新发现的缺口记入缺口表，越过后对应事件提交时仍会补投
+     *
+     * @param offset    偏移量
+     * @param eventList 偏移量之后的事件
+     * @return 可投递的事件
+     */
+    private List<ArticleEvent> takeContiguous(String name, int offset, List<ArticleEvent> eventList) {
+        LocalDateTime now = now();
+        LocalDateTime gapDeadline = now.minusNanos(TimeUnit.MILLISECONDS.toNanos(articleEventProperties.getGapTimeout()));
+        Map<Integer, LocalDateTime> gapMap = articleEventMapper.selectGapList(name, offset).stream()
+                .collect(Collectors.toMap(ArticleEventGap::getEventId, ArticleEventGap::getCreateTime));
+        List<Integer> newGapList = new ArrayList<>();
+        List<ArticleEvent> readyList = new ArrayList<>(eventList.size());
+        int expectedId = offset + 1;
+        for (ArticleEvent event : eventList) {
+            boolean waiting = false;
+            for (int id = expectedId; id < event.getId(); id++) {
+                LocalDateTime foundTime = gapMap.get(id);
+                if (Objects.isNull(foundTime)) {
+                    newGapList.add(id);
+                    waiting = true;
+                } else if (foundTime.isAfter(gapDeadline)) {
+                    waiting = true;
+                }
+            }
+            if (waiting) {
+                // 缺口处的事务可能尚未提交
+                break;
+            }
+            readyList.add(event);
+            expectedId = event.getId() + 1;
+        }
+        if (!newGapList.isEmpty()) {
+            articleEventMapper.insertGap(name, newGapList, now);
+        }
+        return readyList;
+    }
+
+    private static LocalDateTime now() {
+        return LocalDateTime.now(ZoneId.of(SHANGHAI.getZone()));
+    }
+
+    /**
+     * 文章变更事件订阅者
+     */
+    public interface Subscriber {
+
+        /**
+         * 处理一批事件，抛出异常时稍后逐条重新投递
+         *
+         * @param eventList 事件列表，补投的晚提交事件在前，各部分按id升序排列
+         */
+        void onEvent(List<ArticleEvent> eventList);
+    }
+
+}
@@ -0,0 +1,626 @@
+package com.ican.service;
+
+import com.alibaba.fastjson2.JSON;
+import com.alibaba.fastjson2.TypeReference;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.ican.config.properties.ArticleRelatedProperties;
+import com.ican.constant.RedisConstant;
+import com.ican.entity.Article;
+import com.ican.entity.ArticleRelated;
+import com.ican.exception.ServiceException;
+import com.ican.mapper.ArticleCardMapper;
+import com.ican.mapper.ArticleMapper;
+import com.ican.mapper.ArticleRelatedMapper;
+import com.ican.model.vo.response.ArticleHomeResp;
+import com.ican.model.vo.response.ArticlePaginationResp;
+import com.ican.model.vo.response.TagOptionResp;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToIntFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static com.ican.enums.ZoneEnum.SHANGHAI;
+
+/**
+ * 相关文章服务
+ *
+ * <p>文章详情原来只有上一篇/下一篇和固定的推荐文章，相关文章按以下相似度预先计算，
+ * 每篇公开文章在 t_article_related 中保存得分最高的 {@link ArticleRelatedProperties#getSize()} 篇：</p>
+ * <pre>
+ * 相似度 = 标签权重 × 标签Jaccard + 分类权重 × 是否同分类 + 正文权重 × 正文词向量余弦
+ * </pre>
+ * <ul>
+ *     <li>候选文章为至少有一个相同标签或属于同一分类的公开文章，正文相似度只在候选文章中参与排序</li>
+ *     <li>全量重建时通过标签和词的倒排表查找候选文章：同分类中与本文没有相同标签和词的文章得分相同，只取最新的若干篇；
+ *     出现在过多文章中的标签和词只取最新的 {@link #MAX_POSTING_SIZE} 篇，避免按分类两两计算</li>
+ *     <li>正文词向量由英文单词和中文相邻二字的 TF-IDF 组成，只保留权重最高的若干个词，归一化后与相关文章一起保存，
+ *     增量更新时无需读取候选文章的正文</li>
+ *     <li>全量重建：定时任务按文章卡片和正文重新计算全部文章，分批提交，全部提交后再把重新统计的词文档频率写入 Redis；
+ *     重建期间暂停该订阅者的事件投递，结束后再处理期间的变更</li>
+ *     <li>增量更新：订阅文章变更事件，变更文章和相关文章中包含变更文章的文章重新计算，
+ *     其他与变更文章有相同标签或分类的文章只把变更文章合并进原有列表，计算完成后在一个短事务中写入</li>
+ * </ul>
+ *
+ * @author Aric
+ */
+@Slf4j
+@Service
+public class ArticleRelatedService {
+
+    /**
+     * 文章变更事件订阅者名称
+     */
+    private static final String SUBSCRIBER = "related";
+
+    /**
+     * 每批保存的条数
+     */
+    private static final int BATCH_SIZE = 500;
+
+    /**
+     * 全量重建时每个标签或词最多取的候选文章数
+     */
+    private static final int MAX_POSTING_SIZE = 500;
+
+    /**
+     * 统计文档频率后按 TF-IDF 筛选词，每篇文章先按词频保留 termSize 的几倍
+     */
+    private static final int TERM_CANDIDATE_FACTOR = 4;
+
+    /**
+     * 英文单词最大长度，更长的一般是哈希、编码等无意义字符串
+     */
+    private static final int MAX_WORD_LENGTH = 30;
+
+    private static final Pattern IMAGE_PATTERN = Pattern.compile("!\\[[^\\]]*]\\([^)]*\\)");
+
+    private static final Pattern LINK_PATTERN = Pattern.compile("\\[([^\\]]*)]\\([^)]*\\)");
+
+    private static final Pattern URL_PATTERN = Pattern.compile("https?://\\S+|<[^>]+>");
+
+    private static final Pattern TERM_PATTERN = Pattern.compile("[a-z][a-z0-9]+|[\\u4e00-\\u9fa5]+");
+
+    private static final Set<String> STOP_WORD_SET = Set.of("an", "as", "at", "be", "by", "do", "if", "in", "is",
+            "it", "no", "of", "on", "or", "so", "to", "up", "we", "the", "and", "for", "are", "but", "not", "you",
+            "all", "can", "has", "was", "its", "with", "this", "that", "from", "have", "will", "your", "they",
+            "them", "what", "when", "then", "than", "into", "also", "been", "more", "some", "such", "only",
+            "other", "these", "those", "would", "should", "could", "about", "which", "there", "their");
+
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    @Autowired
+    private ArticleRelatedMapper articleRelatedMapper;
+
+    @Autowired
+    private ArticleCardMapper articleCardMapper;
+
+    @Autowired
+    private ArticleMapper articleMapper;
+
+    @Autowired
+    private ArticleEventService articleEventService;
+
+    @Autowired
+    private ArticleRelatedProperties articleRelatedProperties;
+
+    @Autowired
+    private RedisService redisService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Resource
+    private ScheduledExecutorService relatedExecutorService;
+
+    @PostConstruct
+    public void init() {
+        articleEventService.subscribe(SUBSCRIBER, eventList -> refresh(ArticleEventService.listArticleId(eventList)));
+        // 首次启用时全量生成
+        relatedExecutorService.execute(() -> {
+            try {
+                if (articleRelatedMapper.selectCount(null) == 0) {
+                    rebuild();
+                }
+            } catch (Exception e) {
+                log.error("相关文章初始化失败", e);
+            }
+        });
+    }
+
+    /**
+     * 查询相关文章
+     *
+     * @param articleId 文章id
+     * @return 相关文章，按相似度降序
+     */
+    public List<ArticlePaginationResp> listRelatedArticle(Integer articleId) {
+        return articleRelatedMapper.selectRelatedArticleList(articleId);
+    }
+
+    /**
+     * 全量重建相关文章，同一节点同时只能有一个重建任务
+     * <p>重建期间暂停订阅者的投递，每 {@link ArticleRelatedProperties#getPageSize()} 篇提交一次，
+     * 结束后恢复投递，处理期间的变更事件</p>
+     */
+    public void rebuild() {
+        if (!rebuildLock.tryLock()) {
+            throw new ServiceException("相关文章正在重建");
+        }
+        long startTime = System.currentTimeMillis();
+        try {
+            if (!articleEventService.pause(SUBSCRIBER)) {
+                throw new ServiceException("相关文章正在增量更新，请稍后重试");
+            }
+            try {
+                Map<Integer, Feature> featureMap = loadFeature(null);
+                Map<String, Integer> dfMap = isContentEnabled() ? buildTermVector(featureMap) : Collections.emptyMap();
+                CandidateIndex candidateIndex = new CandidateIndex(featureMap.values());
+                List<Feature> featureList = new ArrayList<>(featureMap.values());
+                int pageSize = articleRelatedProperties.getPageSize();
+                for (int i = 0; i < featureList.size(); i += pageSize) {
+                    List<ArticleRelated> relatedList = featureList.subList(i, Math.min(i + pageSize, featureList.size()))
+                            .stream()
+                            .map(feature -> toArticleRelated(feature, rank(feature, candidateIndex.listCandidate(feature))))
+                            .collect(Collectors.toList());
+                    transactionTemplate.executeWithoutResult(status -> save(relatedList));
+                    if (!articleEventService.renew(SUBSCRIBER)) {
+                        throw new ServiceException("相关文章重建超时，增量更新已恢复");
+                    }
+                }
+                articleRelatedMapper.deleteInvalidArticleRelated();
+                // 数据库全部提交后再写入，避免事务回滚后 Redis 中的文档频率与已保存的词向量不一致
+                if (isContentEnabled()) {
+                    saveTermDf(dfMap, featureMap.size());
+                }
+                log.info("相关文章重建完成，共{}篇，耗时{}毫秒", featureList.size(), System.currentTimeMillis() - startTime);
+            } finally {
+                articleEventService.resume(SUBSCRIBER);
+            }
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * 增量更新相关文章，由文章变更事件投递调用，读取和计算在事务之外，只有写入在一个短事务中
+     *
+     * @param articleIdList 变更的文章id列表
+     */
+    public void refresh(List<Integer> articleIdList) {
+        // 变更文章的最新特征，非公开或已删除的文章不在卡片表中
+        Map<Integer, Feature> changedMap = loadFeature(articleIdList);
+        List<Integer> removedIdList = articleIdList.stream()
+                .filter(articleId -> !changedMap.containsKey(articleId))
+                .collect(Collectors.toList());
+        if (isContentEnabled()) {
+            computeTermVector(changedMap.values());
+        }
+        // 相关文章中包含变更文章的，原有的相似度可能已失效，需要重新计算
+        Map<Integer, Feature> recomputeMap = new HashMap<>(changedMap);
+        recomputeMap.putAll(loadFeature(articleRelatedMapper.selectArticleIdByRelated(articleIdList).stream()
+                .filter(articleId -> !changedMap.containsKey(articleId))
+                .collect(Collectors.toList())));
+        if (recomputeMap.isEmpty()) {
+            if (!removedIdList.isEmpty()) {
+                articleRelatedMapper.deleteBatchIds(removedIdList);
+            }
+            return;
+        }
+        // 候选文章
+        Map<Integer, Feature> featureMap = new HashMap<>(recomputeMap);
+        featureMap.putAll(loadFeature(selectCandidateId(recomputeMap.values()).stream()
+                .filter(articleId -> !featureMap.containsKey(articleId))
+                .collect(Collectors.toList())));
+        Map<Integer, ArticleRelated> savedMap = articleRelatedMapper.selectBatchIds(featureMap.keySet()).stream()
+                .collect(Collectors.toMap(ArticleRelated::getArticleId, related -> related));
+        featureMap.values().stream()
+                .filter(feature -> !changedMap.containsKey(feature.id))
+                .forEach(feature -> feature.termVector = parseTermVector(savedMap.get(feature.id)));
+        List<ArticleRelated> relatedList = new ArrayList<>();
+        for (Feature feature : recomputeMap.values()) {
+            List<Feature> candidateList = featureMap.values().stream()
+                    .filter(candidate -> isCandidate(feature, candidate))
+                    .collect(Collectors.toList());
+            relatedList.add(toArticleRelated(feature, rank(feature, candidateList)));
+        }
+        // 其他与变更文章有相同标签或分类的文章，原有列表中不包含变更文章，只需合并
+        for (Feature feature : featureMap.values()) {
+            ArticleRelated saved = savedMap.get(feature.id);
+            if (recomputeMap.containsKey(feature.id) || Objects.isNull(saved)) {
+                continue;
+            }
+            List<Neighbor> neighborList = parseNeighbor(saved);
+            changedMap.values().stream()
+                    .filter(changed -> isCandidate(feature, changed))
+                    .forEach(changed -> neighborList.add(new Neighbor(changed.id, score(feature, changed))));
+            List<Neighbor> topList = top(neighborList);
+            if (topList.stream().anyMatch(neighbor -> changedMap.containsKey(neighbor.id))) {
+                relatedList.add(toArticleRelated(feature, topList));
+            }
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!removedIdList.isEmpty()) {
+                articleRelatedMapper.deleteBatchIds(removedIdList);
+            }
+            save(relatedList);
+        });
+    }
+
+    /**
+     * 从文章卡片读取文章的分类和标签，只包含公开文章
+     *
+     * @param articleIdList 文章id列表，为空时读取全部
+     * @return 文章id -> 文章特征
+     */
+    private Map<Integer, Feature> loadFeature(Collection<Integer> articleIdList) {
+        if (Objects.nonNull(articleIdList) && articleIdList.isEmpty()) {
+            return new HashMap<>();
+        }
+        return articleCardMapper.selectArticleNameList(articleIdList).stream()
+                .collect(Collectors.toMap(ArticleHomeResp::getId, Feature::new, (a, b) -> a, LinkedHashMap::new));
+    }
+
+    /**
+     * 查询与文章有相同分类或标签的公开文章
+     */
+    private List<Integer> selectCandidateId(Collection<Feature> featureCollection) {
+        Set<Integer> categoryIdSet = new HashSet<>();
+        Set<Integer> tagIdSet = new HashSet<>();
+        for (Feature feature : featureCollection) {
+            categoryIdSet.add(feature.categoryId);
+            Arrays.stream(feature.tagIds).forEach(tagIdSet::add);
+        }
+        return articleRelatedMapper.selectCandidateId(categoryIdSet, tagIdSet);
+    }
+
+    private boolean isCandidate(Feature feature, Feature candidate) {
+        return !feature.id.equals(candidate.id) && (Objects.equals(feature.categoryId, candidate.categoryId)
+                || countCommon(feature.tagIds, candidate.tagIds) > 0);
+    }
+
+    /**
+     * 计算候选文章的相似度，取得分最高的若干篇
+     */
+    private List<Neighbor> rank(Feature feature, Collection<Feature> candidateCollection) {
+        return top(candidateCollection.stream()
+                .filter(candidate -> !feature.id.equals(candidate.id))
+                .map(candidate -> new Neighbor(candidate.id, score(feature, candidate)))
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * 按相似度降序取前若干篇，相似度相同时新文章在前
+     */
+    private List<Neighbor> top(List<Neighbor> neighborList) {
+        return neighborList.stream()
+                .filter(neighbor -> neighbor.score >= articleRelatedProperties.getMinScore())
+                .sorted(Comparator.comparingDouble((Neighbor neighbor) -> neighbor.score).reversed()
+                        .thenComparing(neighbor -> neighbor.id, Comparator.reverseOrder()))
+                .limit(articleRelatedProperties.getSize())
+                .collect(Collectors.toList());
+    }
+
+    private double score(Feature feature, Feature candidate) {
+        double score = 0;
+        if (Objects.equals(feature.categoryId, candidate.categoryId)) {
+            score += articleRelatedProperties.getCategoryWeight();
+        }
+        int common = countCommon(feature.tagIds, candidate.tagIds);
+        if (common > 0) {
+            score += articleRelatedProperties.getTagWeight() * common
+                    / (feature.tagIds.length + candidate.tagIds.length - common);
+        }
+        if (isContentEnabled()) {
+            score += articleRelatedProperties.getContentWeight() * cosine(feature.termVector, candidate.termVector);
+        }
+        return round(score);
+    }
+
+    /**
+     * 两个升序数组的相同元素个数
+     */
+    private static int countCommon(int[] a, int[] b) {
+        int count = 0;
+        for (int i = 0, j = 0; i < a.length && j < b.length; ) {
+            if (a[i] == b[j]) {
+                count++;
+                i++;
+                j++;
+            } else if (a[i] < b[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 归一化词向量的余弦相似度
+     */
+    private static double cosine(Map<String, Double> a, Map<String, Double> b) {
+        if (a.size() > b.size()) {
+            return cosine(b, a);
+        }
+        double product = 0;
+        for (Map.Entry<String, Double> entry : a.entrySet()) {
+            Double weight = b.get(entry.getKey());
+            if (Objects.nonNull(weight)) {
+                product += entry.getValue() * weight;
+            }
+        }
+        return product;
+    }
+
+    /**
+     * 全量计算词向量
+     *
+     * @return 出现在多篇文章中的词的文档频率，供增量计算使用
+     */
+    private Map<String, Integer> buildTermVector(Map<Integer, Feature> featureMap) {
+        int candidateSize = articleRelatedProperties.getTermSize() * TERM_CANDIDATE_FACTOR;
+        Map<String, Integer> dfMap = new HashMap<>();
+        Map<Integer, Map<String, Integer>> countMap = new HashMap<>(featureMap.size());
+        List<Integer> articleIdList = new ArrayList<>(featureMap.keySet());
+        int pageSize = articleRelatedProperties.getPageSize();
+        for (int i = 0; i < articleIdList.size(); i += pageSize) {
+            for (Article article : selectContent(articleIdList.subList(i, Math.min(i + pageSize, articleIdList.size())))) {
+                Map<String, Integer> termCountMap = countTerm(article.getArticleContent());
+                termCountMap.keySet().forEach(term -> dfMap.merge(term, 1, Integer::sum));
+                countMap.put(article.getId(), limit(termCountMap, candidateSize));
+            }
+        }
+        int docCount = featureMap.size();
+        countMap.forEach((articleId, termCountMap) -> featureMap.get(articleId).termVector =
+                weigh(termCountMap, term -> dfMap.getOrDefault(term, 1), docCount));
+        return dfMap.entrySet().stream()
+                .filter(entry -> entry.getValue() > 1)
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+    }
+
+    private void saveTermDf(Map<String, Integer> dfMap, int docCount) {
+        redisService.deleteObject(RedisConstant.ARTICLE_TERM_DF);
+        if (!dfMap.isEmpty()) {
+            redisService.setHashAll(RedisConstant.ARTICLE_TERM_DF, dfMap);
+        }
+        redisService.setObject(RedisConstant.ARTICLE_TERM_DOC_COUNT, docCount);
+    }
+
+    /**
+     * 按上次全量重建的文档频率计算变更文章的词向量，未统计的词按只出现在本文中处理
+     */
+    private void computeTermVector(Collection<Feature> featureCollection) {
+        if (featureCollection.isEmpty()) {
+            return;
+        }
+        int candidateSize = articleRelatedProperties.getTermSize() * TERM_CANDIDATE_FACTOR;
+        int docCount = Optional.ofNullable(redisService.<Integer>getObject(RedisConstant.ARTICLE_TERM_DOC_COUNT)).orElse(1);
+        Map<Integer, Feature> featureMap = featureCollection.stream()
+                .collect(Collectors.toMap(feature -> feature.id, feature -> feature));
+        for (Article article : selectContent(featureMap.keySet())) {
+            Map<String, Integer> termCountMap = limit(countTerm(article.getArticleContent()), candidateSize);
+            List<String> termList = new ArrayList<>(termCountMap.keySet());
+            List<Integer> dfList = termList.isEmpty() ? Collections.emptyList()
+                    : redisService.getHashMulti(RedisConstant.ARTICLE_TERM_DF, termList);
+            Map<String, Integer> dfMap = new HashMap<>(termList.size());
+            for (int i = 0; i < dfList.size(); i++) {
+                if (Objects.nonNull(dfList.get(i))) {
+                    dfMap.put(termList.get(i), dfList.get(i));
+                }
+            }
+            featureMap.get(article.getId()).termVector =
+                    weigh(termCountMap, term -> dfMap.getOrDefault(term, 1), docCount);
+        }
+    }
+
+    private List<Article> selectContent(Collection<Integer> articleIdList) {
+        return articleMapper.selectList(new LambdaQueryWrapper<Article>()
+                .select(Article::getId, Article::getArticleContent)
+                .in(Article::getId, articleIdList));
+    }
+
+    /**
+     * 统计正文中的词频，英文按单词，中文按相邻两个字，忽略图片、链接地址和 HTML 标签
+     */
+    private static Map<String, Integer> countTerm(String content) {
+        Map<String, Integer> termCountMap = new HashMap<>();
+        if (StringUtils.isBlank(content)) {
+            return termCountMap;
+        }
+        String text = IMAGE_PATTERN.matcher(content).replaceAll(" ");
+        text = LINK_PATTERN.matcher(text).replaceAll("$1");
+        text = URL_PATTERN.matcher(text).replaceAll(" ").toLowerCase();
+        Matcher matcher = TERM_PATTERN.matcher(text);
+        while (matcher.find()) {
+            String word = matcher.group();
+            if (word.charAt(0) < 128) {
+                if (word.length() <= MAX_WORD_LENGTH && !STOP_WORD_SET.contains(word)) {
+                    termCountMap.merge(word, 1, Integer::sum);
+                }
+                continue;
+            }
+            for (int i = 0; i + 2 <= word.length(); i++) {
+                termCountMap.merge(word.substring(i, i + 2), 1, Integer::sum);
+            }
+        }
+        return termCountMap;
+    }
+
+    /**
+     * 按词频保留前若干个词
+     */
+    private static Map<String, Integer> limit(Map<String, Integer> termCountMap, int size) {
+        return termCountMap.entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(size)
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (a, b) -> a, LinkedHashMap::new));
+    }
+
+    /**
+     * 计算 TF-IDF，保留权重最高的若干个词并归一化
+     */
+    private Map<String, Double> weigh(Map<String, Integer> termCountMap, ToIntFunction<String> dfFunction, int docCount) {
+        List<Map.Entry<String, Double>> entryList = termCountMap.entrySet().stream()
+                .map(entry -> Map.entry(entry.getKey(), (1 + Math.log(entry.getValue()))
+                        * (Math.log((docCount + 1D) / (dfFunction.applyAsInt(entry.getKey()) + 1)) + 1)))
+                .sorted(Map.Entry.<String, Double>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(articleRelatedProperties.getTermSize())
+                .collect(Collectors.toList());
+        double norm = Math.sqrt(entryList.stream().mapToDouble(entry -> entry.getValue() * entry.getValue()).sum());
+        Map<String, Double> termVector = new LinkedHashMap<>(entryList.size());
+        entryList.forEach(entry -> termVector.put(entry.getKey(), round(entry.getValue() / norm)));
+        return termVector;
+    }
+
+    private Map<String, Double> parseTermVector(ArticleRelated related) {
+        if (Objects.isNull(related) || StringUtils.isBlank(related.getTermVector())) {
+            return Collections.emptyMap();
+        }
+        return JSON.parseObject(related.getTermVector(), new TypeReference<Map<String, Double>>() {
+        });
+    }
+
+    private static List<Neighbor> parseNeighbor(ArticleRelated related) {
+        List<Integer> idList = JSON.parseArray(related.getRelatedList(), Integer.class);
+        List<Double> scoreList = JSON.parseArray(related.getScoreList(), Double.class);
+        List<Neighbor> neighborList = new ArrayList<>(idList.size());
+        for (int i = 0; i < idList.size(); i++) {
+            neighborList.add(new Neighbor(idList.get(i), scoreList.get(i)));
+        }
+        return neighborList;
+    }
+
+    private ArticleRelated toArticleRelated(Feature feature, List<Neighbor> neighborList) {
+        return ArticleRelated.builder()
+                .articleId(feature.id)
+                .relatedList(JSON.toJSONString(neighborList.stream().map(neighbor -> neighbor.id).collect(Collectors.toList())))
+                .scoreList(JSON.toJSONString(neighborList.stream().map(neighbor -> neighbor.score).collect(Collectors.toList())))
+                .termVector(isContentEnabled() ? JSON.toJSONString(feature.termVector) : null)
+                .updateTime(LocalDateTime.now(ZoneId.of(SHANGHAI.getZone())))
+                .build();
+    }
+
+    private void save(List<ArticleRelated> relatedList) {
+        for (int i = 0; i < relatedList.size(); i += BATCH_SIZE) {
+            articleRelatedMapper.insertOrUpdateBatch(relatedList.subList(i, Math.min(i + BATCH_SIZE, relatedList.size())));
+        }
+    }
+
+    private boolean isContentEnabled() {
+        return articleRelatedProperties.getContentWeight() > 0;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 10000) / 10000D;
+    }
+
+    /**
+     * 全量重建使用的候选文章倒排表，每个列表按文章id降序
+     */
+    private final class CandidateIndex {
+
+        private final Map<Integer, List<Feature>> categoryMap = new HashMap<>();
+
+        private final Map<Integer, List<Feature>> tagMap = new HashMap<>();
+
+        private final Map<String, List<Feature>> termMap = new HashMap<>();
+
+        private CandidateIndex(Collection<Feature> featureCollection) {
+            for (Feature feature : featureCollection) {
+                categoryMap.computeIfAbsent(feature.categoryId, key -> new ArrayList<>()).add(feature);
+                for (int tagId : feature.tagIds) {
+                    tagMap.computeIfAbsent(tagId, key -> new ArrayList<>()).add(feature);
+                }
+                for (String term : feature.termVector.keySet()) {
+                    termMap.computeIfAbsent(term, key -> new ArrayList<>()).add(feature);
+                }
+            }
+            Comparator<Feature> comparator = Comparator.comparing((Feature feature) -> feature.id).reversed();
+            categoryMap.values().forEach(list -> list.sort(comparator));
+            tagMap.values().forEach(list -> list.sort(comparator));
+            termMap.values().forEach(list -> list.sort(comparator));
+        }
+
+        private Collection<Feature> listCandidate(Feature feature) {
+            Map<Integer, Feature> candidateMap = new HashMap<>();
+            List<Feature> categoryList = categoryMap.getOrDefault(feature.categoryId, Collections.emptyList());
+            // 同分类中没有相同标签和词的文章得分都只有分类权重，按新文章在前的规则只需最新的几篇
+            categoryList.stream()
+                    .limit(articleRelatedProperties.getSize() + 1L)
+                    .forEach(candidate -> candidateMap.put(candidate.id, candidate));
+            for (int tagId : feature.tagIds) {
+                tagMap.get(tagId).stream()
+                        .limit(MAX_POSTING_SIZE)
+                        .forEach(candidate -> candidateMap.put(candidate.id, candidate));
+            }
+            // 有相同标签的已全部加入，有相同词的只需补充同分类的
+            for (String term : feature.termVector.keySet()) {
+                termMap.get(term).stream()
+                        .filter(candidate -> Objects.equals(feature.categoryId, candidate.categoryId))
+                        .limit(MAX_POSTING_SIZE)
+                        .forEach(candidate -> candidateMap.put(candidate.id, candidate));
+            }
+            return candidateMap.values();
+        }
+    }
+
+    /**
+     * 文章特征
+     */
+    private static final class Feature {
+
+        private final Integer id;
+
+        private final Integer categoryId;
+
+        /**
+         * 升序排列的标签id
+         */
+        private final int[] tagIds;
+
+        /**
+         * 归一化的正文词向量
+         */
+        private Map<String, Double> termVector = Collections.emptyMap();
+
+        private Feature(ArticleHomeResp article) {
+            this.id = article.getId();
+            this.categoryId = Objects.nonNull(article.getCategory()) ? article.getCategory().getId() : null;
+            this.tagIds = Optional.ofNullable(article.getTagVOList()).orElse(Collections.emptyList()).stream()
+                    .map(TagOptionResp::getId)
+                    .mapToInt(Integer::intValue)
+                    .sorted()
+                    .distinct()
+                    .toArray();
+        }
+    }
+
+    /**
+     * 相关文章及相似度
+     */
+    private static final class Neighbor {
+
+        private final Integer id;
+
+        private final double score;
+
+        private Neighbor(Integer id, double score) {
+            this.id = id;
+            this.score = score;
+        }
+    }
+
+}
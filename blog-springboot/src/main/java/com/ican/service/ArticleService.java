@@ -6,12 +6,19 @@ import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.toolkit.CollectionUtils;
 import com.baomidou.mybatisplus.core.toolkit.StringUtils;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.ican.cache.ArticleTrendingCache;
+import com.ican.cache.CacheInvalidationBus;
+import com.ican.cache.ReferenceListCache;
+import com.ican.cache.SearchSuggestIndex;
+import com.ican.constant.CacheConstant;
 import com.ican.constant.CommonConstant;
 import com.ican.constant.RedisConstant;
 import com.ican.entity.*;
+import com.ican.enums.ArticleEventTypeEnum;
 import com.ican.enums.ArticleStatusEnum;
 import com.ican.enums.FilePathEnum;
 import com.ican.mapper.*;
+import com.ican.model.dto.PageCursorDTO;
 import com.ican.model.vo.*;
 import com.ican.model.vo.query.ArticleQuery;
 import com.ican.model.vo.query.PageQuery;
@@ -23,17 +30,21 @@ import com.ican.model.vo.response.*;
 import com.ican.strategy.context.SearchStrategyContext;
 import com.ican.strategy.context.UploadStrategyContext;
 import com.ican.utils.BeanCopyUtils;
+import com.ican.utils.PageUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
+import javax.annotation.PostConstruct;
+
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 
@@ -46,6 +57,16 @@ import java.util.stream.Collectors;
 @Service
 public class ArticleService extends ServiceImpl<ArticleMapper, Article> {
 
+    /**
+     * 搜索建议条数
+     */
+    private static final int SUGGEST_SIZE = 10;
+
+    /**
+     * 推荐文章列表缓存key
+     */
+    private static final String RECOMMEND_LIST = "article_recommend_list";
+
     @Autowired
     private CategoryMapper categoryMapper;
 
@@ -73,6 +94,47 @@ public class ArticleService extends ServiceImpl<ArticleMapper, Article> {
     @Autowired
     private BlogFileService blogFileService;
 
+    @Autowired
+    private SiteConfigService siteConfigService;
+
+    @Autowired
+    private ArticleCountService articleCountService;
+
+    @Autowired
+    private ArticleCardService articleCardService;
+
+    @Autowired
+    private ArticleCardMapper articleCardMapper;
+
+    @Autowired
+    private ArticleEventService articleEventService;
+
+    @Autowired
+    private ArticleRelatedService articleRelatedService;
+
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @Autowired
+    private SearchSuggestIndex searchSuggestIndex;
+
+    @Autowired
+    private ArticleTrendingCache articleTrendingCache;
+
+    @Autowired
+    private ReferenceListCache referenceListCache;
+
+    @PostConstruct
+    public void init() {
+        // 文章缓存失效
+        articleEventService.subscribe("cache", eventList -> cacheInvalidationBus.publish(CacheConstant.ARTICLE,
+                ArticleEventService.listArticleId(eventList).stream()
+                        .map(String::valueOf)
+                        .collect(Collectors.toList())));
+        // 文章分页总数
+        articleEventService.subscribe("counter", eventList -> redisService.deleteObject(RedisConstant.PAGE_TOTAL + "article"));
+    }
+
     /**
      * 查看后台文章列表
      * 先从数据库查询文章基本信息，再从 Redis ZSet/Hash 中补充浏览量和点赞量
@@ -113,7 +175,7 @@ public class ArticleService extends ServiceImpl<ArticleMapper, Article> {
         Integer categoryId = saveArticleCategory(article);
         Article newArticle = BeanCopyUtils.copyBean(article, Article.class);
         if (StringUtils.isBlank(newArticle.getArticleCover())) {
-            SiteConfig siteConfig = redisService.getObject(RedisConstant.SITE_SETTING);
+            SiteConfig siteConfig = siteConfigService.getSiteConfig();
             newArticle.setArticleCover(siteConfig.getArticleCover());
         }
         newArticle.setCategoryId(categoryId);
@@ -121,18 +183,34 @@ public class ArticleService extends ServiceImpl<ArticleMapper, Article> {
         baseMapper.insert(newArticle);
         // 保存文章标签
         saveArticleTag(article, newArticle.getId());
+        // 生成文章卡片
+        articleCardService.refresh(Collections.singletonList(newArticle.getId()));
+        // 更新文章数量
+        articleCountService.after(articleCountService.before(Collections.emptyList()),
+                Collections.singletonList(newArticle.getId()));
+        // 记录文章变更
+        articleEventService.record(newArticle.getId(), ArticleEventTypeEnum.SAVE);
     }
 
     @Transactional(rollbackFor = Exception.class)
     public void deleteArticle(List<Integer> articleIdList) {
+        ArticleCountService.Delta delta = articleCountService.before(articleIdList);
         // 删除文章标签
         articleTagMapper.delete(new LambdaQueryWrapper<ArticleTag>()
                 .in(ArticleTag::getArticleId, articleIdList));
         // 删除文章
         articleMapper.deleteBatchIds(articleIdList);
+        // 删除文章卡片
+        articleCardMapper.deleteArticleCard(articleIdList);
+        // 更新文章数量
+        articleCountService.after(delta, articleIdList);
+        // 记录文章变更
+        articleEventService.record(articleIdList, ArticleEventTypeEnum.DELETE);
     }
 
+    @Transactional(rollbackFor = Exception.class)
     public void updateArticleDelete(DeleteReq delete) {
+        ArticleCountService.Delta delta = articleCountService.before(delete.getIdList());
         // 批量更新文章删除状态
         List<Article> articleList = delete.getIdList()
                 .stream()
@@ -144,10 +222,17 @@ public class ArticleService extends ServiceImpl<ArticleMapper, Article> {
                         .build())
                 .collect(Collectors.toList());
         this.updateBatchById(articleList);
+        // 重新生成文章卡片
+        articleCardService.refresh(delete.getIdList());
+        // 更新文章数量
+        articleCountService.after(delta, delete.getIdList());
+        // 记录文章变更
+        articleEventService.record(delete.getIdList(), ArticleEventTypeEnum.SAVE);
     }
 
     @Transactional(rollbackFor = Exception.class)
     public void updateArticle(ArticleReq article) {
+        ArticleCountService.Delta delta = articleCountService.before(Collections.singletonList(article.getId()));
         // 保存文章分类
         Integer categoryId = saveArticleCategory(article);
         // 修改文章
@@ -157,6 +242,12 @@ public class ArticleService extends ServiceImpl<ArticleMapper, Article> {
         baseMapper.updateById(newArticle);
         // 保存文章标签
         saveArticleTag(article, newArticle.getId());
+        // 重新生成文章卡片
+        articleCardService.refresh(Collections.singletonList(newArticle.getId()));
+        // 更新文章数量
+        articleCountService.after(delta, Collections.singletonList(newArticle.getId()));
+        // 记录文章变更
+        articleEventService.record(newArticle.getId(), ArticleEventTypeEnum.SAVE);
     }
 
     public ArticleInfoResp editArticle(Integer articleId) {
@@ -174,6 +265,7 @@ public class ArticleService extends ServiceImpl<ArticleMapper, Article> {
         return articleInfoVO;
     }
 
+    @Transactional(rollbackFor = Exception.class)
     public void updateArticleTop(TopReq top) {
         // 修改文章置顶状态
         Article newArticle = Article.builder()
@@ -181,8 +273,13 @@ public class ArticleService extends ServiceImpl<ArticleMapper, Article> {
                 .isTop(top.getIsTop())
                 .build();
         articleMapper.updateById(newArticle);
+        // 重新生成文章卡片
+        articleCardService.refresh(Collections.singletonList(top.getId()));
+        // 记录文章变更
+        articleEventService.record(top.getId(), ArticleEventTypeEnum.SAVE);
     }
 
+    @Transactional(rollbackFor = Exception.class)
     public void updateArticleRecommend(RecommendReq recommend) {
         // 修改文章推荐状态
         Article newArticle = Article.builder()
@@ -190,28 +287,44 @@ public class ArticleService extends ServiceImpl<ArticleMapper, Article> {
                 .isRecommend(recommend.getIsRecommend())
                 .build();
         articleMapper.updateById(newArticle);
+        // 记录文章变更
+        articleEventService.record(recommend.getId(), ArticleEventTypeEnum.SAVE);
     }
 
     public List<ArticleSearchResp> listArticlesBySearch(String keyword) {
         return searchStrategyContext.executeSearchStrategy(keyword);
     }
 
+    /**
+     * 查询搜索建议，匹配文章标题、标签名、分类名的前缀
+     *
+     * @param keyword 关键词
+     * @return 搜索建议
+     */
+    public List<SuggestResp> listSuggestion(String keyword) {
+        return searchSuggestIndex.suggest(keyword, SUGGEST_SIZE);
+    }
+
     public PageResult<ArticleHomeResp> listArticleHomeVO(PageQuery pageQuery) {
+        PageCursorDTO cursor = PageUtils.decodeCursor(pageQuery.getCursor());
         // 查询文章数量
-        Long count = articleMapper.selectCount(new LambdaQueryWrapper<Article>()
-                .eq(Article::getIsDelete, CommonConstant.FALSE)
-                .eq(Article::getStatus, ArticleStatusEnum.PUBLIC.getStatus()));
+        Long count = countPublicArticle(Objects.nonNull(cursor));
         if (count == 0) {
             return new PageResult<>();
         }
         // 查询首页文章
-        List<ArticleHomeResp> articleHomeVOList = articleMapper.selectArticleHomeList(pageQuery);
-        return new PageResult<>(articleHomeVOList, count);
+        List<ArticleHomeResp> articleHomeVOList = articleCardMapper.selectArticleHomeList(pageQuery, cursor);
+        PageResult<ArticleHomeResp> pageResult = new PageResult<>(articleHomeVOList, count);
+        if (articleHomeVOList.size() == pageQuery.getSize()) {
+            ArticleHomeResp last = articleHomeVOList.get(articleHomeVOList.size() - 1);
+            pageResult.setNextCursor(PageUtils.encodeCursor(last.getCreateTime(), last.getId()));
+        }
+        return pageResult;
     }
 
     /**
      * 查看文章详情（前台）
-     * 流程：查询文章信息 → Redis ZSet 浏览量+1 → 查询上下篇文章 → 从 Redis 获取浏览量和点赞量
+     * 流程：查询文章信息 → Redis ZSet 浏览量+1（同时返回浏览量） → 查询上下篇文章 → 从 Redis 获取点赞量
      *
      * @param articleId 文章ID
      * @return 文章详情（含上/下篇、浏览量、点赞量）
@@ -222,17 +335,16 @@ public class ArticleService extends ServiceImpl<ArticleMapper, Article> {
             return null;
         }
         // 浏览量+1
-        redisService.incrZet(RedisConstant.ARTICLE_VIEW_COUNT, articleId, 1D);
+        int viewCount = articleTrendingCache.recordView(articleId);
         // 查询上一篇文章
         ArticlePaginationResp lastArticle = articleMapper.selectLastArticle(articleId);
         // 查询下一篇文章
         ArticlePaginationResp nextArticle = articleMapper.selectNextArticle(articleId);
         article.setLastArticle(lastArticle);
         article.setNextArticle(nextArticle);
-        // 查询浏览量
-        Double viewCount = Optional.ofNullable(redisService.getZsetScore(RedisConstant.ARTICLE_VIEW_COUNT, articleId))
-                .orElse((double) 0);
-        article.setViewCount(viewCount.intValue());
+        // 查询相关文章
+        article.setRelatedArticleList(articleRelatedService.listRelatedArticle(articleId));
+        article.setViewCount(viewCount);
         // 查询点赞量
         Integer likeCount = redisService.getHash(RedisConstant.ARTICLE_LIKE_COUNT, articleId.toString());
         article.setLikeCount(Optional.ofNullable(likeCount).orElse(0));
@@ -240,46 +352,53 @@ public class ArticleService extends ServiceImpl<ArticleMapper, Article> {
     }
 
     public PageResult<ArchiveResp> listArchiveVO(PageQuery pageQuery) {
+        PageCursorDTO cursor = PageUtils.decodeCursor(pageQuery.getCursor());
         // 查询文章数量
-        Long count = articleMapper.selectCount(new LambdaQueryWrapper<Article>()
-                .eq(Article::getIsDelete, CommonConstant.FALSE)
-                .eq(Article::getStatus, ArticleStatusEnum.PUBLIC.getStatus()));
+        Long count = countPublicArticle(Objects.nonNull(cursor));
         if (count == 0) {
             return new PageResult<>();
         }
-        List<ArchiveResp> archiveList = articleMapper.selectArchiveList(pageQuery);
-        return new PageResult<>(archiveList, count);
+        List<ArchiveResp> archiveList = articleMapper.selectArchiveList(pageQuery, cursor);
+        PageResult<ArchiveResp> pageResult = new PageResult<>(archiveList, count);
+        if (archiveList.size() == pageQuery.getSize()) {
+            ArchiveResp last = archiveList.get(archiveList.size() - 1);
+            pageResult.setNextCursor(PageUtils.encodeCursor(last.getCreateTime(), last.getId()));
+        }
+        return pageResult;
+    }
+
+    /**
+     * 统计公开文章数量
+     *
+     * @param approximate 是否允许使用缓存的近似值，游标分页翻页时无需精确总数
+     * @return 文章数量
+     */
+    private Long countPublicArticle(boolean approximate) {
+        String key = RedisConstant.PAGE_TOTAL + "article";
+        if (approximate) {
+            Number count = redisService.getObject(key);
+            if (Objects.nonNull(count)) {
+                return count.longValue();
+            }
+        }
+        Long count = articleMapper.selectCount(new LambdaQueryWrapper<Article>()
+                .eq(Article::getIsDelete, CommonConstant.FALSE)
+                .eq(Article::getStatus, ArticleStatusEnum.PUBLIC.getStatus()));
+        redisService.setObject(key, count, RedisConstant.PAGE_TOTAL_EXPIRE, TimeUnit.SECONDS);
+        return count;
     }
 
     public List<ArticleRecommendResp> listArticleRecommendVO() {
-        return articleMapper.selectArticleRecommend();
+        return referenceListCache.get(RECOMMEND_LIST, articleMapper::selectArticleRecommend, CacheConstant.ARTICLE);
     }
 
     /**
-     * 查询文章浏览量排行（前5篇）
+     * 查询热门文章排行，按时间衰减的浏览量排序
      *
      * @return 文章排行列表
      */
     public List<ArticleRankResp> listArticleRankVO() {
-        Map<Object, Double> articleMap = redisService.zReverseRangeWithScore(RedisConstant.ARTICLE_VIEW_COUNT, 0, 4);
-        if (CollectionUtils.isEmpty(articleMap)) {
-            return new ArrayList<>();
-        }
-        List<Integer> articleIdList = new ArrayList<>(articleMap.size());
-        articleMap.forEach((key, value) -> articleIdList.add((Integer) key));
-        List<Article> articleList = articleMapper.selectList(new LambdaQueryWrapper<Article>()
-                .select(Article::getId, Article::getArticleTitle)
-                .in(Article::getId, articleIdList)
-                .eq(Article::getIsDelete, CommonConstant.FALSE)
-                .eq(Article::getStatus, ArticleStatusEnum.PUBLIC.getStatus()));
-        return articleList.stream()
-                .map(article -> ArticleRankResp.builder()
-                        .id(article.getId())
-                        .articleTitle(article.getArticleTitle())
-                        .viewCount(articleMap.get(article.getId()).intValue())
-                        .build())
-                .sorted(Comparator.comparingInt(ArticleRankResp::getViewCount).reversed())
-                .collect(Collectors.toList());
+        return articleTrendingCache.listTrending();
     }
 
     public String saveArticleImages(MultipartFile file) {
@@ -307,6 +426,8 @@ public class ArticleService extends ServiceImpl<ArticleMapper, Article> {
                     .build();
             // 保存分类
             categoryMapper.insert(category);
+            articleCountService.incrCategoryCount(1);
+            cacheInvalidationBus.publishAll(CacheConstant.CATEGORY);
         }
         return category.getId();
     }
@@ -348,6 +469,8 @@ public class ArticleService extends ServiceImpl<ArticleMapper, Article> {
                     .collect(Collectors.toList());
             // 批量保存新标签
             tagService.saveBatch(newTagList);
+            articleCountService.incrTagCount(newTagList.size());
+            cacheInvalidationBus.publishAll(CacheConstant.TAG);
             // 获取新标签id列表
             List<Integer> newTagIdList = newTagList.stream()
                     .map(Tag::getId)
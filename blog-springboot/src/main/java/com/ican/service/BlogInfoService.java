@@ -4,14 +4,14 @@ import cn.hutool.core.date.DateTime;
 import cn.hutool.core.date.DateUtil;
 import cn.hutool.extra.servlet.ServletUtil;
 import com.ican.utils.IpUtils;
-import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
-import com.baomidou.mybatisplus.core.toolkit.CollectionUtils;
-import com.ican.constant.CommonConstant;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ican.cache.ArticleTrendingCache;
+import com.ican.cache.BlogInfoCache;
 import com.ican.constant.RedisConstant;
-import com.ican.entity.Article;
 import com.ican.entity.SiteConfig;
-import com.ican.enums.ArticleStatusEnum;
 import com.ican.mapper.*;
+import com.ican.model.vo.Result;
 import com.ican.model.vo.response.ArticleStatisticsResp;
 import com.ican.model.vo.response.BlogBackInfoResp;
 import com.ican.model.vo.response.BlogInfoResp;
@@ -21,31 +21,56 @@ import com.ican.model.vo.response.TagOptionResp;
 import com.ican.model.vo.response.UserViewResp;
 import com.ican.utils.IpUtils;
 import com.ican.utils.UserAgentUtils;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 import org.springframework.util.DigestUtils;
 
 import javax.servlet.http.HttpServletRequest;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
 
 /**
  * 博客服务
  *
  * @author Aric
  **/
+@Slf4j
 @Service
 public class BlogInfoService {
 
+    /**
+     * 后台信息Redis读取超时时间（毫秒）
+     */
+    private static final long CACHE_TIMEOUT = 1000;
+
+    /**
+     * 后台信息计数、列表查询超时时间（毫秒）
+     */
+    private static final long QUERY_TIMEOUT = 2000;
+
+    /**
+     * 后台信息聚合统计超时时间（毫秒），与 SQL 语句超时一致
+     */
+    private static final long AGGREGATE_TIMEOUT = 5000;
+
     @Autowired
     private ArticleMapper articleMapper;
 
     @Autowired
-    private CategoryMapper categoryMapper;
+    private CategoryService categoryService;
 
     @Autowired
     private TagMapper tagMapper;
 
+    @Autowired
+    private ArticleCountService articleCountService;
+
     @Autowired
     private RedisService redisService;
 
@@ -64,6 +89,18 @@ public class BlogInfoService {
     @Autowired
     private HttpServletRequest request;
 
+    @Autowired
+    private BlogInfoCache blogInfoCache;
+
+    @Autowired
+    private ArticleTrendingCache articleTrendingCache;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ThreadPoolTaskExecutor threadPoolTaskExecutor;
+
     /**
      * 上报访客信息（UV 去重统计）
      * 将 IP+浏览器+OS 拼接后 MD5 哈希生成唯一标识，存入 Redis Set 判断今日是否已访问过
@@ -89,19 +126,46 @@ public class BlogInfoService {
     }
 
     /**
-     * 获取博客前台信息
-     * 聚合文章数、分类数、标签数、访问量和站点配置
+     * 获取博客前台信息（快照）
      *
      * @return 博客前台信息
      */
     public BlogInfoResp getBlogInfo() {
+        return getBlogInfoSnapshot().getBlogInfo();
+    }
+
+    /**
+     * 获取博客前台信息响应体（快照中预先序列化的 JSON）
+     *
+     * @return 响应体
+     */
+    public byte[] getBlogInfoJson() {
+        return getBlogInfoSnapshot().getJson();
+    }
+
+    private BlogInfoCache.Snapshot getBlogInfoSnapshot() {
+        return blogInfoCache.get(this::loadBlogInfo, blogInfo -> {
+            try {
+                return objectMapper.writeValueAsBytes(Result.success(blogInfo));
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("博客信息序列化失败", e);
+            }
+        });
+    }
+
+    /**
+     * 加载博客前台信息
+     * 聚合文章数、分类数、标签数、访问量和站点配置
+     *
+     * @return 博客前台信息
+     */
+    private BlogInfoResp loadBlogInfo() {
         // 文章数量
-        Long articleCount = articleMapper.selectCount(new LambdaQueryWrapper<Article>()
-                .eq(Article::getStatus, ArticleStatusEnum.PUBLIC.getStatus()).eq(Article::getIsDelete, CommonConstant.FALSE));
+        Long articleCount = articleCountService.getPublicArticleCount();
         // 分类数量
-        Long categoryCount = categoryMapper.selectCount(null);
+        Long categoryCount = articleCountService.getCategoryCount();
         // 标签数量
-        Long tagCount = tagMapper.selectCount(null);
+        Long tagCount = articleCountService.getTagCount();
         // 博客访问量
         Integer count = redisService.getObject(RedisConstant.BLOG_VIEW_COUNT);
         String viewCount = Optional.ofNullable(count).orElse(0).toString();
@@ -119,76 +183,108 @@ public class BlogInfoService {
     /**
      * 获取后台仪表盘信息
      * 聚合访问量、留言量、用户量、文章量、分类/标签分布、
-     * 近7日访问趋势、文章统计数据、Redis 浏览量 Top5 排行
+     * 近7日访问趋势、文章统计数据、热门文章排行
      *
      * @return 后台仪表盘数据
      */
     public BlogBackInfoResp getBlogBackInfo() {
+        // 各项数据互不依赖，并行查询，每项有各自的超时时间，超时或失败时返回默认值
+        long startTime = System.currentTimeMillis();
         // 访问量
-        Integer viewCount = redisService.getObject(RedisConstant.BLOG_VIEW_COUNT);
+        CompletableFuture<Integer> viewCountFuture = supplyAsync(() -> redisService.getObject(RedisConstant.BLOG_VIEW_COUNT));
         // 留言量
-        Long messageCount = messageMapper.selectCount(null);
+        CompletableFuture<Long> messageCountFuture = supplyAsync(() -> messageMapper.selectCount(null));
         // 用户量
-        Long userCount = userMapper.selectCount(null);
+        CompletableFuture<Long> userCountFuture = supplyAsync(() -> userMapper.selectCount(null));
         // 文章量
-        Long articleCount = articleMapper.selectCount(new LambdaQueryWrapper<Article>()
-                .eq(Article::getIsDelete, CommonConstant.FALSE));
+        CompletableFuture<Long> articleCountFuture = supplyAsync(articleCountService::getArticleCount);
         // 分类数据
-        List<CategoryResp> categoryRespList = categoryMapper.selectCategoryVO();
+        CompletableFuture<List<CategoryResp>> categoryFuture = supplyAsync(categoryService::listCategoryVO);
         // 标签数据
-        List<TagOptionResp> tagVOList = tagMapper.selectTagOptionList();
+        CompletableFuture<List<TagOptionResp>> tagFuture = supplyAsync(tagMapper::selectTagOptionList);
         // 查询用户浏览
-        DateTime startTime = DateUtil.beginOfDay(DateUtil.offsetDay(new Date(), -7));
-        DateTime endTime = DateUtil.endOfDay(new Date());
-        List<UserViewResp> userViewRespList = visitLogMapper.selectUserViewList(startTime, endTime);
+        CompletableFuture<List<UserViewResp>> userViewFuture = supplyAsync(this::listUserView);
         // 文章统计
-        List<ArticleStatisticsResp> articleStatisticsList = articleMapper.selectArticleStatistics();
-        // 查询redis访问量前五的文章
-        Map<Object, Double> articleMap = redisService.zReverseRangeWithScore(RedisConstant.ARTICLE_VIEW_COUNT, 0, 4);
-        BlogBackInfoResp blogBackInfoResp = BlogBackInfoResp.builder()
-                .articleStatisticsList(articleStatisticsList)
-                .tagVOList(tagVOList)
-                .viewCount(viewCount)
-                .messageCount(messageCount)
-                .userCount(userCount)
-                .articleCount(articleCount)
-                .categoryVOList(categoryRespList)
-                .userViewVOList(userViewRespList)
+        CompletableFuture<List<ArticleStatisticsResp>> articleStatisticsFuture = supplyAsync(this::listArticleStatistics);
+        // 热门文章排行，直接取内存缓存
+        List<ArticleRankResp> articleRankList = articleTrendingCache.listTrending();
+        return BlogBackInfoResp.builder()
+                .articleStatisticsList(join(articleStatisticsFuture, "文章统计", startTime + AGGREGATE_TIMEOUT, new ArrayList<>()))
+                .tagVOList(join(tagFuture, "标签数据", startTime + QUERY_TIMEOUT, new ArrayList<>()))
+                .viewCount(join(viewCountFuture, "访问量", startTime + CACHE_TIMEOUT, 0))
+                .messageCount(join(messageCountFuture, "留言量", startTime + QUERY_TIMEOUT, 0L))
+                .userCount(join(userCountFuture, "用户量", startTime + QUERY_TIMEOUT, 0L))
+                .articleCount(join(articleCountFuture, "文章量", startTime + CACHE_TIMEOUT, 0L))
+                .categoryVOList(join(categoryFuture, "分类数据", startTime + QUERY_TIMEOUT, new ArrayList<>()))
+                .userViewVOList(join(userViewFuture, "用户浏览", startTime + AGGREGATE_TIMEOUT, new ArrayList<>()))
+                .articleRankVOList(articleRankList)
                 .build();
-        if (CollectionUtils.isNotEmpty(articleMap)) {
-            // 查询文章排行
-            List<ArticleRankResp> articleRankRespList = listArticleRank(articleMap);
-            blogBackInfoResp.setArticleRankVOList(articleRankRespList);
+    }
+
+    /**
+     * 查询近7日用户浏览，短时间缓存
+     *
+     * @return 用户浏览
+     */
+    private List<UserViewResp> listUserView() {
+        List<UserViewResp> userViewRespList = redisService.getObject(RedisConstant.DASHBOARD_USER_VIEW);
+        if (Objects.nonNull(userViewRespList)) {
+            return userViewRespList;
         }
-        return blogBackInfoResp;
+        DateTime startTime = DateUtil.beginOfDay(DateUtil.offsetDay(new Date(), -7));
+        DateTime endTime = DateUtil.endOfDay(new Date());
+        userViewRespList = visitLogMapper.selectUserViewList(startTime, endTime);
+        redisService.setObject(RedisConstant.DASHBOARD_USER_VIEW, userViewRespList,
+                RedisConstant.DASHBOARD_USER_VIEW_EXPIRE, TimeUnit.SECONDS);
+        return userViewRespList;
     }
 
-    public String getAbout() {
-        SiteConfig siteConfig = redisService.getObject(RedisConstant.SITE_SETTING);
-        return siteConfig.getAboutMe();
+    /**
+     * 查询文章统计，短时间缓存
+     *
+     * @return 文章统计
+     */
+    private List<ArticleStatisticsResp> listArticleStatistics() {
+        List<ArticleStatisticsResp> articleStatisticsList = redisService.getObject(RedisConstant.DASHBOARD_ARTICLE_STATISTICS);
+        if (Objects.nonNull(articleStatisticsList)) {
+            return articleStatisticsList;
+        }
+        articleStatisticsList = articleMapper.selectArticleStatistics();
+        redisService.setObject(RedisConstant.DASHBOARD_ARTICLE_STATISTICS, articleStatisticsList,
+                RedisConstant.DASHBOARD_ARTICLE_STATISTICS_EXPIRE, TimeUnit.SECONDS);
+        return articleStatisticsList;
+    }
+
+    private <T> CompletableFuture<T> supplyAsync(Supplier<T> supplier) {
+        return CompletableFuture.supplyAsync(supplier, threadPoolTaskExecutor);
     }
 
     /**
-     * 查询文章排行
+     * 等待查询结果，超过截止时间、查询失败或结果为空时该项返回默认值，不影响其他数据
      *
-     * @param articleMap 文章浏览量信息
-     * @return {@link List< ArticleRankResp >} 文章排行
+     * @param future       查询任务
+     * @param section      数据项名称
+     * @param deadline     截止时间
+     * @param defaultValue 默认值
+     * @return 查询结果
      */
-    private List<ArticleRankResp> listArticleRank(Map<Object, Double> articleMap) {
-        // 提取文章id
-        List<Integer> articleIdList = new ArrayList<>(articleMap.size());
-        articleMap.forEach((key, value) -> articleIdList.add((Integer) key));
-        // 查询文章信息
-        List<Article> articleList = articleMapper.selectList(new LambdaQueryWrapper<Article>()
-                .select(Article::getId, Article::getArticleTitle)
-                .in(Article::getId, articleIdList));
-        return articleList.stream()
-                .map(article -> ArticleRankResp.builder()
-                        .id(article.getId())
-                        .articleTitle(article.getArticleTitle())
-                        .viewCount(articleMap.get(article.getId()).intValue())
-                        .build())
-                .sorted(Comparator.comparingInt(ArticleRankResp::getViewCount).reversed())
-                .collect(Collectors.toList());
+    private <T> T join(CompletableFuture<T> future, String section, long deadline, T defaultValue) {
+        try {
+            T value = future.get(Math.max(deadline - System.currentTimeMillis(), 0), TimeUnit.MILLISECONDS);
+            return Objects.nonNull(value) ? value : defaultValue;
+        } catch (TimeoutException e) {
+            // 中断无法终止已发出的 JDBC 查询，聚合统计由 SQL 语句超时兜底，这里不取消任务
+            log.warn("后台信息[{}]查询超时", section);
+        } catch (ExecutionException e) {
+            log.error("后台信息[{}]查询失败", section, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return defaultValue;
+    }
+
+    public String getAbout() {
+        SiteConfig siteConfig = siteConfigService.getSiteConfig();
+        return siteConfig.getAboutMe();
     }
 }
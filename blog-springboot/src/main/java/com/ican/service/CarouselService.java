@@ -1,6 +1,9 @@
 package com.ican.service;
 
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.ican.cache.CacheInvalidationBus;
+import com.ican.cache.ReferenceListCache;
+import com.ican.constant.CacheConstant;
 import com.ican.entity.Carousel;
 import com.ican.enums.FilePathEnum;
 import com.ican.mapper.CarouselMapper;
@@ -27,6 +30,11 @@ import java.util.List;
 @Service
 public class CarouselService extends ServiceImpl<CarouselMapper, Carousel> {
 
+    /**
+     * 前台轮播图列表缓存key
+     */
+    private static final String CAROUSEL_LIST = "carousel_list";
+
     @Autowired
     private CarouselMapper carouselMapper;
 
@@ -36,6 +44,12 @@ public class CarouselService extends ServiceImpl<CarouselMapper, Carousel> {
     @Autowired
     private BlogFileService blogFileService;
 
+    @Autowired
+    private ReferenceListCache referenceListCache;
+
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+
     public PageResult<CarouselBackResp> getCarouselVOList(CarouselQuery carouselQuery) {
         // 查询轮播图数量
         Long count = carouselMapper.selectCount(null);
@@ -50,16 +64,23 @@ public class CarouselService extends ServiceImpl<CarouselMapper, Carousel> {
     public void addCarousel(CarouselReqVo carouselReqVo) {
         Carousel carousel = BeanCopyUtils.copyBean(carouselReqVo, Carousel.class);
         carouselMapper.insert(carousel);
+        cacheInvalidationBus.publishAll(CacheConstant.CAROUSEL);
+    }
+
+    public void deleteCarousel(List<Integer> carouselIdList) {
+        carouselMapper.deleteBatchIds(carouselIdList);
+        cacheInvalidationBus.publishAll(CacheConstant.CAROUSEL);
     }
 
     public void updateCarousel(CarouselReqVo carouselReqVo) {
         Assert.notNull(carouselReqVo.getId(), "id is null");
         Carousel carousel = BeanCopyUtils.copyBean(carouselReqVo, Carousel.class);
         carouselMapper.updateById(carousel);
+        cacheInvalidationBus.publishAll(CacheConstant.CAROUSEL);
     }
 
     public List<CarouselResp> getCarouselList() {
-        return carouselMapper.selectCarouselList();
+        return referenceListCache.get(CAROUSEL_LIST, carouselMapper::selectCarouselList, CacheConstant.CAROUSEL);
     }
 
     public String uploadCarousel(MultipartFile file) {
@@ -75,6 +96,7 @@ public class CarouselService extends ServiceImpl<CarouselMapper, Carousel> {
                 .status(carouselStatusReq.getStatus())
                 .build();
         carouselMapper.updateById(carousel);
+        cacheInvalidationBus.publishAll(CacheConstant.CAROUSEL);
     }
 
 }
@@ -7,8 +7,12 @@ import cn.hutool.core.lang.tree.TreeNodeConfig;
 import cn.hutool.core.lang.tree.TreeUtil;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.ican.cache.CacheInvalidationBus;
+import com.ican.cache.ReferenceListCache;
+import com.ican.constant.CacheConstant;
 import com.ican.entity.Article;
 import com.ican.entity.Category;
+import com.ican.mapper.ArticleCardMapper;
 import com.ican.mapper.ArticleMapper;
 import com.ican.mapper.CategoryMapper;
 import com.ican.model.vo.response.*;
@@ -19,6 +23,7 @@ import com.ican.model.vo.request.CategoryReq;
 import com.ican.utils.BeanCopyUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
 import java.util.*;
@@ -33,12 +38,35 @@ import java.util.stream.Collectors;
 @Service
 public class CategoryService extends ServiceImpl<CategoryMapper, Category> {
 
+    /**
+     * 分类选项缓存key
+     */
+    private static final String CATEGORY_OPTION_LIST = "category_option_list";
+
     @Autowired
     private CategoryMapper categoryMapper;
 
     @Autowired
     private ArticleMapper articleMapper;
 
+    @Autowired
+    private ArticleCardMapper articleCardMapper;
+
+    @Autowired
+    private ArticleCardService articleCardService;
+
+    @Autowired
+    private ArticleEventService articleEventService;
+
+    @Autowired
+    private ArticleCountService articleCountService;
+
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @Autowired
+    private ReferenceListCache referenceListCache;
+
     private static final int maxDeep = 3;
 
     public PageResult<CategoryBackResp> listCategoryBackVO(CategoryQuery categoryQuery) {
@@ -84,6 +112,8 @@ public class CategoryService extends ServiceImpl<CategoryMapper, Category> {
                 .orderNum(category.getOrderNum() != null ? category.getOrderNum() : 0)
                 .build();
         baseMapper.insert(newCategory);
+        articleCountService.incrCategoryCount(1);
+        cacheInvalidationBus.publishAll(CacheConstant.CATEGORY);
     }
 
     public void deleteCategory(List<Integer> categoryIdList) {
@@ -92,9 +122,12 @@ public class CategoryService extends ServiceImpl<CategoryMapper, Category> {
                 .in(Article::getCategoryId, categoryIdList));
         Assert.isFalse(count > 0, "删除失败，分类下存在文章");
         // 批量删除分类
-        categoryMapper.deleteBatchIds(categoryIdList);
+        int deleteCount = categoryMapper.deleteBatchIds(categoryIdList);
+        articleCountService.incrCategoryCount(-deleteCount);
+        cacheInvalidationBus.publishAll(CacheConstant.CATEGORY);
     }
 
+    @Transactional(rollbackFor = Exception.class)
     public void updateCategory(CategoryReq category) {
         // 分类是否存在
         Category existCategory = categoryMapper.selectOne(new LambdaQueryWrapper<Category>()
@@ -109,22 +142,41 @@ public class CategoryService extends ServiceImpl<CategoryMapper, Category> {
                 .orderNum(category.getOrderNum())
                 .build();
         baseMapper.updateById(newCategory);
+        // 同步文章卡片中的分类名
+        articleCardService.updateCategoryName(category.getId(), category.getCategoryName());
+        // 记录分类下文章的变更
+        articleEventService.recordByCategory(category.getId());
+        cacheInvalidationBus.publishAll(CacheConstant.CATEGORY);
     }
 
     public List<CategoryOptionResp> listCategoryOption() {
-        // 查询分类（按排序值升序）
-        List<Category> categoryList = categoryMapper.selectList(new LambdaQueryWrapper<Category>()
-                .orderByAsc(Category::getOrderNum)
-                .orderByDesc(Category::getId));
-        return BeanCopyUtils.copyBeanList(categoryList, CategoryOptionResp.class);
+        return referenceListCache.get(CATEGORY_OPTION_LIST, () -> {
+            // 查询分类（按排序值升序）
+            List<Category> categoryList = categoryMapper.selectList(new LambdaQueryWrapper<Category>()
+                    .orderByAsc(Category::getOrderNum)
+                    .orderByDesc(Category::getId));
+            return BeanCopyUtils.copyBeanList(categoryList, CategoryOptionResp.class);
+        }, CacheConstant.CATEGORY);
     }
 
     public List<CategoryResp> listCategoryVO() {
-        return categoryMapper.selectCategoryVO();
+        List<Category> categoryList = categoryMapper.selectList(new LambdaQueryWrapper<Category>()
+                .select(Category::getId, Category::getCategoryName, Category::getOrderNum)
+                .orderByAsc(Category::getOrderNum)
+                .orderByAsc(Category::getId));
+        // 分类文章数量
+        Map<Integer, Integer> articleCountMap = articleCountService.getCategoryArticleCountMap();
+        return categoryList.stream()
+                .map(category -> {
+                    CategoryResp categoryResp = BeanCopyUtils.copyBean(category, CategoryResp.class);
+                    categoryResp.setArticleCount(articleCountMap.getOrDefault(category.getId(), 0));
+                    return categoryResp;
+                })
+                .collect(Collectors.toList());
     }
 
     public ArticleConditionList listArticleCategory(ArticleConditionQuery articleConditionQuery) {
-        List<ArticleConditionResp> articleConditionList = articleMapper.selectArticleListByCondition(articleConditionQuery);
+        List<ArticleConditionResp> articleConditionList = articleCardMapper.selectArticleListByCondition(articleConditionQuery);
         String name = categoryMapper.selectOne(new LambdaQueryWrapper<Category>()
                         .select(Category::getCategoryName)
                         .eq(Category::getId, articleConditionQuery.getCategoryId()))
@@ -6,15 +6,15 @@ import cn.hutool.core.lang.Assert;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.toolkit.CollectionUtils;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.ican.cache.CommentReferenceCache;
 import com.ican.constant.CommonConstant;
 import com.ican.constant.RedisConstant;
 import com.ican.entity.*;
 import com.ican.enums.CommentTypeEnum;
-import com.ican.mapper.ArticleMapper;
 import com.ican.mapper.CommentMapper;
-import com.ican.mapper.TalkMapper;
-import com.ican.mapper.UserMapper;
+import com.ican.model.dto.CommentReferenceDTO;
 import com.ican.model.dto.MailDTO;
+import com.ican.model.dto.PageCursorDTO;
 import com.ican.model.vo.PageResult;
 import com.ican.model.vo.query.CommentQuery;
 import com.ican.model.vo.request.CheckReq;
@@ -24,13 +24,15 @@ import com.ican.utils.HTMLUtils;
 import com.ican.utils.PageUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
 import java.util.*;
-import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * 评论服务
@@ -43,17 +45,11 @@ public class CommentService extends ServiceImpl<CommentMapper, Comment> {
     @Value("${blog.url}")
     private String websiteUrl;
 
-    @Autowired
-    private ArticleMapper articleMapper;
-
-    @Autowired
-    private TalkMapper talkMapper;
-
     @Autowired
     private CommentMapper commentMapper;
 
     @Autowired
-    private UserMapper userMapper;
+    private CommentReferenceCache commentReferenceCache;
 
     @Autowired
     private SiteConfigService siteConfigService;
@@ -65,10 +61,7 @@ public class CommentService extends ServiceImpl<CommentMapper, Comment> {
 //    private RabbitTemplate rabbitTemplate;
 
     @Autowired
-    private EmailService emailService;
-
-    @Autowired
-    private ThreadPoolTaskExecutor threadPoolTaskExecutor;
+    private MailOutboxService mailOutboxService;
 
     public PageResult<CommentBackResp> listCommentBackVO(CommentQuery commentQuery) {
         // 查询后台评论数量
@@ -83,19 +76,21 @@ public class CommentService extends ServiceImpl<CommentMapper, Comment> {
 
     /**
      * 添加评论
-     * 流程：校验评论合法性 → HTML 标签过滤(防XSS) → 根据站点配置决定是否需要审核
-     * → 保存评论 → 如果开启邮件通知则异步发送邮件提醒被回复用户
+     * 流程：批量校验评论合法性 → HTML 标签过滤(防XSS) → 根据站点配置决定是否需要审核
+     * → 保存评论 → 如果开启邮件通知则在同一事务中写入邮件发件箱，提交后由发件箱发送
      *
      * @param comment 评论请求体
      */
+    @Transactional(rollbackFor = Exception.class)
     public void addComment(CommentReq comment) {
-        verifyComment(comment);
+        Integer fromUid = StpUtil.getLoginIdAsInt();
+        Map<String, CommentReferenceDTO> referenceMap = verifyComment(comment, fromUid);
         SiteConfig siteConfig = siteConfigService.getSiteConfig();
         Integer commentCheck = siteConfig.getCommentCheck();
         // 过滤标签
         comment.setCommentContent(HTMLUtils.filter(comment.getCommentContent()));
         Comment newComment = Comment.builder()
-                .fromUid(StpUtil.getLoginIdAsInt())
+                .fromUid(fromUid)
                 .toUid(comment.getToUid())
                 .typeId(comment.getTypeId())
                 .commentType(comment.getCommentType())
@@ -106,14 +101,9 @@ public class CommentService extends ServiceImpl<CommentMapper, Comment> {
                 .build();
         // 保存评论
         commentMapper.insert(newComment);
-        // 查询评论用户昵称
-        String fromNickname = userMapper.selectOne(new LambdaQueryWrapper<User>()
-                        .select(User::getNickname)
-                        .eq(User::getId, StpUtil.getLoginIdAsInt()))
-                .getNickname();
-        // 通知用户
+        // 通知用户，邮件与评论一起提交，模板渲染和SMTP发送由发件箱完成
         if (siteConfig.getEmailNotice().equals(CommonConstant.TRUE)) {
-            CompletableFuture.runAsync(() -> notice(newComment, fromNickname), threadPoolTaskExecutor);
+            notice(newComment, referenceMap);
         }
     }
 
@@ -130,105 +120,158 @@ public class CommentService extends ServiceImpl<CommentMapper, Comment> {
     /**
      * 查看评论列表（前台，二级结构）
      * 查询流程：
-     * 1. 统计并分页查询已审核的父评论（parent_id IS NULL）
-     * 2. 批量查询每个父评论下的前3条子评论（避免 N+1 查询）
-     * 3. 从 Redis Hash 中获取评论点赞数
-     * 4. 统计每个父评论的子评论总数
-     * 5. 组装父评论 + 子评论列表 + 回复数 + 点赞数
+     * 1. 统计已审核的父评论（parent_id IS NULL）数量
+     * 2. 一条语句分页查询父评论，同时带出每条父评论的前3条子评论和子评论总数
+     * 3. 只为本页出现的评论从 Redis Hash 中读取点赞数
      *
      * @param commentQuery 查询条件（评论类型、关联ID等）
      * @return 二级评论分页结果
      */
     public PageResult<CommentResp> listCommentVO(CommentQuery commentQuery) {
-        Long count = commentMapper.selectCount(new LambdaQueryWrapper<Comment>()
-                .eq(Objects.nonNull(commentQuery.getTypeId()), Comment::getTypeId, commentQuery.getTypeId())
-                .eq(Comment::getCommentType, commentQuery.getCommentType())
-                .eq(Comment::getIsCheck, CommonConstant.TRUE)
-                .isNull(Comment::getParentId));
+        PageCursorDTO cursor = PageUtils.decodeCursor(commentQuery.getCursor());
+        Long count = countParentComment(commentQuery, Objects.nonNull(cursor));
         if (count == 0) {
             return new PageResult<>();
         }
-        // 分页查询父评论
-        List<CommentResp> commentRespList = commentMapper.selectParentComment(commentQuery);
+        // 查询父评论及子评论预览
+        List<CommentResp> commentRespList = commentMapper.selectCommentThread(commentQuery, cursor);
         if (CollectionUtils.isEmpty(commentRespList)) {
             return new PageResult<>();
         }
+        // 本页评论id
+        List<Integer> commentIdList = new ArrayList<>();
+        commentRespList.forEach(item -> {
+            commentIdList.add(item.getId());
+            item.getReplyVOList().forEach(reply -> commentIdList.add(reply.getId()));
+        });
         // 评论点赞
-        Map<String, Integer> likeCountMap = redisService.getHashAll(RedisConstant.COMMENT_LIKE_COUNT);
-        // 父评论id集合
-        List<Integer> parentCommentIdList = commentRespList.stream().map(CommentResp::getId).collect(Collectors.toList());
-        // 分组查询每组父评论下的子评论前三条
-        List<ReplyResp> replyRespList = commentMapper.selectReplyByParentIdList(parentCommentIdList);
-        // 封装子评论点赞量
-        replyRespList.forEach(item -> item.setLikeCount(Optional.ofNullable(likeCountMap.get(item.getId().toString())).orElse(0)));
-        // 根据父评论id生成对应子评论的Map
-        Map<Integer, List<ReplyResp>> replyMap = replyRespList.stream().collect(Collectors.groupingBy(ReplyResp::getParentId));
-        // 父评论的回复数量
-        List<ReplyCountResp> replyCountList = commentMapper.selectReplyCountByParentId(parentCommentIdList);
-        // 转换Map
-        Map<Integer, Integer> replyCountMap = replyCountList.stream().collect(Collectors.toMap(ReplyCountResp::getCommentId, ReplyCountResp::getReplyCount));
-        // 封装评论数据
+        Map<Integer, Integer> likeCountMap = getLikeCountMap(commentIdList);
         commentRespList.forEach(item -> {
-            item.setLikeCount(Optional.ofNullable(likeCountMap.get(item.getId().toString())).orElse(0));
-            item.setReplyVOList(replyMap.get(item.getId()));
-            item.setReplyCount(Optional.ofNullable(replyCountMap.get(item.getId())).orElse(0));
+            item.setLikeCount(likeCountMap.getOrDefault(item.getId(), 0));
+            item.getReplyVOList().forEach(reply -> reply.setLikeCount(likeCountMap.getOrDefault(reply.getId(), 0)));
         });
-        return new PageResult<>(commentRespList, count);
+        PageResult<CommentResp> pageResult = new PageResult<>(commentRespList, count);
+        if (commentRespList.size() == commentQuery.getSize()) {
+            pageResult.setNextCursor(PageUtils.encodeCursor(commentRespList.get(commentRespList.size() - 1).getId()));
+        }
+        return pageResult;
+    }
+
+    /**
+     * 统计父评论数量
+     *
+     * @param commentQuery 条件
+     * @param approximate  是否允许使用缓存的近似值，游标分页翻页时无需精确总数
+     * @return 父评论数量
+     */
+    private Long countParentComment(CommentQuery commentQuery, boolean approximate) {
+        String key = RedisConstant.PAGE_TOTAL + "comment:" + commentQuery.getCommentType() + ":" + commentQuery.getTypeId();
+        if (approximate) {
+            Number count = redisService.getObject(key);
+            if (Objects.nonNull(count)) {
+                return count.longValue();
+            }
+        }
+        Long count = commentMapper.selectCount(new LambdaQueryWrapper<Comment>()
+                .eq(Objects.nonNull(commentQuery.getTypeId()), Comment::getTypeId, commentQuery.getTypeId())
+                .eq(Comment::getCommentType, commentQuery.getCommentType())
+                .eq(Comment::getIsCheck, CommonConstant.TRUE)
+                .isNull(Comment::getParentId));
+        redisService.setObject(key, count, RedisConstant.PAGE_TOTAL_EXPIRE, TimeUnit.SECONDS);
+        return count;
     }
 
     public List<ReplyResp> listReply(Integer commentId) {
         // 分页查询子评论
         List<ReplyResp> replyRespList = commentMapper.selectReplyByParentId(PageUtils.getLimit(), PageUtils.getSize(), commentId);
-        // 子评论点赞Map
-        Map<String, Integer> likeCountMap = redisService.getHashAll(RedisConstant.COMMENT_LIKE_COUNT);
-        replyRespList.forEach(item -> item.setLikeCount(likeCountMap.get(item.getId().toString())));
+        // 子评论点赞
+        Map<Integer, Integer> likeCountMap = getLikeCountMap(replyRespList.stream()
+                .map(ReplyResp::getId)
+                .collect(Collectors.toList()));
+        replyRespList.forEach(item -> item.setLikeCount(likeCountMap.get(item.getId())));
         return replyRespList;
     }
 
+    /**
+     * 批量读取评论点赞数
+     *
+     * @param commentIdList 评论id列表
+     * @return 评论id -> 点赞数，没有点赞的评论不在其中
+     */
+    private Map<Integer, Integer> getLikeCountMap(List<Integer> commentIdList) {
+        if (commentIdList.isEmpty()) {
+            return new HashMap<>(1);
+        }
+        List<Integer> likeCountList = redisService.getHashMulti(RedisConstant.COMMENT_LIKE_COUNT, commentIdList.stream()
+                .map(String::valueOf)
+                .collect(Collectors.toList()));
+        Map<Integer, Integer> likeCountMap = new HashMap<>(commentIdList.size());
+        for (int i = 0; i < commentIdList.size(); i++) {
+            if (Objects.nonNull(likeCountList.get(i))) {
+                likeCountMap.put(commentIdList.get(i), likeCountList.get(i));
+            }
+        }
+        return likeCountMap;
+    }
+
     /**
      * 校验评论参数的合法性
      * 检查项：评论关联的文章/说说是否存在；子评论的父评论/回复评论/被回复用户是否存在且一致
+     * 文章、说说、用户通过 {@link CommentReferenceCache} 批量获取，父评论和回复评论一次查询
+     *
+     * @param comment 评论
+     * @param fromUid 评论用户id
+     * @return 评论引用数据，供通知使用
      */
-    private void verifyComment(CommentReq comment) {
-        if (comment.getCommentType().equals(CommentTypeEnum.ARTICLE.getType())) {
-            Article article = articleMapper.selectOne(new LambdaQueryWrapper<Article>().select(Article::getId).eq(Article::getId, comment.getTypeId()));
-            Assert.notNull(article, "文章不存在");
+    private Map<String, CommentReferenceDTO> verifyComment(CommentReq comment, Integer fromUid) {
+        boolean isArticle = comment.getCommentType().equals(CommentTypeEnum.ARTICLE.getType());
+        boolean isTalk = comment.getCommentType().equals(CommentTypeEnum.TALK.getType());
+        Map<String, CommentReferenceDTO> referenceMap = commentReferenceCache.load(
+                isArticle ? comment.getTypeId() : null,
+                isTalk ? comment.getTypeId() : null,
+                Arrays.asList(fromUid, comment.getToUid()));
+        if (isArticle) {
+            Assert.notNull(referenceMap.get(CommentReferenceCache.key(CommentReferenceCache.ARTICLE, comment.getTypeId())), "文章不存在");
         }
-        if (comment.getCommentType().equals(CommentTypeEnum.TALK.getType())) {
-            Talk talk = talkMapper.selectOne(new LambdaQueryWrapper<Talk>().select(Talk::getId).eq(Talk::getId, comment.getTypeId()));
-            Assert.notNull(talk, "说说不存在");
+        if (isTalk) {
+            Assert.notNull(referenceMap.get(CommentReferenceCache.key(CommentReferenceCache.TALK, comment.getTypeId())), "说说不存在");
         }
         // 评论为子评论，判断回复的评论和用户是否存在
         Optional.ofNullable(comment.getParentId()).ifPresent(parentId -> {
+            // 一次查询父评论和回复的评论
+            Map<Integer, Comment> commentMap = commentMapper.selectList(new LambdaQueryWrapper<Comment>()
+                            .select(Comment::getId, Comment::getParentId, Comment::getFromUid, Comment::getCommentType)
+                            .in(Comment::getId, Stream.of(parentId, comment.getReplyId())
+                                    .filter(Objects::nonNull)
+                                    .collect(Collectors.toSet())))
+                    .stream()
+                    .collect(Collectors.toMap(Comment::getId, Function.identity()));
             // 判断父评论是否存在
-            Comment parentComment = commentMapper.selectOne(new LambdaQueryWrapper<Comment>().select(Comment::getId, Comment::getParentId, Comment::getCommentType).eq(Comment::getId, parentId));
+            Comment parentComment = commentMap.get(parentId);
             Assert.notNull(parentComment, "父评论不存在");
             Assert.isNull(parentComment.getParentId(), "当前评论为子评论，不能作为父评论");
             Assert.isTrue(comment.getCommentType().equals(parentComment.getCommentType()), "只能以同类型的评论作为父评论");
             // 判断回复的评论和用户是否存在
-            Comment replyComment = commentMapper.selectOne(new LambdaQueryWrapper<Comment>().select(Comment::getId, Comment::getParentId, Comment::getFromUid, Comment::getCommentType).eq(Comment::getId, comment.getReplyId()));
-            User toUser = userMapper.selectOne(new LambdaQueryWrapper<User>().select(User::getId).eq(User::getId, comment.getToUid()));
+            Comment replyComment = commentMap.get(comment.getReplyId());
             Assert.notNull(replyComment, "回复的评论不存在");
-            Assert.notNull(toUser, "回复的用户不存在");
+            Assert.notNull(referenceMap.get(CommentReferenceCache.key(CommentReferenceCache.USER, comment.getToUid())), "回复的用户不存在");
             Assert.isTrue(comment.getCommentType().equals(replyComment.getCommentType()), "只能回复同类型的下的评论");
+            // 只能回复当前父评论及其子评论
             if (Objects.nonNull(replyComment.getParentId())) {
                 Assert.isTrue(replyComment.getParentId().equals(parentId), "提交的评论parentId与当前回复评论parentId不一致");
             }
             Assert.isTrue(replyComment.getFromUid().equals(comment.getToUid()), "提交的评论toUid与当前回复评论fromUid不一致");
-            // 只能回复当前父评论及其子评论
-            List<Integer> replyIdList = commentMapper.selectCommentIdByParentId(parentId);
-            replyIdList.add(parentId);
-            Assert.isTrue(replyIdList.contains(parentId), "当前父评论下不存在该子评论");
         });
+        return referenceMap;
     }
 
     /**
-     * 评论通知
+     * 评论通知，在异步线程中执行
      *
      * @param comment      评论
-     * @param fromNickname 评论用户昵称
+     * @param referenceMap 校验时获取的评论引用数据
      */
-    private void notice(Comment comment, String fromNickname) {
+    private void notice(Comment comment, Map<String, CommentReferenceDTO> referenceMap) {
         // 自己回复自己不用提醒
         if (comment.getFromUid().equals(comment.getToUid())) {
             return;
@@ -237,21 +280,17 @@ public class CommentService extends ServiceImpl<CommentMapper, Comment> {
         String title = "友链";
         // 回复用户id
         Integer toUid = CommonConstant.BLOGGER_ID;
+        CommentReferenceDTO article = referenceMap.get(CommentReferenceCache.key(CommentReferenceCache.ARTICLE, comment.getTypeId()));
+        CommentReferenceDTO talk = referenceMap.get(CommentReferenceCache.key(CommentReferenceCache.TALK, comment.getTypeId()));
         // 父评论
         if (Objects.isNull(comment.getParentId())) {
             if (comment.getCommentType().equals(CommentTypeEnum.ARTICLE.getType())) {
-                Article article = articleMapper.selectOne(new LambdaQueryWrapper<Article>()
-                        .select(Article::getArticleTitle, Article::getUserId)
-                        .eq(Article::getId, comment.getTypeId()));
-                title = article.getArticleTitle();
+                title = article.getName();
                 toUid = article.getUserId();
             }
             if (comment.getCommentType().equals(CommentTypeEnum.TALK.getType())) {
                 title = "说说";
-                toUid = talkMapper.selectOne(new LambdaQueryWrapper<Talk>()
-                                .select(Talk::getUserId)
-                                .eq(Talk::getId, comment.getTypeId()))
-                        .getUserId();
+                toUid = talk.getUserId();
             }
             // 自己评论自己的作品，不用提醒
             if (comment.getFromUid().equals(toUid)) {
@@ -261,21 +300,20 @@ public class CommentService extends ServiceImpl<CommentMapper, Comment> {
             // 子评论
             toUid = comment.getToUid();
             if (comment.getCommentType().equals(CommentTypeEnum.ARTICLE.getType())) {
-                title = articleMapper.selectOne(new LambdaQueryWrapper<Article>()
-                                .select(Article::getArticleTitle)
-                                .eq(Article::getId, comment.getTypeId()))
-                        .getArticleTitle();
+                title = article.getName();
             }
             if (comment.getCommentType().equals(CommentTypeEnum.TALK.getType())) {
                 title = "说说";
             }
         }
-        // 查询回复用户邮箱、昵称、id
-        User toUser = userMapper.selectOne(new LambdaQueryWrapper<User>()
-                .select(User::getEmail, User::getNickname)
-                .eq(User::getId, toUid));
+        // 查询回复用户邮箱、昵称，文章、说说作者不在校验数据中时再查询
+        CommentReferenceDTO toUser = referenceMap.get(CommentReferenceCache.key(CommentReferenceCache.USER, toUid));
+        if (Objects.isNull(toUser)) {
+            toUser = commentReferenceCache.getUser(toUid);
+        }
+        String fromNickname = referenceMap.get(CommentReferenceCache.key(CommentReferenceCache.USER, comment.getFromUid())).getName();
         // 邮箱不为空
-        if (StringUtils.hasText(toUser.getEmail())) {
+        if (Objects.nonNull(toUser) && StringUtils.hasText(toUser.getEmail())) {
             sendEmail(comment, toUser, title, fromNickname);
         }
     }
@@ -288,7 +326,7 @@ public class CommentService extends ServiceImpl<CommentMapper, Comment> {
      * @param title        标题
      * @param fromNickname 评论用户昵称
      */
-    private void sendEmail(Comment comment, User toUser, String title, String fromNickname) {
+    private void sendEmail(Comment comment, CommentReferenceDTO toUser, String title, String fromNickname) {
         MailDTO mailDTO = new MailDTO();
         if (comment.getIsCheck().equals(CommonConstant.TRUE)) {
             Map<String, Object> contentMap = new HashMap<>(7);
@@ -322,7 +360,7 @@ public class CommentService extends ServiceImpl<CommentMapper, Comment> {
                 String createTime = DateUtil.formatLocalDateTime(comment.getCreateTime());
                 contentMap.put("time", createTime);
                 // 被回复用户昵称
-                contentMap.put("toUser", toUser.getNickname());
+                contentMap.put("toUser", toUser.getName());
                 // 评论用户昵称
                 contentMap.put("fromUser", fromNickname);
                 // 被回复的评论内容
@@ -333,18 +371,19 @@ public class CommentService extends ServiceImpl<CommentMapper, Comment> {
             }
             // 发送HTML邮件
 //            rabbitTemplate.convertAndSend(MqConstant.EMAIL_EXCHANGE, MqConstant.EMAIL_HTML_KEY, mailDTO);
-            CompletableFuture.runAsync(() -> emailService.sendHtmlMail(mailDTO), threadPoolTaskExecutor);
+            mailOutboxService.enqueue(mailDTO);
         } else {
             // 审核提醒
-            String adminEmail = userMapper.selectOne(new LambdaQueryWrapper<User>()
-                    .select(User::getEmail)
-                    .eq(User::getId, CommonConstant.BLOGGER_ID)).getEmail();
-            mailDTO.setToEmail(adminEmail);
+            CommentReferenceDTO admin = commentReferenceCache.getUser(CommonConstant.BLOGGER_ID);
+            if (Objects.isNull(admin) || !StringUtils.hasText(admin.getEmail())) {
+                return;
+            }
+            mailDTO.setToEmail(admin.getEmail());
             mailDTO.setSubject(CommonConstant.CHECK_REMIND);
             mailDTO.setContent("您收到一条新的回复，请前往后台管理页面审核");
             // 发送普通邮件
 //            rabbitTemplate.convertAndSend(MqConstant.EMAIL_EXCHANGE, MqConstant.EMAIL_SIMPLE_KEY, mailDTO);
-            CompletableFuture.runAsync(() -> emailService.sendSimpleMail(mailDTO), threadPoolTaskExecutor);
+            mailOutboxService.enqueue(mailDTO);
         }
     }
 }
@@ -0,0 +1,283 @@
+package com.ican.service;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.VersionType;
+import co.elastic.clients.elasticsearch.core.BulkResponse;
+import co.elastic.clients.elasticsearch.core.bulk.BulkOperation;
+import co.elastic.clients.elasticsearch.core.bulk.BulkResponseItem;
+import com.alibaba.fastjson2.JSON;
+import com.ican.config.properties.ElasticsearchProperties;
+import com.ican.exception.ServiceException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * es批量写入
+ *
+ * <p>所有索引写入先进入有界队列，再合并为 _bulk 请求发送：</p>
+ * <ol>
+ *     <li>攒满 {@link ElasticsearchProperties#getBulkSize()} 条或 {@link ElasticsearchProperties#getBulkBytes()} 字节立即发送，
+ *     否则最多等待 {@link ElasticsearchProperties#getFlushInterval()} 毫秒</li>
+ *     <li>队列满时写入方阻塞等待，超时后抛出异常，由调用方稍后重试</li>
+ *     <li>批量响应中 429 和 5xx 的操作按指数退避单独重试，其他错误直接失败</li>
+ *     <li>文档使用外部版本号（external_gte）写入，版本冲突说明已有更新的文档，默认视为成功</li>
+ * </ol>
+ * <p>发送和重试在独立的 elasticsearchExecutorService 中执行，写入方在共享线程池中阻塞等待时不会占满发送所需的线程。</p>
+ *
+ * @author Aric
+ */
+@Slf4j
+@Service
+@ConditionalOnExpression("'${search.mode:}'.equals('elasticsearch') && '${elasticsearch.enabled:false}'.equals('true')")
+public class ElasticsearchBulkIndexer {
+
+    /**
+     * 版本冲突
+     */
+    private static final int CONFLICT = 409;
+
+    /**
+     * 请求过多
+     */
+    private static final int TOO_MANY_REQUESTS = 429;
+
+    /**
+     * 服务端错误
+     */
+    private static final int SERVER_ERROR = 500;
+
+    private BlockingQueue<Request> queue;
+
+    /**
+     * 队列中操作的估算字节数
+     */
+    private final AtomicLong queuedBytes = new AtomicLong();
+
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    @Autowired
+    private ElasticsearchClient elasticsearchClient;
+
+    @Autowired
+    private ElasticsearchProperties elasticsearchProperties;
+
+    @Resource
+    private ScheduledExecutorService elasticsearchExecutorService;
+
+    @PostConstruct
+    public void init() {
+        queue = new LinkedBlockingQueue<>(elasticsearchProperties.getQueueCapacity());
+        long flushInterval = elasticsearchProperties.getFlushInterval();
+        elasticsearchExecutorService.scheduleWithFixedDelay(this::flush, flushInterval, flushInterval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        flush();
+    }
+
+    /**
+     * 写入文档，版本冲突视为成功
+     *
+     * @param index    索引或别名
+     * @param id       文档id
+     * @param document 文档
+     * @param version  外部版本号
+     * @return 写入结果
+     */
+    public CompletableFuture<Void> index(String index, String id, Object document, long version) {
+        return index(index, id, document, version, true);
+    }
+
+    /**
+     * 写入文档
+     *
+     * @param index          索引或别名
+     * @param id             文档id
+     * @param document       文档
+     * @param version        外部版本号
+     * @param ignoreConflict 版本冲突是否视为成功，写入新建的索引时不应有冲突，冲突说明版本号有误
+     * @return 写入结果
+     */
+    public CompletableFuture<Void> index(String index, String id, Object document, long version, boolean ignoreConflict) {
+        BulkOperation operation = BulkOperation.of(bulk -> bulk.index(request -> request
+                .index(index)
+                .id(id)
+                .document(document)
+                .version(version)
+                .versionType(VersionType.ExternalGte)));
+        return enqueue(new Request(operation, JSON.toJSONString(document).length(), ignoreConflict));
+    }
+
+    /**
+     * 删除文档
+     *
+     * @param index   索引或别名
+     * @param id      文档id
+     * @param version 外部版本号
+     * @return 删除结果
+     */
+    public CompletableFuture<Void> delete(String index, String id, long version) {
+        BulkOperation operation = BulkOperation.of(bulk -> bulk.delete(request -> request
+                .index(index)
+                .id(id)
+                .version(version)
+                .versionType(VersionType.ExternalGte)));
+        return enqueue(new Request(operation, id.length(), true));
+    }
+
+    /**
+     * 等待写入完成
+     *
+     * @param futureList 写入结果列表
+     */
+    public void await(List<CompletableFuture<Void>> futureList) {
+        long timeout = elasticsearchProperties.getOfferTimeout() + elasticsearchProperties.getSocketTimeout()
+                + (elasticsearchProperties.getRetryDelay() << elasticsearchProperties.getMaxRetry());
+        try {
+            CompletableFuture.allOf(futureList.toArray(new CompletableFuture[0])).get(timeout, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceException("索引写入被中断");
+        } catch (ExecutionException e) {
+            throw new ServiceException(e.getCause().getMessage());
+        } catch (TimeoutException e) {
+            throw new ServiceException("索引写入超时");
+        }
+    }
+
+    /**
+     * 加入待发送队列，队列满时阻塞等待
+     */
+    private CompletableFuture<Void> enqueue(Request request) {
+        try {
+            if (!queue.offer(request, elasticsearchProperties.getOfferTimeout(), TimeUnit.MILLISECONDS)) {
+                throw new ServiceException("索引写入队列已满");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceException("索引写入被中断");
+        }
+        if (queuedBytes.addAndGet(request.size) >= elasticsearchProperties.getBulkBytes()
+                || queue.size() >= elasticsearchProperties.getBulkSize()) {
+            elasticsearchExecutorService.execute(this::flush);
+        }
+        return request.future;
+    }
+
+    /**
+     * 发送队列中的所有操作，同一时间只有一个线程发送
+     */
+    private void flush() {
+        if (!flushLock.tryLock()) {
+            return;
+        }
+        try {
+            List<Request> batch;
+            while (!(batch = drain()).isEmpty()) {
+                send(batch);
+            }
+        } catch (Exception e) {
+            log.error("es批量写入异常", e);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * 按条数和字节数取出一批操作
+     */
+    private List<Request> drain() {
+        List<Request> batch = new ArrayList<>();
+        long bytes = 0;
+        Request request;
+        while (batch.size() < elasticsearchProperties.getBulkSize()
+                && (batch.isEmpty() || bytes < elasticsearchProperties.getBulkBytes())
+                && Objects.nonNull(request = queue.poll())) {
+            queuedBytes.addAndGet(-request.size);
+            bytes += request.size;
+            batch.add(request);
+        }
+        return batch;
+    }
+
+    private void send(List<Request> batch) {
+        BulkResponse response;
+        try {
+            response = elasticsearchClient.bulk(bulk -> bulk.operations(batch.stream()
+                    .map(request -> request.operation)
+                    .collect(Collectors.toList())));
+        } catch (Exception e) {
+            log.warn("es批量写入失败: {}", e.getMessage());
+            batch.forEach(request -> retryLater(request, e.getMessage()));
+            return;
+        }
+        List<BulkResponseItem> itemList = response.items();
+        for (int i = 0; i < batch.size(); i++) {
+            Request request = batch.get(i);
+            BulkResponseItem item = itemList.get(i);
+            if (Objects.isNull(item.error()) || (item.status() == CONFLICT && request.ignoreConflict)) {
+                request.future.complete(null);
+            } else if (item.status() == TOO_MANY_REQUESTS || item.status() >= SERVER_ERROR) {
+                retryLater(request, item.error().reason());
+            } else {
+                request.future.completeExceptionally(new ServiceException("索引写入失败: " + item.error().reason()));
+            }
+        }
+    }
+
+    /**
+     * 按指数退避重新加入队列
+     */
+    private void retryLater(Request request, String reason) {
+        if (++request.retryCount > elasticsearchProperties.getMaxRetry()) {
+            request.future.completeExceptionally(new ServiceException("索引写入失败: " + reason));
+            return;
+        }
+        long delay = elasticsearchProperties.getRetryDelay() << (request.retryCount - 1);
+        elasticsearchExecutorService.schedule(() -> {
+            // 重试不阻塞调度线程
+            if (queue.offer(request)) {
+                queuedBytes.addAndGet(request.size);
+            } else {
+                request.future.completeExceptionally(new ServiceException("索引写入队列已满"));
+            }
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 待发送操作
+     */
+    private static final class Request {
+
+        private final BulkOperation operation;
+
+        private final long size;
+
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        private final boolean ignoreConflict;
+
+        private int retryCount;
+
+        private Request(BulkOperation operation, long size, boolean ignoreConflict) {
+            this.operation = operation;
+            this.size = size;
+            this.ignoreConflict = ignoreConflict;
+        }
+    }
+
+}
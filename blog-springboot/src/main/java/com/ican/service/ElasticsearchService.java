@@ -1,58 +1,218 @@
-//package com.ican.service;
-//
-//import co.elastic.clients.elasticsearch.ElasticsearchClient;
-//import co.elastic.clients.elasticsearch.core.IndexRequest;
-//import com.ican.constant.ElasticConstant;
-//import com.ican.model.vo.response.ArticleSearchResp;
-//import lombok.extern.slf4j.Slf4j;
-//import org.springframework.beans.factory.annotation.Autowired;
-//import org.springframework.stereotype.Service;
-//
-//import java.io.IOException;
-//
-///**
-// * es文章服务
-// *
-// * @author Aric
-// **/
-//@Slf4j
-//@Service
-//public class ElasticsearchService {
-//
-//    @Autowired
-//    private ElasticsearchClient elasticsearchClient;
-//
-//    public void addArticle(ArticleSearchResp article) {
-//        try {
-//            IndexRequest<ArticleSearchResp> indexRequest = IndexRequest.of(request -> request
-//                    .index(ElasticConstant.ARTICLE_INDEX)
-//                    .id(article.getId().toString())
-//                    .document(article));
-//            elasticsearchClient.index(indexRequest);
-//        } catch (IOException e) {
-//            log.error("ElasticsearchService.addArticle fail, {}", e.getMessage());
-//        }
-//    }
-//
-//    public void updateArticle(ArticleSearchResp article) {
-//        try {
-//            elasticsearchClient.update(request -> request
-//                    .index(ElasticConstant.ARTICLE_INDEX)
-//                    .id(article.getId().toString())
-//                    .doc(article), ArticleSearchResp.class);
-//        } catch (IOException e) {
-//            log.error("ElasticsearchService.updateArticle fail, {}", e.getMessage());
-//        }
-//    }
-//
-//    public void deleteArticle(Integer id) {
-//        try {
-//            elasticsearchClient.delete(
-//                    deleteRequest -> deleteRequest
-//                            .index(ElasticConstant.ARTICLE_INDEX)
-//                            .id(id.toString()));
-//        } catch (IOException e) {
-//            log.error("ElasticsearchService.deleteArticle fail, {}", e.getMessage());
-//        }
-//    }
-//}
\ No newline at end of file
+package com.ican.service;
+
+import cn.hutool.core.date.DatePattern;
+import cn.hutool.core.date.DateUtil;
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch.indices.update_aliases.Action;
+import com.ican.config.properties.ElasticsearchProperties;
+import com.ican.constant.ElasticConstant;
+import com.ican.entity.ArticleEvent;
+import com.ican.exception.ServiceException;
+import com.ican.mapper.ArticleMapper;
+import com.ican.model.vo.response.ArticleSearchResp;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static com.ican.constant.ElasticConstant.*;
+
+/**
+ * es文章服务
+ *
+ * <p>{@link ElasticConstant#ARTICLE_INDEX} 是指向实际索引的别名，所有读写都经过别名：</p>
+ * <ul>
+ *     <li>增量同步：订阅文章变更事件，按数据库中的最新状态批量写入，文档版本号为事件id</li>
+ *     <li>全量重建：先暂停增量同步，新建带时间戳的索引，按文章id分页写入，完成后原子切换别名并删除旧索引，
+ *     再恢复增量同步，暂停期间的事件重放到新索引；重建写入的版本号为增量同步的重放起点，
+ *     重放的事件（包括缺口中晚提交的事件）版本号都更大，会覆盖重建写入的文档</li>
+ * </ul>
+ *
+ * @author Aric
+ **/
+@Slf4j
+@Service
+@ConditionalOnExpression("'${search.mode:}'.equals('elasticsearch') && '${elasticsearch.enabled:false}'.equals('true')")
+public class ElasticsearchService {
+
+    /**
+     * 订阅者名称
+     */
+    private static final String SUBSCRIBER = "search";
+
+    private final ReentrantLock reindexLock = new ReentrantLock();
+
+    @Autowired
+    private ElasticsearchClient elasticsearchClient;
+
+    @Autowired
+    private ElasticsearchBulkIndexer elasticsearchBulkIndexer;
+
+    @Autowired
+    private ElasticsearchProperties elasticsearchProperties;
+
+    @Autowired
+    private ArticleMapper articleMapper;
+
+    @Autowired
+    private ArticleEventService articleEventService;
+
+    @Autowired
+    private ThreadPoolTaskExecutor threadPoolTaskExecutor;
+
+    @PostConstruct
+    public void init() {
+        articleEventService.subscribe(SUBSCRIBER, this::syncArticle);
+        // 别名不存在（首次启用或旧版本的实体索引）时全量重建，重建耗时较长，不占用共享的定时任务线程池
+        threadPoolTaskExecutor.execute(() -> {
+            try {
+                if (!elasticsearchClient.indices().existsAlias(request -> request.name(ARTICLE_INDEX)).value()) {
+                    reindex();
+                }
+            } catch (Exception e) {
+                log.error("文章索引初始化失败", e);
+            }
+        });
+    }
+
+    /**
+     * 按数据库中的最新状态同步文章索引，已物理删除的文章从索引中删除
+     *
+     * @param eventList 文章变更事件
+     */
+    public void syncArticle(List<ArticleEvent> eventList) {
+        // 文章id -> 最新事件id
+        Map<Integer, Integer> versionMap = new LinkedHashMap<>(eventList.size());
+        eventList.forEach(event -> versionMap.put(event.getArticleId(), event.getId()));
+        List<ArticleSearchResp> articleList = articleMapper.selectSearchArticleByIds(new ArrayList<>(versionMap.keySet()));
+        Set<Integer> deleteIdSet = new HashSet<>(versionMap.keySet());
+        articleList.forEach(article -> deleteIdSet.remove(article.getId()));
+        List<CompletableFuture<Void>> futureList = new ArrayList<>(versionMap.size());
+        for (ArticleSearchResp article : articleList) {
+            futureList.add(elasticsearchBulkIndexer.index(ARTICLE_INDEX, article.getId().toString(), article,
+                    versionMap.get(article.getId())));
+        }
+        for (Integer articleId : deleteIdSet) {
+            futureList.add(elasticsearchBulkIndexer.delete(ARTICLE_INDEX, articleId.toString(), versionMap.get(articleId)));
+        }
+        elasticsearchBulkIndexer.await(futureList);
+    }
+
+    /**
+     * 全量重建文章索引，同一节点同时只能有一个重建任务
+     */
+    public void reindex() {
+        if (!reindexLock.tryLock()) {
+            throw new ServiceException("文章索引正在重建");
+        }
+        try {
+            if (!articleEventService.pause(SUBSCRIBER)) {
+                throw new ServiceException("文章索引正在增量同步，请稍后重试");
+            }
+            try {
+                reindex(ARTICLE_INDEX + "_" + DateUtil.format(new Date(), DatePattern.PURE_DATETIME_PATTERN));
+            } finally {
+                articleEventService.resume(SUBSCRIBER);
+            }
+        } finally {
+            reindexLock.unlock();
+        }
+    }
+
+    /**
+     * 在增量同步暂停期间重建到新索引并切换别名
+     *
+     * @param newIndex 新索引
+     */
+    private void reindex(String newIndex) {
+        long startTime = System.currentTimeMillis();
+        try {
+            // 暂停后重放起点不再变化，之后读取的文章不会旧于重放起点，重放的事件版本号都大于重放起点
+            long version = articleEventService.getReplayOffset(SUBSCRIBER);
+            createIndex(newIndex);
+            int total = 0;
+            int lastId = 0;
+            int pageSize = elasticsearchProperties.getReindexPageSize();
+            List<Integer> articleIdList;
+            while (!(articleIdList = articleMapper.selectArticleIdPage(lastId, pageSize)).isEmpty()) {
+                List<CompletableFuture<Void>> futureList = new ArrayList<>(articleIdList.size());
+                for (ArticleSearchResp article : articleMapper.selectSearchArticleByIds(articleIdList)) {
+                    futureList.add(elasticsearchBulkIndexer.index(newIndex, article.getId().toString(), article, version, false));
+                }
+                elasticsearchBulkIndexer.await(futureList);
+                if (!articleEventService.renew(SUBSCRIBER)) {
+                    throw new ServiceException("文章索引重建超时，增量同步已恢复");
+                }
+                total += futureList.size();
+                lastId = articleIdList.get(articleIdList.size() - 1);
+            }
+            elasticsearchClient.indices().putSettings(request -> request
+                    .index(newIndex)
+                    .settings(settings -> settings.refreshInterval(time -> time.time("1s"))));
+            elasticsearchClient.indices().refresh(request -> request.index(newIndex));
+            // 租约到期后其他节点投递的事件只写入旧索引，切换别名会丢失这些更新
+            if (!articleEventService.renew(SUBSCRIBER)) {
+                throw new ServiceException("文章索引重建超时，增量同步已恢复");
+            }
+            switchAlias(newIndex);
+            log.info("文章索引重建完成: {}，{}篇，耗时{}毫秒", newIndex, total, System.currentTimeMillis() - startTime);
+        } catch (Exception e) {
+            log.error("文章索引重建失败: {}", newIndex, e);
+            deleteIndexQuietly(newIndex);
+            throw new ServiceException("文章索引重建失败");
+        }
+    }
+
+    /**
+     * 按 {@link ElasticConstant#ARTICLE_INDEX_DEFINITION} 创建文章索引，写入完成前关闭自动刷新
+     *
+     * @param index 索引名
+     */
+    private void createIndex(String index) throws IOException {
+        try (InputStream definition = new ClassPathResource(ARTICLE_INDEX_DEFINITION).getInputStream()) {
+            elasticsearchClient.indices().create(request -> request.index(index).withJson(definition));
+        }
+        elasticsearchClient.indices().putSettings(request -> request
+                .index(index)
+                .settings(settings -> settings.refreshInterval(time -> time.time("-1"))));
+    }
+
+    /**
+     * 把别名原子切换到新索引，并删除旧索引
+     *
+     * @param newIndex 新索引
+     */
+    private void switchAlias(String newIndex) throws IOException {
+        List<String> oldIndexList = new ArrayList<>();
+        List<Action> actionList = new ArrayList<>();
+        if (elasticsearchClient.indices().existsAlias(request -> request.name(ARTICLE_INDEX)).value()) {
+            oldIndexList.addAll(elasticsearchClient.indices().getAlias(request -> request.name(ARTICLE_INDEX)).result().keySet());
+            oldIndexList.forEach(oldIndex -> actionList.add(Action.of(action -> action
+                    .remove(remove -> remove.index(oldIndex).alias(ARTICLE_INDEX)))));
+        } else if (elasticsearchClient.indices().exists(request -> request.index(ARTICLE_INDEX)).value()) {
+            // 旧版本直接以别名创建的实体索引
+            actionList.add(Action.of(action -> action.removeIndex(remove -> remove.index(ARTICLE_INDEX))));
+        }
+        actionList.add(Action.of(action -> action.add(add -> add.index(newIndex).alias(ARTICLE_INDEX))));
+        elasticsearchClient.indices().updateAliases(request -> request.actions(actionList));
+        oldIndexList.forEach(this::deleteIndexQuietly);
+    }
+
+    private void deleteIndexQuietly(String index) {
+        try {
+            elasticsearchClient.indices().delete(request -> request.index(index));
+        } catch (Exception e) {
+            log.warn("删除文章索引失败: {}，{}", index, e.getMessage());
+        }
+    }
+
+}
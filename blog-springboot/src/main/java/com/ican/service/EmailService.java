@@ -4,15 +4,20 @@ import com.ican.model.dto.MailDTO;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
 import org.thymeleaf.TemplateEngine;
 import org.thymeleaf.context.Context;
 
 import javax.mail.MessagingException;
 import javax.mail.internet.MimeMessage;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
 
 /**
  * 邮件服务
@@ -46,18 +51,73 @@ public class EmailService {
 
     public void sendHtmlMail(MailDTO mailDTO) {
         try {
-            MimeMessage mimeMessage = javaMailSender.createMimeMessage();
-            MimeMessageHelper mimeMessageHelper = new MimeMessageHelper(mimeMessage);
-            Context context = new Context();
-            context.setVariables(mailDTO.getContentMap());
-            String process = templateEngine.process(mailDTO.getTemplate(), context);
-            mimeMessageHelper.setFrom(email);
-            mimeMessageHelper.setTo(mailDTO.getToEmail());
-            mimeMessageHelper.setSubject(mailDTO.getSubject());
-            mimeMessageHelper.setText(process, true);
-            javaMailSender.send(mimeMessage);
+            javaMailSender.send(createMessage(mailDTO));
         } catch (MessagingException e) {
             log.error("sendHtmlMail fail, {}", e.getMessage());
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * 批量发送邮件，同一批邮件共用一个SMTP连接
+     *
+     * @param mailList 邮件列表
+     * @return 发送失败的邮件下标 -> 异常
+     */
+    public Map<Integer, Exception> sendBatch(List<MailDTO> mailList) {
+        Map<Integer, Exception> failMap = new HashMap<>(16);
+        List<MimeMessage> messageList = new ArrayList<>(mailList.size());
+        Map<MimeMessage, Integer> indexMap = new IdentityHashMap<>(mailList.size());
+        for (int i = 0; i < mailList.size(); i++) {
+            try {
+                MimeMessage mimeMessage = createMessage(mailList.get(i));
+                messageList.add(mimeMessage);
+                indexMap.put(mimeMessage, i);
+            } catch (Exception e) {
+                failMap.put(i, e);
+            }
+        }
+        if (messageList.isEmpty()) {
+            return failMap;
+        }
+        try {
+            javaMailSender.send(messageList.toArray(new MimeMessage[0]));
+        } catch (MailSendException e) {
+            if (e.getFailedMessages().isEmpty()) {
+                indexMap.values().forEach(index -> failMap.put(index, e));
+            }
+            e.getFailedMessages().forEach((message, exception) -> {
+                Integer index = indexMap.get(message);
+                if (Objects.nonNull(index)) {
+                    failMap.put(index, exception);
+                }
+            });
+        } catch (MailException e) {
+            // 连接或认证失败，整批都未发送
+            indexMap.values().forEach(index -> failMap.put(index, e));
+        }
+        return failMap;
+    }
+
+    /**
+     * 生成邮件，有模板时按模板渲染为HTML邮件，否则为普通文本邮件
+     *
+     * @param mailDTO 邮件信息
+     * @return 邮件
+     * @throws MessagingException 邮件信息错误
+     */
+    private MimeMessage createMessage(MailDTO mailDTO) throws MessagingException {
+        MimeMessage mimeMessage = javaMailSender.createMimeMessage();
+        MimeMessageHelper mimeMessageHelper = new MimeMessageHelper(mimeMessage, StandardCharsets.UTF_8.name());
+        mimeMessageHelper.setFrom(email);
+        mimeMessageHelper.setTo(mailDTO.getToEmail());
+        mimeMessageHelper.setSubject(mailDTO.getSubject());
+        if (StringUtils.hasText(mailDTO.getTemplate())) {
+            Context context = new Context();
+            context.setVariables(mailDTO.getContentMap());
+            mimeMessageHelper.setText(templateEngine.process(mailDTO.getTemplate(), context), true);
+        } else {
+            mimeMessageHelper.setText(mailDTO.getContent());
+        }
+        return mimeMessage;
+    }
+}
@@ -2,6 +2,9 @@ package com.ican.service;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.ican.cache.CacheInvalidationBus;
+import com.ican.cache.ReferenceListCache;
+import com.ican.constant.CacheConstant;
 import com.ican.entity.Friend;
 import com.ican.mapper.FriendMapper;
 import com.ican.model.vo.PageResult;
@@ -24,12 +27,23 @@ import java.util.List;
 @Service
 public class FriendService extends ServiceImpl<FriendMapper, Friend> {
 
+    /**
+     * 前台友链列表缓存key
+     */
+    private static final String FRIEND_LIST = "friend_list";
+
     @Autowired
     private FriendMapper friendMapper;
 
+    @Autowired
+    private ReferenceListCache referenceListCache;
+
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+
     public List<FriendResp> listFriendVO() {
         // 查询友链列表
-        return friendMapper.selectFriendVOList();
+        return referenceListCache.get(FRIEND_LIST, friendMapper::selectFriendVOList, CacheConstant.FRIEND);
     }
 
     public PageResult<FriendBackResp> listFriendBackVO(FriendQuery friendQuery) {
@@ -50,6 +64,12 @@ public class FriendService extends ServiceImpl<FriendMapper, Friend> {
         Friend newFriend = BeanCopyUtils.copyBean(friend, Friend.class);
         // 添加友链
         baseMapper.insert(newFriend);
+        cacheInvalidationBus.publishAll(CacheConstant.FRIEND);
+    }
+
+    public void deleteFriend(List<Integer> friendIdList) {
+        baseMapper.deleteBatchIds(friendIdList);
+        cacheInvalidationBus.publishAll(CacheConstant.FRIEND);
     }
 
     public void updateFriend(FriendReq friend) {
@@ -57,6 +77,7 @@ public class FriendService extends ServiceImpl<FriendMapper, Friend> {
         Friend newFriend = BeanCopyUtils.copyBean(friend, Friend.class);
         // 更新友链
         baseMapper.updateById(newFriend);
+        cacheInvalidationBus.publishAll(CacheConstant.FRIEND);
     }
 }
 
@@ -0,0 +1,114 @@
+package com.ican.service;
+
+import com.ican.config.properties.LogRetentionProperties;
+import com.ican.enums.LogTableEnum;
+import com.ican.mapper.LogRetentionMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 日志清理服务
+ *
+ * <p>一条 DELETE 删除大量日志会长时间锁表并造成主从延迟，这里按主键范围分批删除：</p>
+ * <ol>
+ *     <li>先确定截止时间之前的最大id，之后写入的日志不会被扫描</li>
+ *     <li>发件箱、事件表等不能只按时间清理的表由 {@link LogTableEnum#getPurgeCondition()} 附加过滤条件</li>
+ *     <li>从最小id开始，每次删除 {@link LogRetentionProperties#getChunkSize()} 个id范围内的记录，每批单独提交</li>
+ *     <li>每批之间暂停 {@link LogRetentionProperties#getPauseMillis()} 毫秒</li>
+ * </ol>
+ *
+ * @author Aric
+ */
+@Slf4j
+@Service
+public class LogRetentionService {
+
+    /**
+     * 进度日志输出间隔（批）
+     */
+    private static final int PROGRESS_INTERVAL = 100;
+
+    @Autowired
+    private LogRetentionMapper logRetentionMapper;
+
+    @Autowired
+    private LogRetentionProperties logRetentionProperties;
+
+    /**
+     * 按配置的保留天数清理所有日志表
+     */
+    public void purgeExpired() {
+        for (LogTableEnum logTable : LogTableEnum.values()) {
+            purgeExpired(logTable);
+        }
+    }
+
+    /**
+     * 按配置的保留天数清理日志表
+     *
+     * @param logTable 日志表
+     * @return 删除条数
+     */
+    public long purgeExpired(LogTableEnum logTable) {
+        Integer days = logRetentionProperties.getDays().get(logTable.getName());
+        if (Objects.isNull(days) || days <= 0) {
+            return 0;
+        }
+        return purge(logTable, LocalDate.now().minusDays(days).atStartOfDay());
+    }
+
+    /**
+     * 分批删除截止时间之前的日志
+     *
+     * @param logTable 日志表
+     * @param endTime  截止时间，为空时删除全部
+     * @return 删除条数
+     */
+    public long purge(LogTableEnum logTable, LocalDateTime endTime) {
+        String table = logTable.getTable();
+        String condition = logTable.getPurgeCondition();
+        Integer maxId = logRetentionMapper.selectMaxIdBefore(table, endTime, condition);
+        Integer minId = logRetentionMapper.selectMinId(table);
+        if (Objects.isNull(maxId) || Objects.isNull(minId)) {
+            return 0;
+        }
+        long startTime = System.currentTimeMillis();
+        int chunkSize = Math.max(logRetentionProperties.getChunkSize(), 1);
+        long total = 0;
+        int chunk = 0;
+        for (long startId = minId; startId <= maxId; startId += chunkSize) {
+            int endId = (int) Math.min(startId + chunkSize - 1, maxId);
+            total += logRetentionMapper.deleteByIdRange(table, (int) startId, endId, endTime, condition);
+            if (++chunk % PROGRESS_INTERVAL == 0) {
+                log.info("清理日志[{}]进度: id {}/{}，已删除{}条", table, endId, maxId, total);
+            }
+            if (endId < maxId && !pause()) {
+                break;
+            }
+        }
+        log.info("清理日志[{}]完成: 截止时间{}，删除{}条，{}批，耗时{}毫秒", table, endTime, total, chunk,
+                System.currentTimeMillis() - startTime);
+        return total;
+    }
+
+    private boolean pause() {
+        long pauseMillis = logRetentionProperties.getPauseMillis();
+        if (pauseMillis <= 0) {
+            return true;
+        }
+        try {
+            TimeUnit.MILLISECONDS.sleep(pauseMillis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+}
@@ -22,12 +22,10 @@ import com.ican.model.vo.request.RegisterReq;
 import com.ican.strategy.context.SocialLoginStrategyContext;
 import com.ican.utils.SecurityUtils;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -49,16 +47,16 @@ public class LoginService {
 //    private RabbitTemplate rabbitTemplate;
 
     @Autowired
-    private EmailService emailService;
+    private MailOutboxService mailOutboxService;
 
     @Autowired
     private RedisService redisService;
 
     @Autowired
-    private SocialLoginStrategyContext socialLoginStrategyContext;
+    private SiteConfigService siteConfigService;
 
     @Autowired
-    private ThreadPoolTaskExecutor threadPoolTaskExecutor;
+    private SocialLoginStrategyContext socialLoginStrategyContext;
 
     /**
      * 前台用户登录
@@ -123,7 +121,7 @@ public class LoginService {
                 .build();
         // 验证码存入消息队列
 //        rabbitTemplate.convertAndSend(MqConstant.EMAIL_EXCHANGE, MqConstant.EMAIL_SIMPLE_KEY, mailDTO);
-        CompletableFuture.runAsync(() -> emailService.sendSimpleMail(mailDTO), threadPoolTaskExecutor);
+        mailOutboxService.enqueue(mailDTO);
         // 验证码存入redis
         redisService.setObject(RedisConstant.CODE_KEY + username, code, RedisConstant.CODE_EXPIRE_TIME, TimeUnit.MINUTES);
     }
@@ -141,7 +139,7 @@ public class LoginService {
                 .select(User::getUsername)
                 .eq(User::getUsername, register.getUsername()));
         Assert.isNull(user, "邮箱已注册！");
-        SiteConfig siteConfig = redisService.getObject(RedisConstant.SITE_SETTING);
+        SiteConfig siteConfig = siteConfigService.getSiteConfig();
         // 添加用户
         User newUser = User.builder()
                 .username(register.getUsername())
@@ -0,0 +1,204 @@
+package com.ican.service;
+
+import com.alibaba.fastjson2.JSON;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.ican.config.properties.MailOutboxProperties;
+import com.ican.entity.MailOutbox;
+import com.ican.mapper.MailOutboxMapper;
+import com.ican.model.dto.MailDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+import static com.ican.enums.ZoneEnum.SHANGHAI;
+import static com.ican.utils.TransactionUtils.afterCommit;
+
+/**
+ * 邮件发件箱服务
+ *
+ * <p>邮件先写入 t_mail_outbox，再由后台分批发送，进程重启或SMTP故障都不会丢失邮件：</p>
+ * <ol>
+ *     <li>{@link #enqueue(MailDTO)} 加入调用方的事务，业务回滚时邮件一起回滚；提交后立即唤醒发送</li>
+ *     <li>发送时用 FOR UPDATE SKIP LOCKED 锁定一批到期邮件并延后下次发送时间作为租约，多节点不会重复领取</li>
+ *     <li>同一批邮件共用一个SMTP连接发送，失败的邮件按 {@link MailOutboxProperties#getRetryDelay()} 指数退避重试</li>
+ *     <li>超过 {@link MailOutboxProperties#getMaxRetry()} 次后标记为发送失败</li>
+ * </ol>
+ *
+ * <p>SMTP发送会阻塞，所有发送都在独立的 mailExecutorService 中执行，不占用共享的定时任务线程池。
+ * SMTP连接、读取、写入超时见 spring.mail.properties.mail.smtp。</p>
+ *
+ * <p>本地调试时把 spring.mail 指向本地SMTP模拟服务（如 MailHog）即可查看发出的邮件。</p>
+ *
+ * @author Aric
+ */
+@Slf4j
+@Service
+public class MailOutboxService {
+
+    /**
+     * 待发送
+     */
+    private static final int PENDING = 0;
+
+    /**
+     * 已发送
+     */
+    private static final int SENT = 1;
+
+    /**
+     * 发送失败
+     */
+    private static final int FAILED = 2;
+
+    /**
+     * 错误信息最大长度
+     */
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final ReentrantLock dispatchLock = new ReentrantLock();
+
+    @Autowired
+    private MailOutboxMapper mailOutboxMapper;
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private MailOutboxProperties mailOutboxProperties;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Resource
+    private ScheduledExecutorService mailExecutorService;
+
+    @PostConstruct
+    public void init() {
+        long pollInterval = mailOutboxProperties.getPollInterval();
+        mailExecutorService.scheduleWithFixedDelay(this::dispatch, pollInterval, pollInterval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 邮件加入发件箱
+     *
+     * @param mailDTO 邮件信息
+     */
+    public void enqueue(MailDTO mailDTO) {
+        MailOutbox mailOutbox = MailOutbox.builder()
+                .toEmail(mailDTO.getToEmail())
+                .subject(mailDTO.getSubject())
+                .content(mailDTO.getContent())
+                .template(mailDTO.getTemplate())
+                .contentMap(Objects.isNull(mailDTO.getContentMap()) ? null : JSON.toJSONString(mailDTO.getContentMap()))
+                .status(PENDING)
+                .retryCount(0)
+                .nextTime(now())
+                .build();
+        mailOutboxMapper.insert(mailOutbox);
+        afterCommit(() -> mailExecutorService.execute(this::dispatch));
+    }
+
+    /**
+     * 发送到期邮件，同一节点同时只有一个线程发送
+     */
+    public void dispatch() {
+        if (!dispatchLock.tryLock()) {
+            return;
+        }
+        try {
+            int count;
+            do {
+                count = dispatchBatch();
+            } while (count >= mailOutboxProperties.getBatchSize());
+        } catch (Exception e) {
+            log.error("发件箱邮件发送异常", e);
+        } finally {
+            dispatchLock.unlock();
+        }
+    }
+
+    /**
+     * 领取并发送一批邮件
+     *
+     * @return 本批邮件数量
+     */
+    private int dispatchBatch() {
+        LocalDateTime now = now();
+        List<MailOutbox> mailList = transactionTemplate.execute(status -> {
+            List<MailOutbox> dueList = mailOutboxMapper.selectDueForUpdate(now, mailOutboxProperties.getBatchSize());
+            if (!dueList.isEmpty()) {
+                mailOutboxMapper.updateNextTime(dueList.stream().map(MailOutbox::getId).collect(Collectors.toList()),
+                        now.plusNanos(TimeUnit.MILLISECONDS.toNanos(mailOutboxProperties.getLeaseTime())));
+            }
+            return dueList;
+        });
+        if (Objects.isNull(mailList) || mailList.isEmpty()) {
+            return 0;
+        }
+        Map<Integer, Exception> failMap = emailService.sendBatch(mailList.stream()
+                .map(this::toMailDTO)
+                .collect(Collectors.toList()));
+        List<Integer> sentIdList = new ArrayList<>(mailList.size());
+        for (int i = 0; i < mailList.size(); i++) {
+            MailOutbox mail = mailList.get(i);
+            Exception exception = failMap.get(i);
+            if (Objects.isNull(exception)) {
+                sentIdList.add(mail.getId());
+            } else {
+                retryLater(mail, exception, now);
+            }
+        }
+        if (!sentIdList.isEmpty()) {
+            mailOutboxMapper.update(null, new LambdaUpdateWrapper<MailOutbox>()
+                    .set(MailOutbox::getStatus, SENT)
+                    .set(MailOutbox::getUpdateTime, now())
+                    .in(MailOutbox::getId, sentIdList));
+        }
+        return mailList.size();
+    }
+
+    /**
+     * 记录发送失败，按指数退避安排重试
+     */
+    private void retryLater(MailOutbox mail, Exception exception, LocalDateTime now) {
+        int retryCount = mail.getRetryCount() + 1;
+        boolean exhausted = retryCount > mailOutboxProperties.getMaxRetry();
+        long delay = mailOutboxProperties.getRetryDelay() << Math.min(retryCount - 1, 20);
+        String errorInfo = Optional.ofNullable(exception.getMessage()).orElse(exception.getClass().getName());
+        mailOutboxMapper.updateById(MailOutbox.builder()
+                .id(mail.getId())
+                .status(exhausted ? FAILED : PENDING)
+                .retryCount(retryCount)
+                .nextTime(now.plusNanos(TimeUnit.MILLISECONDS.toNanos(delay)))
+                .errorInfo(errorInfo.length() > MAX_ERROR_LENGTH ? errorInfo.substring(0, MAX_ERROR_LENGTH) : errorInfo)
+                .build());
+        log.warn("邮件[{}]发送失败，第{}次: {}", mail.getId(), retryCount, errorInfo);
+    }
+
+    @SuppressWarnings("unchecked")
+    private MailDTO toMailDTO(MailOutbox mail) {
+        return MailDTO.builder()
+                .toEmail(mail.getToEmail())
+                .subject(mail.getSubject())
+                .content(mail.getContent())
+                .template(mail.getTemplate())
+                .contentMap(Objects.isNull(mail.getContentMap()) ? null : JSON.parseObject(mail.getContentMap(), Map.class))
+                .build();
+    }
+
+    private static LocalDateTime now() {
+        return LocalDateTime.now(ZoneId.of(SHANGHAI.getZone()));
+    }
+
+}
@@ -3,6 +3,7 @@ package com.ican.service;
 import cn.hutool.core.lang.Assert;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.ican.cache.MenuTreeCache;
 import com.ican.constant.CommonConstant;
 import com.ican.entity.Menu;
 import com.ican.entity.RoleMenu;
@@ -38,6 +39,9 @@ public class MenuService extends ServiceImpl<MenuMapper, Menu> {
     @Autowired
     private RoleMenuMapper roleMenuMapper;
 
+    @Autowired
+    private MenuTreeCache menuTreeCache;
+
     public List<MenuResp> listMenuVO(MenuQuery menuQuery) {
         // 查询当前菜单列表
         List<MenuResp> menuRespList = menuMapper.selectMenuVOList(menuQuery);
@@ -64,6 +68,8 @@ public class MenuService extends ServiceImpl<MenuMapper, Menu> {
         Assert.isNull(existMenu, menu.getMenuName() + "菜单已存在");
         Menu newMenu = BeanCopyUtils.copyBean(menu, Menu.class);
         baseMapper.insert(newMenu);
+        // 清除菜单缓存
+        menuTreeCache.clear();
     }
 
     public void deleteMenu(Integer menuId) {
@@ -77,6 +83,8 @@ public class MenuService extends ServiceImpl<MenuMapper, Menu> {
         Assert.isFalse(roleCount > 0, "菜单已分配");
         // 删除菜单
         menuMapper.deleteById(menuId);
+        // 清除菜单缓存
+        menuTreeCache.clear();
     }
 
     public void updateMenu(MenuReq menu) {
@@ -88,16 +96,22 @@ public class MenuService extends ServiceImpl<MenuMapper, Menu> {
                 menu.getMenuName() + "菜单已存在");
         Menu newMenu = BeanCopyUtils.copyBean(menu, Menu.class);
         baseMapper.updateById(newMenu);
+        // 清除菜单缓存
+        menuTreeCache.clear();
     }
 
     public List<MenuTreeResp> listMenuTree() {
-        List<MenuTreeResp> menuTreeRespList = menuMapper.selectMenuTree();
-        return recurMenuTreeList(CommonConstant.PARENT_ID, menuTreeRespList);
+        return menuTreeCache.getMenuTree(() -> {
+            List<MenuTreeResp> menuTreeRespList = menuMapper.selectMenuTree();
+            return recurMenuTreeList(CommonConstant.PARENT_ID, menuTreeRespList);
+        });
     }
 
     public List<MenuOptionResp> listMenuOption() {
-        List<MenuOptionResp> menuOptionList = menuMapper.selectMenuOptions();
-        return recurMenuOptionList(CommonConstant.PARENT_ID, menuOptionList);
+        return menuTreeCache.getMenuOption(() -> {
+            List<MenuOptionResp> menuOptionList = menuMapper.selectMenuOptions();
+            return recurMenuOptionList(CommonConstant.PARENT_ID, menuOptionList);
+        });
     }
 
     public MenuReq editMenu(Integer menuId) {
@@ -1,13 +1,23 @@
 package com.ican.service;
 
+import org.springframework.data.redis.connection.RedisZSetCommands;
+import org.springframework.data.redis.core.ConvertingCursor;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.SessionCallback;
 import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.stereotype.Service;
 
 import javax.annotation.Resource;
 import java.util.*;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Redis服务接口实现类
@@ -18,9 +28,25 @@ import java.util.stream.Collectors;
 @SuppressWarnings("all")
 public class RedisService {
 
+    /**
+     * SCAN每次迭代返回的建议数量
+     */
+    private static final long DEFAULT_SCAN_COUNT = 500;
+
+    /**
+     * UNLINK每批删除的key数量
+     */
+    private static final int DEFAULT_DELETE_BATCH = 500;
+
     @Resource
     private RedisTemplate<String, Object> redisTemplate;
 
+    /**
+     * String类型值使用的模板，编码由 redis.codec.mode 决定
+     */
+    @Resource
+    private RedisTemplate<String, Object> objectRedisTemplate;
+
 
     public Boolean setExpire(String key, long timeout, TimeUnit timeUnit) {
         return redisTemplate.expire(key, timeout, timeUnit);
@@ -33,7 +59,62 @@ public class RedisService {
 
 
     public Collection<String> getKeys(String pattern) {
-        return redisTemplate.keys(pattern);
+        try (Stream<String> keys = scanKeys(pattern)) {
+            return keys.collect(Collectors.toSet());
+        }
+    }
+
+
+    public Stream<String> scanKeys(String pattern) {
+        return scanKeys(pattern, DEFAULT_SCAN_COUNT);
+    }
+
+
+    /**
+     * 使用SCAN游标惰性遍历key，避免KEYS命令阻塞Redis
+     * 返回的Stream持有连接，使用完毕必须关闭（try-with-resources）
+     *
+     * @param pattern 匹配模式
+     * @param count   每次迭代返回的建议数量
+     * @return key流
+     */
+    public Stream<String> scanKeys(String pattern, long count) {
+        ScanOptions options = ScanOptions.scanOptions().match(pattern).count(count).build();
+        RedisSerializer<String> keySerializer = (RedisSerializer<String>) redisTemplate.getKeySerializer();
+        Cursor<String> cursor = redisTemplate.executeWithStickyConnection(
+                (RedisCallback<Cursor<String>>) connection -> new ConvertingCursor<>(connection.scan(options), keySerializer::deserialize));
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(cursor, Spliterator.ORDERED), false)
+                .onClose(cursor::close);
+    }
+
+
+    public Long deleteKeys(Stream<String> keys) {
+        return deleteKeys(keys, DEFAULT_DELETE_BATCH);
+    }
+
+
+    /**
+     * 分批使用UNLINK删除key，内存回收在Redis后台线程完成
+     *
+     * @param keys      key流
+     * @param batchSize 每批数量
+     * @return 删除数量
+     */
+    public Long deleteKeys(Stream<String> keys, int batchSize) {
+        long count = 0;
+        List<String> batch = new ArrayList<>(batchSize);
+        Iterator<String> iterator = keys.iterator();
+        while (iterator.hasNext()) {
+            batch.add(iterator.next());
+            if (batch.size() >= batchSize) {
+                count += Optional.ofNullable(redisTemplate.unlink(batch)).orElse(0L);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            count += Optional.ofNullable(redisTemplate.unlink(batch)).orElse(0L);
+        }
+        return count;
     }
 
 
@@ -43,17 +124,22 @@ public class RedisService {
 
 
     public <T> void setObject(String key, T value) {
-        redisTemplate.opsForValue().set(key, value);
+        objectRedisTemplate.opsForValue().set(key, value);
     }
 
 
     public <T> void setObject(String key, T value, long timeout, TimeUnit timeUnit) {
-        redisTemplate.opsForValue().set(key, value, timeout, timeUnit);
+        objectRedisTemplate.opsForValue().set(key, value, timeout, timeUnit);
     }
 
 
     public <T> T getObject(String key) {
-        return (T) redisTemplate.opsForValue().get(key);
+        return (T) objectRedisTemplate.opsForValue().get(key);
+    }
+
+
+    public void rename(String oldKey, String newKey) {
+        redisTemplate.rename(oldKey, newKey);
     }
 
 
@@ -109,6 +195,11 @@ public class RedisService {
     }
 
 
+    public <T> List<T> getHashMulti(String key, Collection<String> hashKeys) {
+        return (List<T>) redisTemplate.opsForHash().multiGet(key, new ArrayList<>(hashKeys));
+    }
+
+
     public <T> void deleteHash(String key, T... hashKeys) {
         redisTemplate.opsForHash().delete(key, hashKeys);
     }
@@ -212,6 +303,23 @@ public class RedisService {
     }
 
 
+    /**
+     * 在一次往返中增加同一成员在多个 ZSet 中的分数
+     *
+     * @return 各 ZSet 中增加后的分数，与 keyList 顺序一致
+     */
+    public <T> List<Double> incrZetMulti(List<String> keyList, T value, Double score) {
+        List<Object> resultList = redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            public Object execute(RedisOperations operations) {
+                keyList.forEach(key -> operations.opsForZSet().incrementScore(key, value, score));
+                return null;
+            }
+        });
+        return resultList.stream().map(result -> (Double) result).collect(Collectors.toList());
+    }
+
+
     public <T> Double decrZet(String key, T value, Double score) {
         return redisTemplate.opsForZSet().incrementScore(key, value, -score);
     }
@@ -222,6 +330,26 @@ public class RedisService {
     }
 
 
+    public <T> Boolean setZset(String key, T value, double score) {
+        return redisTemplate.opsForZSet().add(key, value, score);
+    }
+
+
+    public <T> Set<T> zReverseRange(String key, long start, long end) {
+        return (Set<T>) redisTemplate.opsForZSet().reverseRange(key, start, end);
+    }
+
+
+    public <T> Set<T> zRangeByScore(String key, double min, double max) {
+        return (Set<T>) redisTemplate.opsForZSet().rangeByScore(key, min, max);
+    }
+
+
+    public Long getZsetSize(String key) {
+        return redisTemplate.opsForZSet().zCard(key);
+    }
+
+
     public Map<Object, Double> zReverseRangeWithScore(String key, long start, long end) {
         return redisTemplate.opsForZSet().reverseRangeWithScores(key, start, end)
                 .stream()
@@ -229,11 +357,30 @@ public class RedisService {
     }
 
 
+    public Long zUnionStore(String destKey, List<String> keys, double[] weights) {
+        return redisTemplate.opsForZSet().unionAndStore(keys.get(0), keys.subList(1, keys.size()), destKey,
+                RedisZSetCommands.Aggregate.SUM, RedisZSetCommands.Weights.of(weights));
+    }
+
+
     public <T> Double getZsetScore(String key, T value) {
         return redisTemplate.opsForZSet().score(key, value);
     }
 
 
+    /**
+     * 一次读取多个成员的分数（ZMSCORE）
+     *
+     * @return 分数，与 values 顺序一致，成员不存在时为空
+     */
+    public <T> List<Double> getZsetScoreMulti(String key, Collection<T> values) {
+        if (values.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return redisTemplate.opsForZSet().score(key, values.toArray());
+    }
+
+
     public Map<Object, Double> getZsetAllScore(String key) {
         return Objects.requireNonNull(redisTemplate.opsForZSet().rangeWithScores(key, 0, -1))
                 .stream()
@@ -241,4 +388,8 @@ public class RedisService {
     }
 
 
+    public void publish(String channel, Object message) {
+        redisTemplate.convertAndSend(channel, message);
+    }
+
 }
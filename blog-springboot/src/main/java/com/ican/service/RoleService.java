@@ -5,6 +5,7 @@ import cn.dev33.satoken.session.SaSessionCustomUtil;
 import cn.hutool.core.lang.Assert;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.ican.cache.MenuTreeCache;
 import com.ican.constant.CommonConstant;
 import com.ican.entity.Role;
 import com.ican.entity.UserRole;
@@ -41,6 +42,9 @@ public class RoleService extends ServiceImpl<RoleMapper, Role> {
     @Autowired
     private RoleMenuMapper roleMenuMapper;
 
+    @Autowired
+    private MenuTreeCache menuTreeCache;
+
     public PageResult<RoleResp> listRoleVO(RoleQuery roleQuery) {
         // 查询角色数量
         Long count = roleMapper.selectBackRoleCount(roleQuery);
@@ -63,6 +67,8 @@ public class RoleService extends ServiceImpl<RoleMapper, Role> {
         baseMapper.insert(newRole);
         // 添加角色菜单权限
         roleMenuMapper.insertRoleMenu(newRole.getId(), role.getMenuIdList());
+        // 清除菜单缓存
+        menuTreeCache.clear();
     }
 
     public void deleteRole(List<String> roleIdList) {
@@ -79,6 +85,8 @@ public class RoleService extends ServiceImpl<RoleMapper, Role> {
             SaSession sessionById = SaSessionCustomUtil.getSessionById("role-" + roleId, false);
             Optional.ofNullable(sessionById).ifPresent(saSession -> saSession.delete("Permission_List"));
         });
+        // 清除菜单缓存
+        menuTreeCache.clear();
     }
 
     public void updateRole(RoleReq role) {
@@ -102,6 +110,8 @@ public class RoleService extends ServiceImpl<RoleMapper, Role> {
         // 删除Redis缓存中的菜单权限
         SaSession sessionById = SaSessionCustomUtil.getSessionById("role-" + newRole.getId(), false);
         Optional.ofNullable(sessionById).ifPresent(saSession -> saSession.delete("Permission_List"));
+        // 清除菜单缓存
+        menuTreeCache.clear();
     }
 
     public void updateRoleStatus(RoleStatusReq roleStatus) {
@@ -112,6 +122,8 @@ public class RoleService extends ServiceImpl<RoleMapper, Role> {
                 .isDisable(roleStatus.getIsDisable())
                 .build();
         roleMapper.updateById(newRole);
+        // 清除菜单缓存
+        menuTreeCache.clear();
     }
 
     public List<Integer> listRoleMenuTree(String roleId) {
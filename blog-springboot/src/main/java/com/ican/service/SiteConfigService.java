@@ -1,6 +1,7 @@
 package com.ican.service;
 
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.ican.cache.SiteConfigCache;
 import com.ican.constant.RedisConstant;
 import com.ican.entity.SiteConfig;
 import com.ican.enums.FilePathEnum;
@@ -34,19 +35,32 @@ public class SiteConfigService extends ServiceImpl<SiteConfigMapper, SiteConfig>
     @Autowired
     private BlogFileService blogFileService;
 
+    @Autowired
+    private SiteConfigCache siteConfigCache;
+
+    /**
+     * 获取网站配置
+     * 优先读取本地快照，快照失效时依次从 Redis、数据库加载
+     *
+     * @return 网站配置（共享只读对象）
+     */
     public SiteConfig getSiteConfig() {
-        SiteConfig siteConfig = redisService.getObject(RedisConstant.SITE_SETTING);
-        if (Objects.isNull(siteConfig)) {
-            // 从数据库中加载
-            siteConfig = siteConfigMapper.selectById(1);
-            redisService.setObject(RedisConstant.SITE_SETTING, siteConfig);
-        }
-        return siteConfig;
+        return siteConfigCache.get(() -> {
+            SiteConfig siteConfig = redisService.getObject(RedisConstant.SITE_SETTING);
+            if (Objects.isNull(siteConfig)) {
+                // 从数据库中加载
+                siteConfig = siteConfigMapper.selectById(1);
+                redisService.setObject(RedisConstant.SITE_SETTING, siteConfig);
+            }
+            return siteConfig;
+        });
     }
 
     public void updateSiteConfig(SiteConfig siteConfig) {
         baseMapper.updateById(siteConfig);
         redisService.deleteObject(RedisConstant.SITE_SETTING);
+        // 通知各节点刷新本地快照
+        siteConfigCache.publishChange();
     }
 
     public String uploadSiteImg(MultipartFile file) {
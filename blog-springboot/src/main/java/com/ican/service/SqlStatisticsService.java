@@ -0,0 +1,378 @@
+package com.ican.service;
+
+import com.ican.model.vo.response.SqlRepeatResp;
+import com.ican.model.vo.response.SqlSlowResp;
+import com.ican.model.vo.response.SqlStatementResp;
+import com.ican.model.vo.response.SqlStatisticsResp;
+import com.ican.utils.LogPayloadUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.ParameterMode;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.type.TypeHandlerRegistry;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import static com.ican.enums.ZoneEnum.SHANGHAI;
+
+/**
+ * SQL执行统计服务
+ *
+ * <p>由 {@link com.ican.interceptor.SqlStatisticsInterceptor} 在每条语句执行后调用，统计保存在本节点内存中：</p>
+ * <ul>
+ *     <li>按语句id统计执行次数、失败次数、行数、总耗时、最大耗时和耗时分布</li>
+ *     <li>耗时超过 {@link #SLOW_TIME} 的语句保留最慢的 {@link #SLOW_SIZE} 条，并采样SQL和参数</li>
+ *     <li>同一请求内同一语句执行超过 {@link #REPEAT_THRESHOLD} 次视为N+1查询，按接口和语句记录</li>
+ * </ul>
+ *
+ * <p>只有进入慢SQL列表时才解析参数，统计本身只有几次原子操作。</p>
+ *
+ * @author Aric
+ */
+@Slf4j
+@Service
+public class SqlStatisticsService {
+
+    /**
+     * 慢SQL阈值（毫秒）
+     */
+    private static final long SLOW_TIME = 200;
+
+    /**
+     * 慢SQL保留条数
+     */
+    private static final int SLOW_SIZE = 50;
+
+    /**
+     * 单次请求内同一语句执行次数阈值
+     */
+    private static final int REPEAT_THRESHOLD = 20;
+
+    /**
+     * 重复执行记录最大条数
+     */
+    private static final int REPEAT_SIZE = 200;
+
+    /**
+     * 采样SQL最大长度
+     */
+    private static final int MAX_SQL_LENGTH = 2000;
+
+    /**
+     * 耗时分布上限（毫秒），最后一个区间无上限
+     */
+    private static final long[] BUCKETS = {1, 5, 10, 50, 100, 500, 1000};
+
+    /**
+     * 请求内语句计数的请求属性名
+     */
+    private static final String REQUEST_COUNT_ATTRIBUTE = SqlStatisticsService.class.getName() + ".COUNT";
+
+    /**
+     * 语句id -> 统计
+     */
+    private final Map<String, StatementStat> statementMap = new ConcurrentHashMap<>(64);
+
+    /**
+     * 慢SQL，按耗时升序的小顶堆
+     */
+    private final PriorityQueue<SqlSlowResp> slowQueue = new PriorityQueue<>(Comparator.comparing(SqlSlowResp::getTime));
+
+    /**
+     * 接口#语句id -> 重复执行统计
+     */
+    private final Map<String, RepeatStat> repeatMap = new ConcurrentHashMap<>(16);
+
+    /**
+     * 慢SQL列表已满时的最小耗时（毫秒），用于无锁快速过滤
+     */
+    private volatile long slowFloor = SLOW_TIME;
+
+    /**
+     * 统计开始时间
+     */
+    private volatile LocalDateTime startTime = now();
+
+    /**
+     * 记录一次语句执行
+     *
+     * @param ms        语句
+     * @param parameter 参数
+     * @param boundSql  SQL，为空时按需生成
+     * @param nanos     耗时（纳秒）
+     * @param rows      返回或影响行数
+     * @param error     是否失败
+     */
+    public void record(MappedStatement ms, Object parameter, BoundSql boundSql, long nanos, long rows, boolean error) {
+        try {
+            String statementId = ms.getId();
+            long time = TimeUnit.NANOSECONDS.toMillis(nanos);
+            statementMap.computeIfAbsent(statementId, key -> new StatementStat()).add(nanos, time, rows, error);
+            String uri = countInRequest(statementId);
+            if (time >= slowFloor) {
+                recordSlow(ms, parameter, boundSql, time, uri);
+            }
+        } catch (Exception e) {
+            log.warn("SQL统计失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 查看SQL统计
+     *
+     * @return SQL统计
+     */
+    public SqlStatisticsResp getSqlStatistics() {
+        List<SqlStatementResp> statementList = statementMap.entrySet().stream()
+                .map(entry -> entry.getValue().toResp(entry.getKey()))
+                .sorted(Comparator.comparing(SqlStatementResp::getTotalTime).reversed())
+                .collect(Collectors.toList());
+        List<SqlSlowResp> slowList;
+        synchronized (slowQueue) {
+            slowList = new ArrayList<>(slowQueue);
+        }
+        slowList.sort(Comparator.comparing(SqlSlowResp::getTime).reversed());
+        List<SqlRepeatResp> repeatList = repeatMap.values().stream()
+                .map(RepeatStat::toResp)
+                .sorted(Comparator.comparing(SqlRepeatResp::getRequestCount).reversed())
+                .collect(Collectors.toList());
+        return SqlStatisticsResp.builder()
+                .startTime(startTime)
+                .statementList(statementList)
+                .slowList(slowList)
+                .repeatList(repeatList)
+                .build();
+    }
+
+    /**
+     * 清空SQL统计
+     */
+    public void reset() {
+        statementMap.clear();
+        repeatMap.clear();
+        synchronized (slowQueue) {
+            slowQueue.clear();
+            slowFloor = SLOW_TIME;
+        }
+        startTime = now();
+    }
+
+    /**
+     * 累加当前请求内的语句执行次数，超过阈值时记录重复执行
+     *
+     * @param statementId 语句id
+     * @return 当前请求接口，不在请求线程中时为null
+     */
+    @SuppressWarnings("unchecked")
+    private String countInRequest(String statementId) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes)) {
+            return null;
+        }
+        String uri = ((ServletRequestAttributes) attributes).getRequest().getRequestURI();
+        Map<String, Integer> countMap = (Map<String, Integer>) attributes.getAttribute(REQUEST_COUNT_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (Objects.isNull(countMap)) {
+            countMap = new HashMap<>(16);
+            attributes.setAttribute(REQUEST_COUNT_ATTRIBUTE, countMap, RequestAttributes.SCOPE_REQUEST);
+        }
+        int count = countMap.merge(statementId, 1, Integer::sum);
+        if (count < REPEAT_THRESHOLD) {
+            return uri;
+        }
+        String key = uri + "#" + statementId;
+        RepeatStat repeatStat = repeatMap.get(key);
+        if (Objects.isNull(repeatStat)) {
+            if (repeatMap.size() >= REPEAT_SIZE) {
+                return uri;
+            }
+            repeatStat = repeatMap.computeIfAbsent(key, k -> new RepeatStat(uri, statementId));
+        }
+        repeatStat.add(count, count == REPEAT_THRESHOLD);
+        return uri;
+    }
+
+    private void recordSlow(MappedStatement ms, Object parameter, BoundSql boundSql, long time, String uri) {
+        synchronized (slowQueue) {
+            if (slowQueue.size() >= SLOW_SIZE && time <= slowQueue.peek().getTime()) {
+                return;
+            }
+        }
+        // 参数解析放在锁外
+        BoundSql sql = Objects.nonNull(boundSql) ? boundSql : ms.getBoundSql(parameter);
+        SqlSlowResp slowResp = SqlSlowResp.builder()
+                .statementId(ms.getId())
+                .sql(formatSql(sql.getSql()))
+                .params(sampleParams(ms.getConfiguration(), sql, parameter))
+                .time(time)
+                .uri(uri)
+                .createTime(now())
+                .build();
+        synchronized (slowQueue) {
+            slowQueue.offer(slowResp);
+            if (slowQueue.size() > SLOW_SIZE) {
+                slowQueue.poll();
+            }
+            if (slowQueue.size() >= SLOW_SIZE) {
+                slowFloor = Math.max(SLOW_TIME, slowQueue.peek().getTime() + 1);
+            }
+        }
+    }
+
+    private String formatSql(String sql) {
+        String formatSql = sql.replaceAll("\\s+", " ").trim();
+        return formatSql.length() > MAX_SQL_LENGTH ? formatSql.substring(0, MAX_SQL_LENGTH) + "..." : formatSql;
+    }
+
+    /**
+     * 按参数映射顺序取出参数值，与 DefaultParameterHandler 取值方式一致
+     * 以 属性名 -> 值 保存，便于按属性名脱敏（如 et.password）
+     */
+    private String sampleParams(Configuration configuration, BoundSql boundSql, Object parameter) {
+        try {
+            TypeHandlerRegistry typeHandlerRegistry = configuration.getTypeHandlerRegistry();
+            MetaObject metaObject = null;
+            Map<String, Object> valueMap = new LinkedHashMap<>();
+            for (ParameterMapping parameterMapping : boundSql.getParameterMappings()) {
+                if (parameterMapping.getMode() == ParameterMode.OUT) {
+                    continue;
+                }
+                String property = parameterMapping.getProperty();
+                Object value;
+                if (boundSql.hasAdditionalParameter(property)) {
+                    value = boundSql.getAdditionalParameter(property);
+                } else if (Objects.isNull(parameter)) {
+                    value = null;
+                } else if (typeHandlerRegistry.hasTypeHandler(parameter.getClass())) {
+                    value = parameter;
+                } else {
+                    if (Objects.isNull(metaObject)) {
+                        metaObject = configuration.newMetaObject(parameter);
+                    }
+                    value = metaObject.getValue(property);
+                }
+                valueMap.put(property, LogPayloadUtils.mask(property, value));
+            }
+            return LogPayloadUtils.toJSONString(valueMap);
+        } catch (Exception e) {
+            return "参数解析失败: " + e.getMessage();
+        }
+    }
+
+    private static LocalDateTime now() {
+        return LocalDateTime.now(ZoneId.of(SHANGHAI.getZone()));
+    }
+
+    /**
+     * 语句统计
+     */
+    private static final class StatementStat {
+
+        private final LongAdder count = new LongAdder();
+
+        private final LongAdder errorCount = new LongAdder();
+
+        private final LongAdder rows = new LongAdder();
+
+        private final LongAdder totalNanos = new LongAdder();
+
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        private final LongAdder[] buckets = new LongAdder[BUCKETS.length + 1];
+
+        private StatementStat() {
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        private void add(long nanos, long time, long rowCount, boolean error) {
+            count.increment();
+            if (error) {
+                errorCount.increment();
+            }
+            rows.add(rowCount);
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+            int index = 0;
+            while (index < BUCKETS.length && time > BUCKETS[index]) {
+                index++;
+            }
+            buckets[index].increment();
+        }
+
+        private SqlStatementResp toResp(String statementId) {
+            long callCount = count.sum();
+            long total = totalNanos.sum();
+            Map<String, Long> histogram = new LinkedHashMap<>(16);
+            for (int i = 0; i < BUCKETS.length; i++) {
+                histogram.put("<=" + BUCKETS[i] + "ms", buckets[i].sum());
+            }
+            histogram.put(">" + BUCKETS[BUCKETS.length - 1] + "ms", buckets[BUCKETS.length].sum());
+            return SqlStatementResp.builder()
+                    .statementId(statementId)
+                    .count(callCount)
+                    .errorCount(errorCount.sum())
+                    .rows(rows.sum())
+                    .totalTime(TimeUnit.NANOSECONDS.toMillis(total))
+                    .avgTime(callCount == 0 ? 0D : total / 1_000_000D / callCount)
+                    .maxTime(TimeUnit.NANOSECONDS.toMillis(maxNanos.get()))
+                    .histogram(histogram)
+                    .build();
+        }
+    }
+
+    /**
+     * 重复执行统计
+     */
+    private static final class RepeatStat {
+
+        private final String uri;
+
+        private final String statementId;
+
+        private final LongAdder requestCount = new LongAdder();
+
+        private final AtomicInteger maxCount = new AtomicInteger();
+
+        private volatile LocalDateTime lastTime;
+
+        private RepeatStat(String uri, String statementId) {
+            this.uri = uri;
+            this.statementId = statementId;
+        }
+
+        private void add(int count, boolean newRequest) {
+            if (newRequest) {
+                requestCount.increment();
+                lastTime = now();
+            }
+            maxCount.accumulateAndGet(count, Math::max);
+        }
+
+        private SqlRepeatResp toResp() {
+            return SqlRepeatResp.builder()
+                    .uri(uri)
+                    .statementId(statementId)
+                    .requestCount(requestCount.sum())
+                    .maxCount(maxCount.get())
+                    .lastTime(lastTime)
+                    .build();
+        }
+    }
+
+}
@@ -3,9 +3,12 @@ package com.ican.service;
 import cn.hutool.core.lang.Assert;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.ican.cache.CacheInvalidationBus;
+import com.ican.cache.ReferenceListCache;
+import com.ican.constant.CacheConstant;
 import com.ican.entity.ArticleTag;
 import com.ican.entity.Tag;
-import com.ican.mapper.ArticleMapper;
+import com.ican.mapper.ArticleCardMapper;
 import com.ican.mapper.ArticleTagMapper;
 import com.ican.mapper.TagMapper;
 import com.ican.model.vo.response.ArticleConditionList;
@@ -19,10 +22,14 @@ import com.ican.model.vo.response.TagOptionResp;
 import com.ican.model.vo.response.TagResp;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import com.ican.utils.BeanCopyUtils;
 import org.springframework.util.StringUtils;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.stream.Collectors;
 
 /**
  * 标签服务
@@ -33,6 +40,11 @@ import java.util.Objects;
 @Service
 public class TagService extends ServiceImpl<TagMapper, Tag> {
 
+    /**
+     * 标签选项缓存key
+     */
+    private static final String TAG_OPTION_LIST = "tag_option_list";
+
     @Autowired
     private TagMapper tagMapper;
 
@@ -40,7 +52,22 @@ public class TagService extends ServiceImpl<TagMapper, Tag> {
     private ArticleTagMapper articleTagMapper;
 
     @Autowired
-    private ArticleMapper articleMapper;
+    private ArticleCardMapper articleCardMapper;
+
+    @Autowired
+    private ArticleCardService articleCardService;
+
+    @Autowired
+    private ArticleEventService articleEventService;
+
+    @Autowired
+    private ArticleCountService articleCountService;
+
+    @Autowired
+    private ReferenceListCache referenceListCache;
+
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
 
     public PageResult<TagBackResp> listTagBackVO(TagQuery tagQuery) {
         // 查询标签数量
@@ -66,6 +93,8 @@ public class TagService extends ServiceImpl<TagMapper, Tag> {
                 .tagName(tag.getTagName())
                 .build();
         baseMapper.insert(newTag);
+        articleCountService.incrTagCount(1);
+        cacheInvalidationBus.publishAll(CacheConstant.TAG);
     }
 
     public void deleteTag(List<Integer> tagIdList) {
@@ -74,9 +103,12 @@ public class TagService extends ServiceImpl<TagMapper, Tag> {
                 .in(ArticleTag::getTagId, tagIdList));
         Assert.isFalse(count > 0, "删除失败，标签下存在文章");
         // 批量删除标签
-        tagMapper.deleteBatchIds(tagIdList);
+        int deleteCount = tagMapper.deleteBatchIds(tagIdList);
+        articleCountService.incrTagCount(-deleteCount);
+        cacheInvalidationBus.publishAll(CacheConstant.TAG);
     }
 
+    @Transactional(rollbackFor = Exception.class)
     public void updateTag(TagReq tag) {
         // 标签是否存在
         Tag existTag = tagMapper.selectOne(new LambdaQueryWrapper<Tag>()
@@ -90,18 +122,33 @@ public class TagService extends ServiceImpl<TagMapper, Tag> {
                 .tagName(tag.getTagName())
                 .build();
         baseMapper.updateById(newTag);
+        // 重新生成该标签下的文章卡片
+        articleCardService.refreshByTag(tag.getId());
+        // 记录标签下文章的变更
+        articleEventService.recordByTag(tag.getId());
+        cacheInvalidationBus.publishAll(CacheConstant.TAG);
     }
 
     public List<TagOptionResp> listTagOption() {
-        return tagMapper.selectTagOptionList();
+        return referenceListCache.get(TAG_OPTION_LIST, tagMapper::selectTagOptionList, CacheConstant.TAG);
     }
 
     public List<TagResp> listTagVO() {
-        return tagMapper.selectTagVOList();
+        List<Tag> tagList = tagMapper.selectList(new LambdaQueryWrapper<Tag>()
+                .select(Tag::getId, Tag::getTagName));
+        // 标签文章数量
+        Map<Integer, Integer> articleCountMap = articleCountService.getTagArticleCountMap();
+        return tagList.stream()
+                .map(tag -> {
+                    TagResp tagResp = BeanCopyUtils.copyBean(tag, TagResp.class);
+                    tagResp.setArticleCount(articleCountMap.getOrDefault(tag.getId(), 0));
+                    return tagResp;
+                })
+                .collect(Collectors.toList());
     }
 
     public ArticleConditionList listArticleTag(ArticleConditionQuery articleConditionQuery) {
-        List<ArticleConditionResp> articleConditionList = articleMapper.selectArticleListByCondition(articleConditionQuery);
+        List<ArticleConditionResp> articleConditionList = articleCardMapper.selectArticleListByCondition(articleConditionQuery);
         String name = tagMapper.selectOne(new LambdaQueryWrapper<Tag>()
                         .select(Tag::getTagName)
                         .eq(Tag::getId, articleConditionQuery.getTagId()))
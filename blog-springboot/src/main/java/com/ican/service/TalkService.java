@@ -4,6 +4,8 @@ import cn.dev33.satoken.stp.StpUtil;
 import com.alibaba.fastjson2.JSON;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.ican.cache.CacheInvalidationBus;
+import com.ican.constant.CacheConstant;
 import com.ican.entity.Talk;
 import com.ican.enums.FilePathEnum;
 import com.ican.mapper.CommentMapper;
@@ -57,6 +59,9 @@ public class TalkService extends ServiceImpl<TalkMapper, Talk> {
     @Autowired
     private BlogFileService blogFileService;
 
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+
     public PageResult<TalkBackResp> listTalkBackVO(TalkQuery talkQuery) {
         // 查询说说数量
         Long count = talkMapper.selectCount(new LambdaQueryWrapper<Talk>()
@@ -83,6 +88,7 @@ public class TalkService extends ServiceImpl<TalkMapper, Talk> {
 
     public void deleteTalk(Integer talkId) {
         talkMapper.deleteById(talkId);
+        cacheInvalidationBus.publish(CacheConstant.TALK, talkId.toString());
     }
 
     public void updateTalk(TalkReq talk) {
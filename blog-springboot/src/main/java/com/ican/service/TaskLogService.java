@@ -2,11 +2,13 @@ package com.ican.service;
 
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.ican.entity.TaskLog;
+import com.ican.enums.LogTableEnum;
 import com.ican.mapper.TaskLogMapper;
 import com.ican.model.vo.PageResult;
 import com.ican.model.vo.query.TaskQuery;
 import com.ican.model.vo.response.TaskLogResp;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -22,6 +24,9 @@ public class TaskLogService extends ServiceImpl<TaskLogMapper, TaskLog> {
     @Autowired
     private TaskLogMapper taskLogMapper;
 
+    @Autowired
+    private LogRetentionService logRetentionService;
+
     public PageResult<TaskLogResp> listTaskLog(TaskQuery taskQuery) {
         // 查询定时任务日志数量
         Long count = taskLogMapper.selectTaskLogCount(taskQuery);
@@ -33,8 +38,12 @@ public class TaskLogService extends ServiceImpl<TaskLogMapper, TaskLog> {
         return new PageResult<>(taskLogRespList, count);
     }
 
+    /**
+     * 清空定时任务日志，分批删除耗时较长，在异步线程池中执行
+     */
+    @Async
     public void clearTaskLog() {
-        taskLogMapper.delete(null);
+        logRetentionService.purge(LogTableEnum.TASK, null);
     }
 }
 
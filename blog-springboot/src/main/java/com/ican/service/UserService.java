@@ -7,6 +7,9 @@ import cn.hutool.core.lang.Assert;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.ican.cache.CacheInvalidationBus;
+import com.ican.cache.MenuTreeCache;
+import com.ican.constant.CacheConstant;
 import com.ican.constant.CommonConstant;
 import com.ican.constant.RedisConstant;
 import com.ican.entity.User;
@@ -22,6 +25,7 @@ import com.ican.model.vo.query.OnlineUserQuery;
 import com.ican.model.vo.query.UserQuery;
 import com.ican.model.vo.request.*;
 import com.ican.model.vo.response.*;
+import com.ican.satoken.OnlineUserRegistry;
 import com.ican.strategy.context.UploadStrategyContext;
 import com.ican.utils.SecurityUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -60,6 +64,15 @@ public class UserService extends ServiceImpl<UserMapper, User> {
     @Autowired
     private UploadStrategyContext uploadStrategyContext;
 
+    @Autowired
+    private MenuTreeCache menuTreeCache;
+
+    @Autowired
+    private OnlineUserRegistry onlineUserRegistry;
+
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+
     /**
      * 获取后台登录用户信息
      * 返回用户头像、角色列表、权限标识列表，供前端动态渲染菜单和控制按钮权限
@@ -120,11 +133,23 @@ public class UserService extends ServiceImpl<UserMapper, User> {
                 .build();
     }
 
+    /**
+     * 获取用户路由
+     * 菜单只由可用角色决定，按角色集合从本地缓存中读取已生成的路由树，未命中时按同一角色集合查询并递归生成
+     *
+     * @return 路由列表
+     */
     public List<RouterResp> getUserMenu() {
-        // 查询用户菜单
-        List<UserMenuResp> userMenuRespList = menuMapper.selectMenuByUserId(StpUtil.getLoginIdAsInt());
-        // 递归生成路由,parentId为0
-        return recurRoutes(CommonConstant.PARENT_ID, userMenuRespList);
+        List<String> roleIdList = StpUtil.getRoleList();
+        return menuTreeCache.getRouters(roleIdList, () -> {
+            if (CollectionUtil.isEmpty(roleIdList)) {
+                return new ArrayList<>();
+            }
+            // 查询角色菜单，与缓存key使用同一份角色列表
+            List<UserMenuResp> userMenuRespList = menuMapper.selectMenuByRoleIds(roleIdList);
+            // 递归生成路由,parentId为0
+            return recurRoutes(CommonConstant.PARENT_ID, userMenuRespList);
+        });
     }
 
     public PageResult<UserBackResp> listUserBackVO(UserQuery userQuery) {
@@ -156,6 +181,7 @@ public class UserService extends ServiceImpl<UserMapper, User> {
                 .nickname(user.getNickname())
                 .build();
         baseMapper.updateById(newUser);
+        cacheInvalidationBus.publish(CacheConstant.USER, user.getId().toString());
         // 删除用户角色
         userRoleMapper.delete(new LambdaQueryWrapper<UserRole>().eq(UserRole::getUserId, user.getId()));
         // 重新添加用户角色
@@ -192,30 +218,14 @@ public class UserService extends ServiceImpl<UserMapper, User> {
 
     /**
      * 查看在线用户列表
-     * 通过 Sa-Token 的 searchTokenSessionId 获取所有活跃 Session，
-     * 从中提取在线用户信息，支持关键词过滤和按登录时间倒序排列，最后在内存中执行分页
+     * 从在线用户注册表（Redis ZSet + Hash）中按登录时间倒序分页读取，支持关键词过滤
      *
      * @param onlineUserQuery 查询条件（关键词、分页）
      * @return 在线用户分页结果
      */
     public PageResult<OnlineUserResp> listOnlineUser(OnlineUserQuery onlineUserQuery) {
-        // 查询所有会话token
-        List<String> tokenList = StpUtil.searchTokenSessionId("", 0, -1, false);
-        List<OnlineUserResp> onlineUserRespList = tokenList.stream()
-                .map(token -> {
-                    // 获取tokenSession
-                    SaSession sessionBySessionId = StpUtil.getSessionBySessionId(token);
-                    return (OnlineUserResp) sessionBySessionId.get(CommonConstant.ONLINE_USER);
-                })
-                .filter(onlineUserResp -> StringUtils.isEmpty(onlineUserQuery.getKeyword()) || onlineUserResp.getNickname().contains(onlineUserQuery.getKeyword()))
-                .sorted(Comparator.comparing(OnlineUserResp::getLoginTime).reversed())
-                .collect(Collectors.toList());
-        // 执行分页
-        int fromIndex = onlineUserQuery.getCurrent();
-        int size = onlineUserQuery.getSize();
-        int toIndex = onlineUserRespList.size() - fromIndex > size ? fromIndex + size : onlineUserRespList.size();
-        List<OnlineUserResp> userOnlineList = onlineUserRespList.subList(fromIndex, toIndex);
-        return new PageResult<>(userOnlineList, (long) onlineUserRespList.size());
+        return onlineUserRegistry.listOnlineUser(onlineUserQuery.getKeyword(),
+                onlineUserQuery.getCurrent(), onlineUserQuery.getSize());
     }
 
     public void kickOutUser(String token) {
@@ -253,6 +263,7 @@ public class UserService extends ServiceImpl<UserMapper, User> {
                 .username(email.getEmail())
                 .build();
         userMapper.updateById(newUser);
+        cacheInvalidationBus.publish(CacheConstant.USER, String.valueOf(userId));
     }
 
     @Transactional(rollbackFor = Exception.class)
@@ -277,6 +288,7 @@ public class UserService extends ServiceImpl<UserMapper, User> {
                 .webSite(userInfo.getWebSite())
                 .build();
         userMapper.updateById(newUser);
+        cacheInvalidationBus.publish(CacheConstant.USER, newUser.getId().toString());
     }
 
     public void updatePassword(UserReq user) {
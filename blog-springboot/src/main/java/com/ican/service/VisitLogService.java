@@ -1,16 +1,23 @@
 package com.ican.service;
 
+import cn.hutool.extra.servlet.ServletUtil;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.ican.entity.VisitLog;
+import com.ican.manager.AsyncManager;
+import com.ican.manager.factory.AsyncFactory;
 import com.ican.mapper.VisitLogMapper;
 import com.ican.model.vo.PageResult;
 import com.ican.model.vo.query.LogQuery;
+import com.ican.utils.IpUtils;
+import com.ican.utils.UserAgentUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
+import javax.servlet.http.HttpServletRequest;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 访问服务
@@ -28,6 +35,27 @@ public class VisitLogService extends ServiceImpl<VisitLogMapper, VisitLog> {
         visitLogMapper.insert(visitLog);
     }
 
+    /**
+     * 异步记录访问日志
+     *
+     * @param request 请求
+     * @param page    访问页面
+     */
+    public void recordVisit(HttpServletRequest request, String page) {
+        VisitLog visitLog = new VisitLog();
+        String ipAddress = ServletUtil.getClientIP(request);
+        String ipSource = IpUtils.getIpSource(ipAddress);
+        // 解析browser和os
+        Map<String, String> userAgentMap = UserAgentUtils.parseOsAndBrowser(request.getHeader("User-Agent"));
+        visitLog.setIpAddress(ipAddress);
+        visitLog.setIpSource(ipSource);
+        visitLog.setOs(userAgentMap.get("os"));
+        visitLog.setBrowser(userAgentMap.get("browser"));
+        visitLog.setPage(page);
+        // 保存到数据库
+        AsyncManager.getInstance().execute(AsyncFactory.recordVisit(visitLog));
+    }
+
     public PageResult<VisitLog> listVisitLog(LogQuery logQuery) {
         // 查询访问日志数量
         Long count = visitLogMapper.selectCount(new LambdaQueryWrapper<VisitLog>()
@@ -0,0 +1,110 @@
+package com.ican.utils;
+
+import com.alibaba.fastjson2.JSON;
+import com.alibaba.fastjson2.filter.ValueFilter;
+
+import java.util.*;
+
+/**
+ * 日志内容序列化工具
+ *
+ * <p>序列化请求参数和返回数据时：</p>
+ * <ul>
+ *     <li>密码、token等敏感字段替换为掩码</li>
+ *     <li>超长字符串（如文章内容）和超大集合在序列化过程中截断，不会完整生成后再丢弃</li>
+ *     <li>最终结果超过 {@link #MAX_LENGTH} 时截断</li>
+ * </ul>
+ *
+ * @author Aric
+ */
+public class LogPayloadUtils {
+
+    /**
+     * 单个日志字段最大长度
+     */
+    private static final int MAX_LENGTH = 4096;
+
+    /**
+     * 单个字符串属性最大长度
+     */
+    private static final int MAX_STRING_LENGTH = 512;
+
+    /**
+     * 单个集合属性最大元素个数
+     */
+    private static final int MAX_COLLECTION_SIZE = 20;
+
+    /**
+     * 掩码
+     */
+    private static final String MASK = "******";
+
+    /**
+     * 敏感字段关键词（小写）
+     */
+    private static final List<String> SENSITIVE_KEYWORDS = Arrays.asList("password", "token", "secret");
+
+    private static final ValueFilter PAYLOAD_FILTER = (object, name, value) -> {
+        if (Objects.isNull(value)) {
+            return null;
+        }
+        if (Objects.nonNull(name) && isSensitive(name)) {
+            return MASK;
+        }
+        if (value instanceof CharSequence && ((CharSequence) value).length() > MAX_STRING_LENGTH) {
+            return truncate(value.toString(), MAX_STRING_LENGTH);
+        }
+        if (value instanceof Collection && ((Collection<?>) value).size() > MAX_COLLECTION_SIZE) {
+            List<Object> list = new ArrayList<>(MAX_COLLECTION_SIZE);
+            Iterator<?> iterator = ((Collection<?>) value).iterator();
+            while (list.size() < MAX_COLLECTION_SIZE && iterator.hasNext()) {
+                list.add(iterator.next());
+            }
+            return list;
+        }
+        return value;
+    };
+
+    /**
+     * 序列化日志内容
+     *
+     * @param value 请求参数或返回数据
+     * @return 截断、脱敏后的 JSON
+     */
+    public static String toJSONString(Object value) {
+        String json;
+        try {
+            json = JSON.toJSONString(value, PAYLOAD_FILTER);
+        } catch (Exception e) {
+            json = value.getClass().getName();
+        }
+        return truncate(json, MAX_LENGTH);
+    }
+
+    /**
+     * 按名称脱敏单个值
+     *
+     * @param name  参数名或属性名
+     * @param value 值
+     * @return 敏感字段返回掩码，否则返回原值
+     */
+    public static Object mask(String name, Object value) {
+        if (Objects.nonNull(value) && Objects.nonNull(name) && isSensitive(name)) {
+            return MASK;
+        }
+        return value;
+    }
+
+    private static boolean isSensitive(String name) {
+        String lowerName = name.toLowerCase(Locale.ROOT);
+        return SENSITIVE_KEYWORDS.stream().anyMatch(lowerName::contains);
+    }
+
+    private static String truncate(String value, int maxLength) {
+        if (value.length() <= maxLength) {
+            return value;
+        }
+        return value.substring(0, maxLength) + "...(" + value.length() + ")";
+    }
+
+}
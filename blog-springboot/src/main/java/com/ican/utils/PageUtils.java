@@ -1,9 +1,19 @@
 package com.ican.utils;
 
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.ican.exception.ServiceException;
+import com.ican.model.dto.PageCursorDTO;
+import org.apache.commons.lang3.StringUtils;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Base64;
 import java.util.Objects;
 
+import static com.ican.enums.ZoneEnum.SHANGHAI;
+
 /**
  * 分页工具类
  *
@@ -13,6 +23,11 @@ public class PageUtils {
 
     private static final ThreadLocal<Page<?>> PAGE_HOLDER = new ThreadLocal<>();
 
+    /**
+     * 游标中创建时间与id的分隔符
+     */
+    private static final String CURSOR_SEPARATOR = "_";
+
     public static void setCurrentPage(Page<?> page) {
         PAGE_HOLDER.set(page);
     }
@@ -41,4 +56,57 @@ public class PageUtils {
         PAGE_HOLDER.remove();
     }
 
+    /**
+     * 生成按 (创建时间, id) 排序的游标
+     *
+     * @param createTime 最后一条记录的创建时间
+     * @param id         最后一条记录的id
+     * @return 游标
+     */
+    public static String encodeCursor(LocalDateTime createTime, Integer id) {
+        long timestamp = createTime.atZone(ZoneId.of(SHANGHAI.getZone())).toInstant().toEpochMilli();
+        return encode(timestamp + CURSOR_SEPARATOR + id);
+    }
+
+    /**
+     * 生成按id排序的游标
+     *
+     * @param id 最后一条记录的id
+     * @return 游标
+     */
+    public static String encodeCursor(Integer id) {
+        return encode(CURSOR_SEPARATOR + id);
+    }
+
+    /**
+     * 解析游标
+     *
+     * @param cursor 游标
+     * @return 游标信息，游标为空时返回null
+     */
+    public static PageCursorDTO decodeCursor(String cursor) {
+        if (StringUtils.isBlank(cursor)) {
+            return null;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int index = value.indexOf(CURSOR_SEPARATOR);
+            LocalDateTime createTime = null;
+            if (index > 0) {
+                createTime = LocalDateTime.ofInstant(Instant.ofEpochMilli(Long.parseLong(value.substring(0, index))),
+                        ZoneId.of(SHANGHAI.getZone()));
+            }
+            return PageCursorDTO.builder()
+                    .createTime(createTime)
+                    .id(Integer.valueOf(value.substring(index + 1)))
+                    .build();
+        } catch (IllegalArgumentException e) {
+            throw new ServiceException("分页游标无效");
+        }
+    }
+
+    private static String encode(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
 }
@@ -0,0 +1,182 @@
+package com.ican.websocket;
+
+import cn.hutool.core.util.IdUtil;
+import com.alibaba.fastjson2.JSON;
+import com.ican.enums.ChatTypeEnum;
+import com.ican.model.dto.ChatRelayDTO;
+import com.ican.model.dto.WebsocketMessageDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.IntSupplier;
+
+/**
+ * 聊天室集群转发
+ *
+ * <p>多节点部署时，每个节点只持有连接到自己的 WebSocket 会话，通过 {@link ChatRelayBroker} 把消息转发给其他节点：</p>
+ * <ul>
+ *     <li>消息先广播给本节点会话，再放入待发送批次，后台定时合并为一条消息发给其他节点</li>
+ *     <li>各节点上报本地在线人数和心跳，在线人数为所有存活节点之和</li>
+ *     <li>心跳超时的节点视为宕机，由任一存活节点在上报心跳时一并清理</li>
+ * </ul>
+ *
+ * @author Aric
+ */
+@Slf4j
+@Component
+public class ChatClusterRelay {
+
+    /**
+     * 批次发送间隔（毫秒）
+     */
+    private static final long FLUSH_INTERVAL = 50;
+
+    /**
+     * 心跳间隔（秒）
+     */
+    private static final long HEARTBEAT_INTERVAL = 10;
+
+    /**
+     * 节点心跳超时时间（毫秒）
+     */
+    private static final long NODE_EXPIRE_TIME = 30000;
+
+    /**
+     * 当前节点id
+     */
+    private final String nodeId = IdUtil.fastSimpleUUID();
+
+    /**
+     * 待发送消息
+     */
+    private List<String> pendingList = new ArrayList<>();
+
+    /**
+     * 本节点会话广播
+     */
+    Consumer<String> localSender = WebsocketService::broadcastLocal;
+
+    /**
+     * 本节点在线人数
+     */
+    IntSupplier localCounter = WebsocketService::getLocalOnlineCount;
+
+    @Autowired
+    private ChatRelayBroker chatRelayBroker;
+
+    @Autowired
+    private ScheduledExecutorService scheduledExecutorService;
+
+    @PostConstruct
+    public void init() {
+        chatRelayBroker.subscribe(this::receive);
+        scheduledExecutorService.scheduleWithFixedDelay(this::flush, FLUSH_INTERVAL, FLUSH_INTERVAL, TimeUnit.MILLISECONDS);
+        scheduledExecutorService.scheduleWithFixedDelay(this::heartbeat, 0, HEARTBEAT_INTERVAL, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        flush();
+        try {
+            chatRelayBroker.remove(nodeId);
+        } catch (Exception e) {
+            log.warn("聊天室节点下线清理失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 广播消息到所有节点的会话
+     *
+     * @param message 消息
+     */
+    public void broadcast(String message) {
+        localSender.accept(message);
+        synchronized (this) {
+            pendingList.add(message);
+        }
+    }
+
+    /**
+     * 更新本节点在线人数，并向所有节点广播集群在线人数
+     *
+     * @param localCount 本节点在线人数
+     */
+    public void updateOnlineCount(int localCount) {
+        try {
+            chatRelayBroker.heartbeat(nodeId, localCount, NODE_EXPIRE_TIME);
+            broadcastOnlineCount();
+        } catch (Exception e) {
+            log.warn("聊天室在线人数更新失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 接收其他节点转发的消息
+     *
+     * @param relay 转发消息
+     */
+    void receive(ChatRelayDTO relay) {
+        if (nodeId.equals(relay.getNodeId()) || Objects.isNull(relay.getMessageList())) {
+            return;
+        }
+        relay.getMessageList().forEach(localSender);
+    }
+
+    /**
+     * 发送待转发消息
+     */
+    void flush() {
+        List<String> messageList;
+        synchronized (this) {
+            if (pendingList.isEmpty()) {
+                return;
+            }
+            messageList = pendingList;
+            pendingList = new ArrayList<>();
+        }
+        try {
+            chatRelayBroker.publish(ChatRelayDTO.builder()
+                    .nodeId(nodeId)
+                    .messageList(messageList)
+                    .build());
+        } catch (Exception e) {
+            log.warn("聊天室消息转发失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 上报心跳并清理超时节点
+     */
+    void heartbeat() {
+        try {
+            long expired = chatRelayBroker.heartbeat(nodeId, localCounter.getAsInt(), NODE_EXPIRE_TIME);
+            if (expired > 0) {
+                log.info("清理超时聊天室节点: {}", expired);
+                broadcastOnlineCount();
+            }
+        } catch (Exception e) {
+            log.warn("聊天室节点心跳失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 汇总集群在线人数并广播
+     */
+    private void broadcastOnlineCount() {
+        WebsocketMessageDTO messageDTO = WebsocketMessageDTO.builder()
+                .type(ChatTypeEnum.ONLINE_COUNT.getType())
+                .data(chatRelayBroker.sumOnlineCount())
+                .build();
+        broadcast(JSON.toJSONString(messageDTO));
+    }
+
+}
@@ -0,0 +1,54 @@
+package com.ican.websocket;
+
+import com.ican.model.dto.ChatRelayDTO;
+
+import java.util.function.Consumer;
+
+/**
+ * 聊天室跨节点消息与在线人数的传输
+ *
+ * <p>生产环境为 {@link RedisChatRelayBroker}，测试可替换为进程内实现。</p>
+ *
+ * @author Aric
+ */
+public interface ChatRelayBroker {
+
+    /**
+     * 发布转发消息
+     *
+     * @param relay 转发消息
+     */
+    void publish(ChatRelayDTO relay);
+
+    /**
+     * 订阅转发消息，包含本节点发出的消息
+     *
+     * @param consumer 消息处理
+     */
+    void subscribe(Consumer<ChatRelayDTO> consumer);
+
+    /**
+     * 上报本节点在线人数和心跳，同时原子地清理心跳超时的节点
+     *
+     * @param nodeId       节点id
+     * @param localCount   本节点在线人数
+     * @param expireMillis 心跳超时时间（毫秒）
+     * @return 清理的节点数
+     */
+    long heartbeat(String nodeId, int localCount, long expireMillis);
+
+    /**
+     * 移除节点
+     *
+     * @param nodeId 节点id
+     */
+    void remove(String nodeId);
+
+    /**
+     * 汇总所有节点的在线人数
+     *
+     * @return 在线人数
+     */
+    int sumOnlineCount();
+
+}
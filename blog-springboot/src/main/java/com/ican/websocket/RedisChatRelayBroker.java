@@ -0,0 +1,112 @@
+package com.ican.websocket;
+
+import com.ican.constant.RedisConstant;
+import com.ican.model.dto.ChatRelayDTO;
+import com.ican.service.RedisService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * 基于 Redis 的聊天室转发
+ *
+ * <ul>
+ *     <li>消息通过 pub/sub 频道转发</li>
+ *     <li>各节点在线人数和心跳时间分别存放在两个 Hash 中，心跳时间取 Redis 服务器时间，不受节点时钟偏差影响</li>
+ *     <li>上报心跳和清理超时节点在同一个 Lua 脚本中执行，不会误删刚刚续期的节点</li>
+ * </ul>
+ *
+ * @author Aric
+ */
+@Component
+public class RedisChatRelayBroker implements ChatRelayBroker {
+
+    /**
+     * KEYS[1] 在线人数Hash，KEYS[2] 心跳Hash；ARGV[1] 节点id，ARGV[2] 在线人数，ARGV[3] 超时时间（毫秒）
+     */
+    private static final RedisScript<Long> HEARTBEAT_SCRIPT = new DefaultRedisScript<>(
+            "local time = redis.call('TIME')\n" +
+                    "local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)\n" +
+                    "redis.call('HSET', KEYS[1], ARGV[1], ARGV[2])\n" +
+                    "redis.call('HSET', KEYS[2], ARGV[1], now)\n" +
+                    "local expired = 0\n" +
+                    "local heartbeats = redis.call('HGETALL', KEYS[2])\n" +
+                    "for i = 1, #heartbeats, 2 do\n" +
+                    "    local last = tonumber(heartbeats[i + 1])\n" +
+                    "    if last == nil or now - last > tonumber(ARGV[3]) then\n" +
+                    "        redis.call('HDEL', KEYS[1], heartbeats[i])\n" +
+                    "        redis.call('HDEL', KEYS[2], heartbeats[i])\n" +
+                    "        expired = expired + 1\n" +
+                    "    end\n" +
+                    "end\n" +
+                    "local nodes = redis.call('HKEYS', KEYS[1])\n" +
+                    "for i = 1, #nodes do\n" +
+                    "    if redis.call('HEXISTS', KEYS[2], nodes[i]) == 0 then\n" +
+                    "        redis.call('HDEL', KEYS[1], nodes[i])\n" +
+                    "        expired = expired + 1\n" +
+                    "    end\n" +
+                    "end\n" +
+                    "return expired", Long.class);
+
+    private final StringRedisSerializer stringRedisSerializer = new StringRedisSerializer();
+
+    @Autowired
+    private RedisService redisService;
+
+    @Resource
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Autowired
+    private RedisMessageListenerContainer redisMessageListenerContainer;
+
+    @Override
+    public void publish(ChatRelayDTO relay) {
+        redisService.publish(RedisConstant.CHAT_RELAY_TOPIC, relay);
+    }
+
+    @Override
+    public void subscribe(Consumer<ChatRelayDTO> consumer) {
+        redisMessageListenerContainer.addMessageListener((message, pattern) -> {
+            Object body = redisTemplate.getValueSerializer().deserialize(message.getBody());
+            if (body instanceof ChatRelayDTO) {
+                consumer.accept((ChatRelayDTO) body);
+            }
+        }, new ChannelTopic(RedisConstant.CHAT_RELAY_TOPIC));
+    }
+
+    @Override
+    public long heartbeat(String nodeId, int localCount, long expireMillis) {
+        Long expired = redisTemplate.execute(HEARTBEAT_SCRIPT, stringRedisSerializer, stringRedisSerializer,
+                Arrays.asList(RedisConstant.CHAT_ONLINE_COUNT, RedisConstant.CHAT_NODE_HEARTBEAT),
+                nodeId, String.valueOf(localCount), String.valueOf(expireMillis));
+        return Optional.ofNullable(expired).orElse(0L);
+    }
+
+    @Override
+    public void remove(String nodeId) {
+        redisService.deleteHash(RedisConstant.CHAT_ONLINE_COUNT, nodeId);
+        redisService.deleteHash(RedisConstant.CHAT_NODE_HEARTBEAT, nodeId);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public int sumOnlineCount() {
+        Map<String, Object> countMap = redisService.getHashAll(RedisConstant.CHAT_ONLINE_COUNT);
+        return countMap.values().stream()
+                .filter(count -> count instanceof Number)
+                .mapToInt(count -> ((Number) count).intValue())
+                .sum();
+    }
+
+}
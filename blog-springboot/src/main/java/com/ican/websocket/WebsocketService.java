@@ -43,8 +43,15 @@ public class WebsocketService {
         WebsocketService.chatRecordMapper = chatRecordMapper;
     }
 
+    private static ChatClusterRelay chatClusterRelay;
+
+    @Autowired
+    public void setChatClusterRelay(ChatClusterRelay chatClusterRelay) {
+        WebsocketService.chatClusterRelay = chatClusterRelay;
+    }
+
     /**
-     * 在线人数
+     * 本节点在线人数
      */
     private static final AtomicInteger ONLINE_NUM = new AtomicInteger();
 
@@ -154,7 +161,7 @@ public class WebsocketService {
      * @param message 消息
      * @throws IOException io异常
      */
-    private void sendMessage(Session session, String message) throws IOException {
+    private static void sendMessage(Session session, String message) throws IOException {
         if (session != null && session.isOpen()) {
             synchronized (session) {
                 session.getBasicRemote().sendText(message);
@@ -163,11 +170,20 @@ public class WebsocketService {
     }
 
     /**
-     * 群发消息
+     * 群发消息（所有节点）
      *
      * @param message 消息
      */
     private void broadcastMessage(String message) {
+        chatClusterRelay.broadcast(message);
+    }
+
+    /**
+     * 群发消息（本节点）
+     *
+     * @param message 消息
+     */
+    static void broadcastLocal(String message) {
         for (Session session : WS_CONNECTIONS.values()) {
             try {
                 sendMessage(session, message);
@@ -178,16 +194,19 @@ public class WebsocketService {
     }
 
     /**
-     * 更新在线人数
+     * 获取本节点在线人数
+     *
+     * @return 在线人数
+     */
+    static int getLocalOnlineCount() {
+        return ONLINE_NUM.get();
+    }
+
+    /**
+     * 更新在线人数，由集群转发汇总所有节点后广播
      */
     private void updateOnlineCount() {
-        // 获取当前在线人数
-        WebsocketMessageDTO messageDTO = WebsocketMessageDTO.builder()
-                .type(ChatTypeEnum.ONLINE_COUNT.getType())
-                .data(ONLINE_NUM)
-                .build();
-        // 广播消息
-        broadcastMessage(JSON.toJSONString(messageDTO));
+        chatClusterRelay.updateOnlineCount(ONLINE_NUM.get());
     }
 
     /**
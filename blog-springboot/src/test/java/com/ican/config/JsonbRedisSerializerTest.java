@@ -0,0 +1,97 @@
+package com.ican.config;
+
+import com.ican.config.serializer.JsonbRedisSerializer;
+import com.ican.entity.SiteConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JSONB Redis序列化器测试
+ *
+ * @author Aric
+ */
+class JsonbRedisSerializerTest {
+
+    private static final byte MAGIC = (byte) 0xFE;
+
+    private static final int COMPRESS_THRESHOLD = 1024;
+
+    private final RedisSerializer<Object> jackson = RedisConfig.jackson2JsonRedisSerializer();
+
+    private final JsonbRedisSerializer jsonb = new JsonbRedisSerializer(jackson, true, COMPRESS_THRESHOLD);
+
+    /**
+     * 迁移模式：写入旧格式，读取两种格式
+     */
+    private final JsonbRedisSerializer migration = new JsonbRedisSerializer(jackson, false, COMPRESS_THRESHOLD);
+
+    @Test
+    void roundTripJsonb() {
+        SiteConfig siteConfig = siteConfig(1);
+        byte[] bytes = jsonb.serialize(siteConfig);
+        assertEquals(MAGIC, bytes[0]);
+        assertEquals(0, bytes[1]);
+        assertEquals(siteConfig, jsonb.deserialize(bytes));
+        List<Integer> list = new ArrayList<>(List.of(1, 2, 3));
+        assertEquals(list, jsonb.deserialize(jsonb.serialize(list)));
+    }
+
+    @Test
+    void compressAboveThreshold() {
+        SiteConfig small = siteConfig(1);
+        assertEquals(0, jsonb.serialize(small)[1]);
+        SiteConfig large = siteConfig(200);
+        byte[] bytes = jsonb.serialize(large);
+        assertEquals(MAGIC, bytes[0]);
+        assertEquals(1, bytes[1]);
+        assertTrue(bytes.length < COMPRESS_THRESHOLD);
+        assertEquals(large, jsonb.deserialize(bytes));
+        // 阈值为0时不压缩
+        assertEquals(0, new JsonbRedisSerializer(jackson, true, 0).serialize(large)[1]);
+    }
+
+    @Test
+    void readLegacyJson() {
+        SiteConfig siteConfig = siteConfig(1);
+        assertEquals(siteConfig, jsonb.deserialize(jackson.serialize(siteConfig)));
+        // INCR 写入的纯数字
+        assertEquals(5, jsonb.deserialize("5".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void migrationWritesLegacyAndReadsBoth() {
+        SiteConfig siteConfig = siteConfig(200);
+        byte[] legacyBytes = migration.serialize(siteConfig);
+        assertNotEquals(MAGIC, legacyBytes[0]);
+        assertEquals(siteConfig, jackson.deserialize(legacyBytes));
+        // 已切换的节点写入的数据，迁移模式的节点也能读取
+        assertEquals(siteConfig, migration.deserialize(jsonb.serialize(siteConfig)));
+    }
+
+    @Test
+    void handleNullAndEmpty() {
+        assertEquals(0, jsonb.serialize(null).length);
+        assertNull(jsonb.deserialize(null));
+        assertNull(jsonb.deserialize(new byte[0]));
+    }
+
+    private static SiteConfig siteConfig(int noticeRepeat) {
+        SiteConfig siteConfig = new SiteConfig();
+        siteConfig.setId(1);
+        siteConfig.setSiteName("Aric的博客");
+        siteConfig.setSiteNotice(String.join("", Collections.nCopies(noticeRepeat, "欢迎来到我的博客，")));
+        siteConfig.setSiteAuthor("Aric");
+        siteConfig.setIsChat(1);
+        siteConfig.setCreateTime(LocalDateTime.of(2022, 12, 1, 10, 0));
+        return siteConfig;
+    }
+
+}
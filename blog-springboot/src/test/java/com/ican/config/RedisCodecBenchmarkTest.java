@@ -0,0 +1,148 @@
+package com.ican.config;
+
+import com.ican.config.serializer.JsonbRedisSerializer;
+import com.ican.entity.SiteConfig;
+import com.ican.model.vo.response.ArticleHomeResp;
+import com.ican.model.vo.response.CategoryOptionResp;
+import com.ican.model.vo.response.OnlineUserResp;
+import com.ican.model.vo.response.TagOptionResp;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Redis值序列化对比
+ *
+ * <p>对比 Jackson JSON、JSONB、JSONB + 压缩三种编码的存储字节数和序列化/反序列化耗时，结果输出到日志。
+ * 默认构建不运行，需要时执行 {@code mvn test -Dgroups=benchmark}；编码的正确性由 JsonbRedisSerializerTest 覆盖。</p>
+ *
+ * @author Aric
+ */
+@Slf4j
+@Tag("benchmark")
+class RedisCodecBenchmarkTest {
+
+    private static final int WARMUP = 2000;
+
+    private static final int ITERATIONS = 20000;
+
+    private final RedisSerializer<Object> jackson = RedisConfig.jackson2JsonRedisSerializer();
+
+    private final RedisSerializer<Object> jsonb = new JsonbRedisSerializer(jackson, true, 0);
+
+    private final RedisSerializer<Object> jsonbDeflate = new JsonbRedisSerializer(jackson, true, 1024);
+
+    @Test
+    void benchmark() {
+        log.info(String.format("%-14s %-14s %10s %12s %12s", "payload", "codec", "bytes", "ser(ns/op)", "de(ns/op)"));
+        run("siteConfig", siteConfig());
+        run("onlineUsers", onlineUserList());
+        run("articleList", articleList());
+    }
+
+    private void run(String name, Object value) {
+        measure(name, "jackson", jackson, value);
+        measure(name, "jsonb", jsonb, value);
+        measure(name, "jsonb+deflate", jsonbDeflate, value);
+    }
+
+    private void measure(String name, String codec, RedisSerializer<Object> serializer, Object value) {
+        byte[] bytes = serializer.serialize(value);
+        assertEquals(value, serializer.deserialize(bytes));
+        for (int i = 0; i < WARMUP; i++) {
+            serializer.deserialize(serializer.serialize(value));
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            serializer.serialize(value);
+        }
+        long serializeNanos = (System.nanoTime() - start) / ITERATIONS;
+        start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            serializer.deserialize(bytes);
+        }
+        long deserializeNanos = (System.nanoTime() - start) / ITERATIONS;
+        log.info(String.format("%-14s %-14s %10d %12d %12d", name, codec, bytes.length, serializeNanos, deserializeNanos));
+    }
+
+    private static SiteConfig siteConfig() {
+        SiteConfig siteConfig = new SiteConfig();
+        siteConfig.setId(1);
+        siteConfig.setSiteName("Aric的博客");
+        siteConfig.setSiteAddress("https://ariconline.top");
+        siteConfig.setSiteIntro("记录学习与生活");
+        siteConfig.setSiteNotice(String.join("", Collections.nCopies(20, "欢迎来到我的博客，")));
+        siteConfig.setSiteAuthor("Aric");
+        siteConfig.setUserAvatar("https://static.ariconline.top/config/user.png");
+        siteConfig.setTouristAvatar("https://static.ariconline.top/config/tourist.png");
+        siteConfig.setAuthorAvatar("https://static.ariconline.top/config/author.png");
+        siteConfig.setArticleCover("https://static.ariconline.top/config/cover.png");
+        siteConfig.setAboutMe(String.join("\n", Collections.nCopies(30, "## 关于我\n一名后端开发者。")));
+        siteConfig.setSocialList("gitee,github,qq");
+        siteConfig.setLoginList("gitee,github,qq");
+        siteConfig.setCommentCheck(0);
+        siteConfig.setMessageCheck(0);
+        siteConfig.setIsReward(1);
+        siteConfig.setEmailNotice(1);
+        siteConfig.setIsMusic(1);
+        siteConfig.setMusicId("7611185981");
+        siteConfig.setIsChat(1);
+        siteConfig.setWebsocketUrl("wss://ariconline.top/websocket");
+        siteConfig.setCreateTime(LocalDateTime.of(2022, 12, 1, 10, 0));
+        return siteConfig;
+    }
+
+    private static List<OnlineUserResp> onlineUserList() {
+        List<OnlineUserResp> list = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            list.add(OnlineUserResp.builder()
+                    .id(i)
+                    .token("e0b1c4f2-8c1a-4f4e-9a3d-" + String.format("%012d", i))
+                    .avatar("https://static.ariconline.top/avatar/" + i + ".png")
+                    .nickname("用户" + i)
+                    .ipAddress("192.168.1." + i)
+                    .ipSource("广东省深圳市")
+                    .os("Windows 10")
+                    .browser("Chrome 120")
+                    .loginTime(LocalDateTime.of(2023, 1, 1, 8, i))
+                    .build());
+        }
+        return list;
+    }
+
+    private static List<ArticleHomeResp> articleList() {
+        List<ArticleHomeResp> list = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            CategoryOptionResp category = new CategoryOptionResp();
+            category.setId(i % 3);
+            category.setCategoryName("分类" + i % 3);
+            List<TagOptionResp> tagList = new ArrayList<>();
+            for (int j = 0; j < 3; j++) {
+                TagOptionResp tag = new TagOptionResp();
+                tag.setId(j);
+                tag.setTagName("标签" + j);
+                tagList.add(tag);
+            }
+            ArticleHomeResp article = new ArticleHomeResp();
+            article.setId(i);
+            article.setArticleTitle("文章标题" + i);
+            article.setArticleCover("https://static.ariconline.top/article/" + i + ".png");
+            article.setArticleDesc(String.join("", Collections.nCopies(10, "这是一段文章摘要。")));
+            article.setCategory(category);
+            article.setTagVOList(tagList);
+            article.setIsTop(0);
+            article.setCreateTime(LocalDateTime.of(2023, 3, 1, 12, i));
+            list.add(article);
+        }
+        return list;
+    }
+
+}
@@ -0,0 +1,131 @@
+package com.ican.service;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.json.jackson.JacksonJsonpMapper;
+import co.elastic.clients.transport.rest_client.RestClientTransport;
+import com.ican.config.properties.ElasticsearchProperties;
+import com.ican.exception.ServiceException;
+import org.apache.http.HttpHost;
+import org.elasticsearch.client.RestClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * es批量写入测试，_bulk 接口由 {@link ElasticsearchStub} 提供
+ *
+ * @author Aric
+ */
+class ElasticsearchBulkIndexerTest {
+
+    private static final String INDEX = "article";
+
+    private ElasticsearchStub stub;
+
+    private RestClient restClient;
+
+    private ScheduledExecutorService executorService;
+
+    private ElasticsearchProperties properties;
+
+    private ElasticsearchBulkIndexer indexer;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        stub = new ElasticsearchStub();
+        restClient = RestClient.builder(new HttpHost("localhost", stub.getPort())).build();
+        executorService = Executors.newSingleThreadScheduledExecutor();
+        properties = new ElasticsearchProperties();
+        properties.setSocketTimeout(2000);
+        properties.setFlushInterval(50);
+        properties.setOfferTimeout(100);
+        properties.setRetryDelay(10);
+        indexer = new ElasticsearchBulkIndexer();
+        ReflectionTestUtils.setField(indexer, "elasticsearchClient",
+                new ElasticsearchClient(new RestClientTransport(restClient, new JacksonJsonpMapper())));
+        ReflectionTestUtils.setField(indexer, "elasticsearchProperties", properties);
+        ReflectionTestUtils.setField(indexer, "elasticsearchExecutorService", executorService);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        executorService.shutdownNow();
+        restClient.close();
+        stub.close();
+    }
+
+    @Test
+    void mergeOperationsIntoOneBulkRequest() {
+        // 定时发送不会在写入期间触发，攒满一批后立即发送
+        properties.setFlushInterval(60000);
+        properties.setBulkSize(11);
+        indexer.init();
+        List<CompletableFuture<Void>> futureList = new ArrayList<>();
+        for (int i = 1; i <= 10; i++) {
+            futureList.add(indexer.index(INDEX, String.valueOf(i), Map.of("articleTitle", "title" + i), i));
+        }
+        futureList.add(indexer.delete(INDEX, "11", 11));
+        indexer.await(futureList);
+        assertEquals(1, stub.getBulkList().size());
+        assertEquals(11, stub.getBulkList().get(0).size());
+    }
+
+    @Test
+    void retryTooManyRequests() {
+        stub.respond("1", 429, 503);
+        indexer.init();
+        indexer.await(List.of(indexer.index(INDEX, "1", Map.of("articleTitle", "title"), 1)));
+        assertEquals(3, stub.getRequestCount());
+    }
+
+    @Test
+    void treatConflictAsSuccess() {
+        stub.respond("1", 409);
+        indexer.init();
+        indexer.await(List.of(indexer.index(INDEX, "1", Map.of("articleTitle", "title"), 1)));
+        assertEquals(1, stub.getRequestCount());
+    }
+
+    @Test
+    void failOnConflictWhenNotIgnored() {
+        stub.respond("1", 409);
+        indexer.init();
+        ServiceException exception = assertThrows(ServiceException.class,
+                () -> indexer.await(List.of(indexer.index(INDEX, "1", Map.of("articleTitle", "title"), 1, false))));
+        assertTrue(exception.getMessage().contains("status 409"));
+        assertEquals(1, stub.getRequestCount());
+    }
+
+    @Test
+    void failOnClientError() {
+        stub.respond("1", 400);
+        indexer.init();
+        List<CompletableFuture<Void>> futureList = List.of(indexer.index(INDEX, "1", Map.of("articleTitle", "title"), 1),
+                indexer.index(INDEX, "2", Map.of("articleTitle", "title"), 2));
+        ServiceException exception = assertThrows(ServiceException.class, () -> indexer.await(futureList));
+        assertTrue(exception.getMessage().contains("status 400"));
+        assertTrue(futureList.get(1).isDone() && !futureList.get(1).isCompletedExceptionally());
+    }
+
+    @Test
+    void giveUpAfterMaxRetry() {
+        properties.setMaxRetry(2);
+        stub.respond("1", 503, 503, 503);
+        indexer.init();
+        assertThrows(ServiceException.class,
+                () -> indexer.await(List.of(indexer.index(INDEX, "1", Map.of("articleTitle", "title"), 1))));
+        assertEquals(3, stub.getRequestCount());
+    }
+
+}
@@ -0,0 +1,123 @@
+package com.ican.service;
+
+import com.alibaba.fastjson2.JSON;
+import com.alibaba.fastjson2.JSONArray;
+import com.alibaba.fastjson2.JSONObject;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 进程内的 es _bulk 接口，替代真实集群用于测试，可按文档id预设每次写入的响应状态
+ *
+ * @author Aric
+ */
+class ElasticsearchStub implements AutoCloseable {
+
+    private static final int CREATED = 201;
+
+    private final HttpServer server;
+
+    /**
+     * 文档id -> 依次返回的状态码，用完后返回 201
+     */
+    private final Map<String, Deque<Integer>> statusMap = new ConcurrentHashMap<>();
+
+    /**
+     * 每次 _bulk 请求中的文档id
+     */
+    private final List<List<String>> bulkList = new CopyOnWriteArrayList<>();
+
+    private final AtomicInteger requestCount = new AtomicInteger();
+
+    ElasticsearchStub() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    void respond(String id, Integer... statusList) {
+        statusMap.put(id, new ArrayDeque<>(Arrays.asList(statusList)));
+    }
+
+    List<List<String>> getBulkList() {
+        return bulkList;
+    }
+
+    int getRequestCount() {
+        return requestCount.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requestCount.incrementAndGet();
+        if (!exchange.getRequestURI().getPath().endsWith("/_bulk")) {
+            send(exchange, 404, new JSONObject());
+            return;
+        }
+        String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        Iterator<String> lineIterator = Arrays.stream(body.split("\n")).filter(line -> !line.isBlank()).iterator();
+        List<String> idList = new ArrayList<>();
+        JSONArray itemArray = new JSONArray();
+        boolean errors = false;
+        while (lineIterator.hasNext()) {
+            JSONObject action = JSON.parseObject(lineIterator.next());
+            String type = action.keySet().iterator().next();
+            JSONObject meta = action.getJSONObject(type);
+            if (!"delete".equals(type)) {
+                // 文档行
+                lineIterator.next();
+            }
+            String id = meta.getString("_id");
+            idList.add(id);
+            int status = Optional.ofNullable(statusMap.get(id)).map(Deque::poll).orElse(CREATED);
+            JSONObject item = new JSONObject();
+            item.put("_index", meta.getString("_index"));
+            item.put("_id", id);
+            item.put("status", status);
+            if (status >= 300) {
+                errors = true;
+                JSONObject error = new JSONObject();
+                error.put("type", "stub_exception");
+                error.put("reason", "status " + status);
+                item.put("error", error);
+            }
+            JSONObject wrapper = new JSONObject();
+            wrapper.put(type, item);
+            itemArray.add(wrapper);
+        }
+        bulkList.add(idList);
+        JSONObject response = new JSONObject();
+        response.put("took", 1);
+        response.put("errors", errors);
+        response.put("items", itemArray);
+        send(exchange, 200, response);
+    }
+
+    private static void send(HttpExchange exchange, int status, JSONObject response) throws IOException {
+        byte[] bytes = response.toJSONString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.getResponseHeaders().add("X-Elastic-Product", "Elasticsearch");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(bytes);
+        }
+    }
+
+}
@@ -0,0 +1,209 @@
+package com.ican.service;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.ican.config.properties.MailOutboxProperties;
+import com.ican.entity.MailOutbox;
+import com.ican.mapper.MailOutboxMapper;
+import com.ican.model.dto.MailDTO;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.thymeleaf.TemplateEngine;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 发件箱发送测试，SMTP服务由 {@link SmtpStub} 提供
+ *
+ * @author Aric
+ */
+class MailOutboxServiceTest {
+
+    private static final int PENDING = 0;
+
+    private static final int SENT = 1;
+
+    private static final int FAILED = 2;
+
+    private SmtpStub stub;
+
+    private EmailService emailService;
+
+    private MailOutboxMapper mailOutboxMapper;
+
+    private MailOutboxProperties properties;
+
+    private MailOutboxService mailOutboxService;
+
+    @BeforeAll
+    static void initTableInfo() {
+        // LambdaUpdateWrapper 解析列名依赖实体的表信息
+        TableInfoHelper.initTableInfo(new MapperBuilderAssistant(new MybatisConfiguration(), ""), MailOutbox.class);
+    }
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws IOException {
+        stub = new SmtpStub();
+        JavaMailSenderImpl javaMailSender = new JavaMailSenderImpl();
+        javaMailSender.setHost("localhost");
+        javaMailSender.setPort(stub.getPort());
+        emailService = new EmailService();
+        ReflectionTestUtils.setField(emailService, "email", "blog@test.local");
+        ReflectionTestUtils.setField(emailService, "javaMailSender", javaMailSender);
+        ReflectionTestUtils.setField(emailService, "templateEngine", new TemplateEngine());
+        mailOutboxMapper = mock(MailOutboxMapper.class);
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<Object>>getArgument(0).doInTransaction(null));
+        properties = new MailOutboxProperties();
+        properties.setMaxRetry(3);
+        properties.setRetryDelay(1000);
+        mailOutboxService = new MailOutboxService();
+        ReflectionTestUtils.setField(mailOutboxService, "mailOutboxMapper", mailOutboxMapper);
+        ReflectionTestUtils.setField(mailOutboxService, "emailService", emailService);
+        ReflectionTestUtils.setField(mailOutboxService, "mailOutboxProperties", properties);
+        ReflectionTestUtils.setField(mailOutboxService, "transactionTemplate", transactionTemplate);
+        ReflectionTestUtils.setField(mailOutboxService, "mailExecutorService", mock(ScheduledExecutorService.class));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        stub.close();
+    }
+
+    @Test
+    void sendBatchOverOneConnection() {
+        List<MailDTO> mailList = List.of(mail("a@test.local"), mail("b@test.local"), mail("c@test.local"));
+
+        Map<Integer, Exception> failMap = emailService.sendBatch(mailList);
+
+        assertTrue(failMap.isEmpty());
+        assertEquals(List.of("a@test.local", "b@test.local", "c@test.local"), stub.getRecipientList());
+        assertEquals(1, stub.getConnectionCount());
+    }
+
+    @Test
+    void sendBatchReportsFailedIndex() {
+        stub.reject("b@test.local");
+        List<MailDTO> mailList = List.of(mail("a@test.local"), mail("b@test.local"), mail("c@test.local"));
+
+        Map<Integer, Exception> failMap = emailService.sendBatch(mailList);
+
+        // 拒收的邮件不影响同一连接上的后续邮件
+        assertEquals(Set.of(1), failMap.keySet());
+        assertEquals(List.of("a@test.local", "c@test.local"), stub.getRecipientList());
+        assertEquals(1, stub.getConnectionCount());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void partialFailureOnlyRetriesFailedRow() {
+        stub.reject("b@test.local");
+        when(mailOutboxMapper.selectDueForUpdate(any(), anyInt()))
+                .thenReturn(List.of(outbox(1, "a@test.local"), outbox(2, "b@test.local"), outbox(3, "c@test.local")))
+                .thenReturn(Collections.emptyList());
+
+        mailOutboxService.dispatch();
+
+        ArgumentCaptor<LocalDateTime> nowCaptor = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(mailOutboxMapper).selectDueForUpdate(nowCaptor.capture(), eq(properties.getBatchSize()));
+        // 领取后延后下次发送时间作为租约
+        verify(mailOutboxMapper).updateNextTime(eq(List.of(1, 2, 3)), any());
+        // 成功的邮件标记为已发送
+        ArgumentCaptor<LambdaUpdateWrapper<MailOutbox>> wrapperCaptor = ArgumentCaptor.forClass(LambdaUpdateWrapper.class);
+        verify(mailOutboxMapper).update(isNull(), wrapperCaptor.capture());
+        Collection<Object> paramList = wrapperCaptor.getValue().getParamNameValuePairs().values();
+        assertTrue(paramList.containsAll(List.of(SENT, 1, 3)));
+        assertFalse(paramList.contains(2));
+        // 失败的邮件单独安排重试
+        ArgumentCaptor<MailOutbox> retryCaptor = ArgumentCaptor.forClass(MailOutbox.class);
+        verify(mailOutboxMapper).updateById(retryCaptor.capture());
+        MailOutbox retry = retryCaptor.getValue();
+        assertEquals(2, retry.getId());
+        assertEquals(PENDING, retry.getStatus());
+        assertEquals(1, retry.getRetryCount());
+        assertEquals(nowCaptor.getValue().plusSeconds(1), retry.getNextTime());
+        assertTrue(retry.getErrorInfo().contains("b@test.local"));
+    }
+
+    @Test
+    void retryWithBackoffUntilFailed() {
+        stub.reject("b@test.local");
+        MailOutbox mail = outbox(2, "b@test.local");
+        // 模拟数据库中的记录随每次发送结果更新
+        when(mailOutboxMapper.selectDueForUpdate(any(), anyInt())).thenAnswer(invocation ->
+                PENDING == mail.getStatus() ? List.of(copy(mail)) : Collections.emptyList());
+        when(mailOutboxMapper.updateById(any(MailOutbox.class))).thenAnswer(invocation -> {
+            MailOutbox update = invocation.getArgument(0);
+            mail.setStatus(update.getStatus());
+            mail.setRetryCount(update.getRetryCount());
+            mail.setNextTime(update.getNextTime());
+            mail.setErrorInfo(update.getErrorInfo());
+            return 1;
+        });
+
+        List<Duration> delayList = new ArrayList<>();
+        for (int i = 0; i <= properties.getMaxRetry(); i++) {
+            mailOutboxService.dispatch();
+            delayList.add(Duration.between(lastNow(), mail.getNextTime()));
+        }
+        mailOutboxService.dispatch();
+
+        // 每次重试间隔翻倍，超过最大重试次数后标记为失败，不再领取
+        assertEquals(List.of(Duration.ofSeconds(1), Duration.ofSeconds(2), Duration.ofSeconds(4), Duration.ofSeconds(8)), delayList);
+        assertEquals(FAILED, mail.getStatus());
+        assertEquals(properties.getMaxRetry() + 1, mail.getRetryCount());
+        verify(mailOutboxMapper, times(properties.getMaxRetry() + 1)).updateById(any(MailOutbox.class));
+        assertTrue(stub.getRecipientList().isEmpty());
+    }
+
+    private LocalDateTime lastNow() {
+        ArgumentCaptor<LocalDateTime> nowCaptor = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(mailOutboxMapper, atLeastOnce()).selectDueForUpdate(nowCaptor.capture(), anyInt());
+        return nowCaptor.getValue();
+    }
+
+    private static MailDTO mail(String toEmail) {
+        return MailDTO.builder()
+                .toEmail(toEmail)
+                .subject("评论提醒")
+                .content("您收到一条新的回复")
+                .build();
+    }
+
+    private static MailOutbox outbox(Integer id, String toEmail) {
+        return MailOutbox.builder()
+                .id(id)
+                .toEmail(toEmail)
+                .subject("评论提醒")
+                .content("您收到一条新的回复")
+                .status(PENDING)
+                .retryCount(0)
+                .build();
+    }
+
+    private static MailOutbox copy(MailOutbox mail) {
+        MailOutbox copy = outbox(mail.getId(), mail.getToEmail());
+        copy.setRetryCount(mail.getRetryCount());
+        return copy;
+    }
+
+}
@@ -0,0 +1,129 @@
+package com.ican.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 进程内的SMTP服务，替代真实邮箱服务用于测试，可按收件人预设拒收
+ *
+ * @author Aric
+ */
+class SmtpStub implements AutoCloseable {
+
+    private final ServerSocket serverSocket;
+
+    /**
+     * 拒收的收件人，RCPT TO 返回 550
+     */
+    private final Set<String> rejectSet = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 已收到邮件的收件人
+     */
+    private final List<String> recipientList = new CopyOnWriteArrayList<>();
+
+    private final AtomicInteger connectionCount = new AtomicInteger();
+
+    SmtpStub() throws IOException {
+        serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        Thread acceptThread = new Thread(this::listen, "smtp-stub");
+        acceptThread.setDaemon(true);
+        acceptThread.start();
+    }
+
+    int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    void reject(String email) {
+        rejectSet.add(email);
+    }
+
+    List<String> getRecipientList() {
+        return recipientList;
+    }
+
+    int getConnectionCount() {
+        return connectionCount.get();
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+    }
+
+    private void listen() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                connectionCount.incrementAndGet();
+                Thread sessionThread = new Thread(() -> session(socket), "smtp-stub-session");
+                sessionThread.setDaemon(true);
+                sessionThread.start();
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void session(Socket socket) {
+        try (Socket client = socket;
+             BufferedReader reader = new BufferedReader(new InputStreamReader(client.getInputStream(), StandardCharsets.US_ASCII))) {
+            OutputStream out = client.getOutputStream();
+            reply(out, "220 localhost ESMTP stub");
+            String recipient = null;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String command = line.toUpperCase();
+                if (command.startsWith("EHLO") || command.startsWith("HELO")) {
+                    reply(out, "250 localhost");
+                } else if (command.startsWith("MAIL FROM")) {
+                    recipient = null;
+                    reply(out, "250 OK");
+                } else if (command.startsWith("RCPT TO")) {
+                    String email = line.substring(line.indexOf('<') + 1, line.indexOf('>'));
+                    if (rejectSet.contains(email)) {
+                        reply(out, "550 mailbox unavailable: " + email);
+                    } else {
+                        recipient = email;
+                        reply(out, "250 OK");
+                    }
+                } else if (command.equals("DATA")) {
+                    reply(out, "354 end data with <CR><LF>.<CR><LF>");
+                    while ((line = reader.readLine()) != null && !line.equals(".")) {
+                        // 丢弃邮件正文
+                    }
+                    recipientList.add(recipient);
+                    reply(out, "250 OK");
+                } else if (command.equals("RSET")) {
+                    recipient = null;
+                    reply(out, "250 OK");
+                } else if (command.equals("QUIT")) {
+                    reply(out, "221 bye");
+                    return;
+                } else {
+                    reply(out, "250 OK");
+                }
+            }
+        } catch (IOException ignored) {
+            // 客户端断开
+        }
+    }
+
+    private static void reply(OutputStream out, String line) throws IOException {
+        out.write((line + "\r\n").getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+    }
+
+}
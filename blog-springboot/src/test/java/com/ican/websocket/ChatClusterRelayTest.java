@@ -0,0 +1,103 @@
+package com.ican.websocket;
+
+import com.alibaba.fastjson2.JSON;
+import com.ican.model.dto.WebsocketMessageDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+/**
+ * 聊天室集群转发测试
+ *
+ * @author Aric
+ */
+class ChatClusterRelayTest {
+
+    private LocalChatRelayBroker broker;
+
+    private Node nodeA;
+
+    private Node nodeB;
+
+    @BeforeEach
+    void setUp() {
+        broker = new LocalChatRelayBroker();
+        nodeA = new Node(broker);
+        nodeB = new Node(broker);
+    }
+
+    @Test
+    void relayMessagesToOtherNodes() {
+        nodeA.relay.broadcast("m1");
+        nodeA.relay.broadcast("m2");
+        assertEquals(0, nodeB.messageList.size());
+        nodeA.relay.flush();
+        assertEquals(List.of("m1", "m2"), nodeA.messageList);
+        assertEquals(List.of("m1", "m2"), nodeB.messageList);
+    }
+
+    @Test
+    void sumOnlineCountAcrossNodes() {
+        nodeA.relay.updateOnlineCount(3);
+        nodeB.relay.updateOnlineCount(2);
+        assertEquals(5, lastOnlineCount(nodeB));
+        nodeB.relay.flush();
+        assertEquals(5, lastOnlineCount(nodeA));
+    }
+
+    @Test
+    void expireDeadNode() {
+        nodeA.localCount.set(3);
+        nodeB.localCount.set(2);
+        nodeA.relay.heartbeat();
+        nodeB.relay.heartbeat();
+        assertEquals(5, broker.sumOnlineCount());
+        // 节点B停止心跳
+        broker.advance(20000);
+        nodeA.relay.heartbeat();
+        assertEquals(5, broker.sumOnlineCount());
+        broker.advance(20000);
+        nodeA.relay.heartbeat();
+        assertEquals(3, broker.sumOnlineCount());
+        assertEquals(3, lastOnlineCount(nodeA));
+    }
+
+    @Test
+    void removeNodeOnShutdown() {
+        nodeA.relay.updateOnlineCount(3);
+        nodeB.relay.updateOnlineCount(2);
+        nodeB.relay.destroy();
+        assertEquals(3, broker.sumOnlineCount());
+    }
+
+    private static int lastOnlineCount(Node node) {
+        String message = node.messageList.get(node.messageList.size() - 1);
+        return (Integer) JSON.parseObject(message, WebsocketMessageDTO.class).getData();
+    }
+
+    private static final class Node {
+
+        private final ChatClusterRelay relay = new ChatClusterRelay();
+
+        private final List<String> messageList = new CopyOnWriteArrayList<>();
+
+        private final AtomicInteger localCount = new AtomicInteger();
+
+        private Node(ChatRelayBroker broker) {
+            ReflectionTestUtils.setField(relay, "chatRelayBroker", broker);
+            ReflectionTestUtils.setField(relay, "scheduledExecutorService", mock(ScheduledExecutorService.class));
+            relay.localSender = messageList::add;
+            relay.localCounter = localCount::get;
+            relay.init();
+        }
+    }
+
+}
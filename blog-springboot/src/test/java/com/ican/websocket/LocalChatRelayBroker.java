@@ -0,0 +1,65 @@
+package com.ican.websocket;
+
+import com.ican.model.dto.ChatRelayDTO;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * 进程内聊天室转发，替代 Redis 用于测试，时钟可手动推进
+ *
+ * @author Aric
+ */
+class LocalChatRelayBroker implements ChatRelayBroker {
+
+    private final List<Consumer<ChatRelayDTO>> consumerList = new CopyOnWriteArrayList<>();
+
+    private final Map<String, Integer> countMap = new ConcurrentHashMap<>();
+
+    private final Map<String, Long> heartbeatMap = new ConcurrentHashMap<>();
+
+    private final AtomicLong clock = new AtomicLong();
+
+    void advance(long millis) {
+        clock.addAndGet(millis);
+    }
+
+    @Override
+    public void publish(ChatRelayDTO relay) {
+        consumerList.forEach(consumer -> consumer.accept(relay));
+    }
+
+    @Override
+    public void subscribe(Consumer<ChatRelayDTO> consumer) {
+        consumerList.add(consumer);
+    }
+
+    @Override
+    public synchronized long heartbeat(String nodeId, int localCount, long expireMillis) {
+        long now = clock.get();
+        countMap.put(nodeId, localCount);
+        heartbeatMap.put(nodeId, now);
+        long expired = heartbeatMap.entrySet().stream()
+                .filter(entry -> now - entry.getValue() > expireMillis)
+                .count();
+        heartbeatMap.entrySet().removeIf(entry -> now - entry.getValue() > expireMillis);
+        countMap.keySet().retainAll(heartbeatMap.keySet());
+        return expired;
+    }
+
+    @Override
+    public synchronized void remove(String nodeId) {
+        countMap.remove(nodeId);
+        heartbeatMap.remove(nodeId);
+    }
+
+    @Override
+    public int sumOnlineCount() {
+        return countMap.values().stream().mapToInt(Integer::intValue).sum();
+    }
+
+}
@@ -91,7 +91,8 @@ CREATE TABLE `t_article_tag`  (
   `id` int NOT NULL AUTO_INCREMENT COMMENT '主键',
   `article_id` int NOT NULL COMMENT '文章id',
   `tag_id` int NOT NULL COMMENT '标签id',
-  PRIMARY KEY (`id`) USING BTREE
+  PRIMARY KEY (`id`) USING BTREE,
+  INDEX `idx_tag_article`(`tag_id`, `article_id`) USING BTREE
 ) ENGINE = InnoDB AUTO_INCREMENT = 187 CHARACTER SET = utf8mb4 COLLATE = utf8mb4_0900_ai_ci ROW_FORMAT = DYNAMIC;
 
 -- ----------------------------
@@ -410,7 +411,8 @@ CREATE TABLE `t_exception_log`  (
   `os` varchar(50) CHARACTER SET utf8mb4 COLLATE utf8mb4_0900_ai_ci NOT NULL COMMENT '操作系统',
   `browser` varchar(50) CHARACTER SET utf8mb4 COLLATE utf8mb4_0900_ai_ci NOT NULL COMMENT '浏览器',
   `create_time` datetime NOT NULL COMMENT '操作时间',
-  PRIMARY KEY (`id`) USING BTREE
+  PRIMARY KEY (`id`) USING BTREE,
+  INDEX `idx_create_time`(`create_time`) USING BTREE
 ) ENGINE = InnoDB AUTO_INCREMENT = 255 CHARACTER SET = utf8mb4 COLLATE = utf8mb4_0900_ai_ci ROW_FORMAT = DYNAMIC;
 
 -- ----------------------------
@@ -465,7 +467,7 @@ CREATE TABLE `t_menu`  (
   `create_time` datetime NOT NULL COMMENT '创建时间',
   `update_time` datetime NULL DEFAULT NULL COMMENT '更新时间',
   PRIMARY KEY (`id`) USING BTREE
-) ENGINE = InnoDB AUTO_INCREMENT = 127 CHARACTER SET = utf8mb4 COLLATE = utf8mb4_0900_ai_ci ROW_FORMAT = DYNAMIC;
+) ENGINE = InnoDB AUTO_INCREMENT = 129 CHARACTER SET = utf8mb4 COLLATE = utf8mb4_0900_ai_ci ROW_FORMAT = DYNAMIC;
 
 -- ----------------------------
 -- Records of t_menu
@@ -567,6 +569,8 @@ INSERT INTO `t_menu` VALUES (123, 11, 'C', '文件管理', 'file', 'file', '/sys
 INSERT INTO `t_menu` VALUES (124, 123, 'B', '上传文件', NULL, NULL, NULL, 'system:file:upload', 0, 0, 1, '2023-03-10 23:11:33', NULL);
 INSERT INTO `t_menu` VALUES (125, 123, 'B', '新建文件夹', NULL, NULL, NULL, 'system:file:createFolder', 0, 0, 2, '2023-03-10 23:12:11', NULL);
 INSERT INTO `t_menu` VALUES (126, 123, 'B', '删除文件', NULL, NULL, NULL, 'system:file:delete', 0, 0, 3, '2023-03-10 23:12:45', NULL);
+INSERT INTO `t_menu` VALUES (127, 26, 'B', '查看SQL统计', NULL, NULL, NULL, 'monitor:sql:list', 0, 0, 3, '2026-10-19 10:00:00', NULL);
+INSERT INTO `t_menu` VALUES (128, 26, 'B', '清空SQL统计', NULL, NULL, NULL, 'monitor:sql:clear', 0, 0, 4, '2026-10-19 10:00:00', NULL);
 
 -- ----------------------------
 -- Table structure for t_message
@@ -623,7 +627,8 @@ CREATE TABLE `t_operation_log`  (
   `ip_source` varchar(50) CHARACTER SET utf8mb4 COLLATE utf8mb4_0900_ai_ci NOT NULL DEFAULT '未知地区' COMMENT '操作地址',
   `times` int NOT NULL COMMENT '操作耗时 (毫秒)',
   `create_time` datetime NOT NULL COMMENT '操作时间',
-  PRIMARY KEY (`id`) USING BTREE
+  PRIMARY KEY (`id`) USING BTREE,
+  INDEX `idx_create_time`(`create_time`) USING BTREE
 ) ENGINE = InnoDB AUTO_INCREMENT = 1318 CHARACTER SET = utf8mb4 COLLATE = utf8mb4_0900_ai_ci ROW_FORMAT = DYNAMIC;
 
 -- ----------------------------
@@ -855,7 +860,7 @@ CREATE TABLE `t_role_menu`  (
   `role_id` varchar(20) CHARACTER SET utf8mb4 COLLATE utf8mb4_0900_ai_ci NOT NULL COMMENT '角色id',
   `menu_id` int NOT NULL COMMENT '菜单id',
   PRIMARY KEY (`id`) USING BTREE
-) ENGINE = InnoDB AUTO_INCREMENT = 6227 CHARACTER SET = utf8mb4 COLLATE = utf8mb4_0900_ai_ci ROW_FORMAT = DYNAMIC;
+) ENGINE = InnoDB AUTO_INCREMENT = 6229 CHARACTER SET = utf8mb4 COLLATE = utf8mb4_0900_ai_ci ROW_FORMAT = DYNAMIC;
 
 -- ----------------------------
 -- Records of t_role_menu
@@ -1018,6 +1023,8 @@ INSERT INTO `t_role_menu` VALUES (6223, '2', 95);
 INSERT INTO `t_role_menu` VALUES (6224, '2', 96);
 INSERT INTO `t_role_menu` VALUES (6225, '2', 97);
 INSERT INTO `t_role_menu` VALUES (6226, '2', 98);
+INSERT INTO `t_role_menu` VALUES (6227, '1', 127);
+INSERT INTO `t_role_menu` VALUES (6228, '1', 128);
 
 -- ----------------------------
 -- Table structure for t_site_config
@@ -1159,7 +1166,7 @@ CREATE TABLE `t_task`  (
   `create_time` datetime NULL DEFAULT NULL COMMENT '创建时间',
   `update_time` datetime NULL DEFAULT NULL COMMENT '更新时间',
   PRIMARY KEY (`id`) USING BTREE
-) ENGINE = InnoDB AUTO_INCREMENT = 7 CHARACTER SET = utf8mb4 COLLATE = utf8mb4_0900_ai_ci ROW_FORMAT = DYNAMIC;
+) ENGINE = InnoDB AUTO_INCREMENT = 13 CHARACTER SET = utf8mb4 COLLATE = utf8mb4_0900_ai_ci ROW_FORMAT = DYNAMIC;
 
 -- ----------------------------
 -- Records of t_task
@@ -1167,6 +1174,12 @@ CREATE TABLE `t_task`  (
 INSERT INTO `t_task` VALUES (4, '清除每日游客访问记录', 'SYSTEM', 'timedTask.clear', '0 0 0 * * ?', 3, 0, 0, '清除redis中的游客记录', '2023-02-14 09:49:39', '2023-02-18 15:48:41');
 INSERT INTO `t_task` VALUES (5, '测试任务', 'SYSTEM', 'timedTask.test', '0/10 * * * * ? ', 3, 0, 1, '测试任务', '2023-02-17 21:54:47', NULL);
 INSERT INTO `t_task` VALUES (6, '清除访问日志', 'SYSTEM', 'timedTask.clearVistiLog', '0 0 2 * * ?', 3, 0, 0, '清除一周前的访问日志', '2023-02-22 15:56:32', NULL);
+INSERT INTO `t_task` VALUES (7, '修复文章数量', 'SYSTEM', 'timedTask.reconcileArticleCount', '0 30 3 * * ?', 3, 0, 0, '按数据库重新统计文章、分类、标签数量', '2026-10-19 00:00:00', NULL);
+INSERT INTO `t_task` VALUES (8, '清除过期日志', 'SYSTEM', 'timedTask.clearLog', '0 30 2 * * ?', 3, 0, 0, '按保留天数分批清除访问、操作、异常、定时任务日志', '2026-10-19 00:00:00', NULL);
+INSERT INTO `t_task` VALUES (9, '重建文章卡片', 'SYSTEM', 'timedTask.rebuildArticleCard', '0 0 4 * * ?', 3, 0, 0, '按文章表全量重建前台文章列表卡片', '2026-10-19 00:00:00', NULL);
+INSERT INTO `t_task` VALUES (10, '重建搜索索引', 'SYSTEM', 'timedTask.reindexArticle', '0 0 5 ? * MON', 3, 0, 1, '新建es索引全量写入文章后切换别名，默认暂停，需要时手动执行', '2026-10-19 00:00:00', NULL);
+INSERT INTO `t_task` VALUES (11, '重建相关文章', 'SYSTEM', 'timedTask.rebuildArticleRelated', '0 30 4 * * ?', 3, 0, 0, '按标签、分类和正文重新计算相关文章及词的文档频率', '2026-10-19 00:00:00', NULL);
+INSERT INTO `t_task` VALUES (12, '清除异常限流计数', 'SYSTEM', 'timedTask.clearAccessLimit', '0 10 * * * ?', 3, 0, 0, '清除redis中没有过期时间的接口限流计数', '2026-10-19 00:00:00', NULL);
 
 -- ----------------------------
 -- Table structure for t_task_log
@@ -1181,7 +1194,8 @@ CREATE TABLE `t_task_log`  (
   `status` tinyint(1) NULL DEFAULT 1 COMMENT '执行状态 (0失败 1正常)',
   `error_info` longtext CHARACTER SET utf8mb4 COLLATE utf8mb4_0900_ai_ci NULL COMMENT '错误信息',
   `create_time` datetime NULL DEFAULT NULL COMMENT '创建时间',
-  PRIMARY KEY (`id`) USING BTREE
+  PRIMARY KEY (`id`) USING BTREE,
+  INDEX `idx_create_time`(`create_time`) USING BTREE
 ) ENGINE = InnoDB AUTO_INCREMENT = 39 CHARACTER SET = utf8mb4 COLLATE = utf8mb4_0900_ai_ci ROW_FORMAT = DYNAMIC;
 
 -- ----------------------------
@@ -1274,7 +1288,8 @@ CREATE TABLE `t_visit_log`  (
   `os` varchar(50) CHARACTER SET utf8mb4 COLLATE utf8mb4_0900_ai_ci NULL DEFAULT NULL COMMENT '操作系统',
   `browser` varchar(50) CHARACTER SET utf8mb4 COLLATE utf8mb4_0900_ai_ci NULL DEFAULT NULL COMMENT '浏览器',
   `create_time` datetime NOT NULL COMMENT '访问时间',
-  PRIMARY KEY (`id`) USING BTREE
+  PRIMARY KEY (`id`) USING BTREE,
+  INDEX `idx_create_time`(`create_time`) USING BTREE
 ) ENGINE = InnoDB AUTO_INCREMENT = 4240 CHARACTER SET = utf8mb4 COLLATE = utf8mb4_0900_ai_ci ROW_FORMAT = DYNAMIC;
 
 -- ----------------------------
@@ -3735,3 +3750,119 @@ CREATE TABLE IF NOT EXISTS `t_ai_record` (
                                              UNIQUE KEY `uk_user_type` (`user_id`, `record_type`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci COMMENT='AI记录表';
 
+-- ============================================================
+--  文章卡片（前台文章列表读模型，只保存公开文章）
+-- ============================================================
+CREATE TABLE IF NOT EXISTS `t_article_card` (
+                                                `article_id`      INT           NOT NULL                COMMENT '文章id',
+                                                `article_cover`   VARCHAR(1024) NOT NULL                COMMENT '缩略图',
+                                                `article_title`   VARCHAR(50)   NOT NULL                COMMENT '文章标题',
+                                                `article_desc`    VARCHAR(100)  NOT NULL DEFAULT ''     COMMENT '文章摘要',
+                                                `article_excerpt` VARCHAR(200)           DEFAULT NULL   COMMENT '文章内容开头',
+                                                `article_type`    TINYINT       NOT NULL                COMMENT '类型 (1原创 2转载 3翻译)',
+                                                `is_top`          TINYINT       NOT NULL DEFAULT 0      COMMENT '是否置顶 (0否 1是)',
+                                                `category_id`     INT           NOT NULL                COMMENT '分类id',
+                                                `category_name`   VARCHAR(20)            DEFAULT NULL   COMMENT '分类名',
+                                                `tag_list`        JSON          NOT NULL                COMMENT '标签列表 [{"id":1,"tagName":""}]',
+                                                `create_time`     DATETIME      NOT NULL                COMMENT '发表时间',
+                                                PRIMARY KEY (`article_id`),
+                                                KEY `idx_create_time` (`create_time`, `article_id`),
+                                                KEY `idx_category_top` (`category_id`, `is_top`, `article_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci COMMENT='文章卡片表';
+
+INSERT INTO `t_article_card` (`article_id`, `article_cover`, `article_title`, `article_desc`, `article_excerpt`,
+                              `article_type`, `is_top`, `category_id`, `category_name`, `tag_list`, `create_time`)
+SELECT a.id,
+       a.article_cover,
+       a.article_title,
+       a.article_desc,
+       LEFT(a.article_content, 200),
+       a.article_type,
+       a.is_top,
+       a.category_id,
+       c.category_name,
+       COALESCE((SELECT JSON_ARRAYAGG(JSON_OBJECT('id', t.id, 'tagName', t.tag_name))
+                 FROM t_article_tag tat
+                          INNER JOIN t_tag t ON tat.tag_id = t.id
+                 WHERE tat.article_id = a.id), JSON_ARRAY()),
+       a.create_time
+FROM t_article a
+         LEFT JOIN t_category c ON a.category_id = c.id
+WHERE a.is_delete = 0
+  AND a.`status` = 1;
+
+-- ============================================================
+--  邮件发件箱（邮件先落库，再由后台分批发送和重试）
+-- ============================================================
+CREATE TABLE IF NOT EXISTS `t_mail_outbox` (
+                                               `id`          INT           NOT NULL AUTO_INCREMENT COMMENT '主键',
+                                               `to_email`    VARCHAR(128)  NOT NULL                COMMENT '收件人邮箱',
+                                               `subject`     VARCHAR(128)  NOT NULL                COMMENT '主题',
+                                               `content`     TEXT                                  COMMENT '普通邮件内容',
+                                               `template`    VARCHAR(64)            DEFAULT NULL   COMMENT 'HTML邮件模板',
+                                               `content_map` TEXT                                  COMMENT '模板变量（JSON）',
+                                               `status`      TINYINT       NOT NULL DEFAULT 0      COMMENT '状态 (0待发送 1已发送 2发送失败)',
+                                               `retry_count` INT           NOT NULL DEFAULT 0      COMMENT '重试次数',
+                                               `next_time`   DATETIME      NOT NULL                COMMENT '下次发送时间',
+                                               `error_info`  VARCHAR(500)           DEFAULT NULL   COMMENT '最近一次错误信息',
+                                               `create_time` DATETIME      NOT NULL                COMMENT '创建时间',
+                                               `update_time` DATETIME               DEFAULT NULL   COMMENT '更新时间',
+                                               PRIMARY KEY (`id`),
+                                               KEY `idx_status_next_time` (`status`, `next_time`),
+                                               KEY `idx_create_time` (`create_time`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci COMMENT='邮件发件箱表';
+
+-- ============================================================
+--  文章变更事件（与文章/标签/分类修改写入同一事务，按id顺序投递给订阅者）
+-- ============================================================
+CREATE TABLE IF NOT EXISTS `t_article_event` (
+                                                 `id`          INT          NOT NULL AUTO_INCREMENT COMMENT '事件id',
+                                                 `article_id`  INT          NOT NULL                COMMENT '文章id',
+                                                 `event_type`  VARCHAR(16)  NOT NULL                COMMENT '事件类型 (SAVE保存 DELETE删除)',
+                                                 `create_time` DATETIME     NOT NULL                COMMENT '创建时间',
+                                                 PRIMARY KEY (`id`),
+                                                 KEY `idx_create_time` (`create_time`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci COMMENT='文章变更事件表';
+
+CREATE TABLE IF NOT EXISTS `t_article_event_offset` (
+                                                        `subscriber`  VARCHAR(64)  NOT NULL                COMMENT '订阅者',
+                                                        `last_id`     INT          NOT NULL DEFAULT 0      COMMENT '已处理的最大事件id',
+                                                        `retry_count` INT          NOT NULL DEFAULT 0      COMMENT '当前批次连续失败次数',
+                                                        `lease_owner` VARCHAR(32)           DEFAULT NULL   COMMENT '持有投递租约的节点id',
+                                                        `lease_until` DATETIME(3)           DEFAULT NULL   COMMENT '租约到期时间',
+                                                        `update_time` DATETIME              DEFAULT NULL   COMMENT '更新时间',
+                                                        PRIMARY KEY (`subscriber`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci COMMENT='文章变更事件订阅偏移量表';
+
+CREATE TABLE IF NOT EXISTS `t_article_event_gap` (
+                                                     `subscriber`  VARCHAR(64)  NOT NULL                COMMENT '订阅者',
+                                                     `event_id`    INT          NOT NULL                COMMENT '缺失的事件id',
+                                                     `create_time` DATETIME     NOT NULL                COMMENT '首次发现时间',
+                                                     PRIMARY KEY (`subscriber`, `event_id`),
+                                                     KEY `idx_event_id` (`event_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci COMMENT='文章变更事件id缺口表';
+
+CREATE TABLE IF NOT EXISTS `t_article_event_dead_letter` (
+                                                             `id`          INT          NOT NULL AUTO_INCREMENT COMMENT 'id',
+                                                             `subscriber`  VARCHAR(64)  NOT NULL                COMMENT '订阅者',
+                                                             `event_id`    INT          NOT NULL                COMMENT '事件id',
+                                                             `article_id`  INT          NOT NULL                COMMENT '文章id',
+                                                             `event_type`  VARCHAR(16)  NOT NULL                COMMENT '事件类型',
+                                                             `error_info`  VARCHAR(500)          DEFAULT NULL   COMMENT '错误信息',
+                                                             `create_time` DATETIME     NOT NULL                COMMENT '创建时间',
+                                                             PRIMARY KEY (`id`),
+                                                             KEY `idx_subscriber` (`subscriber`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci COMMENT='文章变更事件死信表';
+
+-- ============================================================
+--  相关文章（每篇公开文章的相似文章，由后台全量重建并按文章变更事件增量更新）
+-- ============================================================
+CREATE TABLE IF NOT EXISTS `t_article_related` (
+                                                   `article_id`   INT      NOT NULL                COMMENT '文章id',
+                                                   `related_list` JSON     NOT NULL                COMMENT '相关文章id [12,5]，按相似度降序',
+                                                   `score_list`   JSON     NOT NULL                COMMENT '相似度 [0.83,0.5]，与相关文章id一一对应',
+                                                   `term_vector`  JSON              DEFAULT NULL   COMMENT '正文词向量 {"词":权重}',
+                                                   `update_time`  DATETIME NOT NULL                COMMENT '更新时间',
+                                                   PRIMARY KEY (`article_id`),
+                                                   KEY `idx_related_list` ((CAST(`related_list` -> '$' AS UNSIGNED ARRAY)))
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci COMMENT='相关文章表';